@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.aggregateFunctions;
+
+/**
+ * State of an aggregate function for the groups of a query. The groups are numbered from 0, and the state of each
+ * group is kept in a slot of arrays indexed by the group number, so that a group has no objects of its own.
+ * The partial aggregate of a group can be taken out of the accumulator and merged back into another accumulator
+ * later, which allows the groups to be spilled to disk.
+ */
+public abstract class Accumulator {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int capacity;
+
+    /**
+     * Make room for the state of the given number of groups. The slots of the new groups are empty.
+     *
+     * @param groupCount Number of groups
+     */
+    public void ensureCapacity(int groupCount) {
+        if (groupCount > this.capacity) {
+            this.capacity = Math.max(groupCount, Math.max(INITIAL_CAPACITY, this.capacity * 2));
+            grow(this.capacity);
+        }
+    }
+
+    /**
+     * Resize the slot arrays to the given capacity, keeping the state of the existing groups.
+     */
+    protected abstract void grow(int capacity);
+
+    /**
+     * Add a row to the aggregate of a group.
+     *
+     * @param group Number of the group
+     * @param row   Record which contains the data
+     */
+    public abstract void accumulate(int group, Object[] row);
+
+    /**
+     * Get the partial aggregate of a group, which is a serializable value or null if the group has no values.
+     */
+    public abstract Object getPartial(int group);
+
+    /**
+     * Merge a partial aggregate of the same group, taken from another accumulator, into a group.
+     */
+    public abstract void mergePartial(int group, Object partial);
+
+    /**
+     * Get the value of the aggregate function for a group.
+     */
+    public abstract Object getResult(int group);
+}
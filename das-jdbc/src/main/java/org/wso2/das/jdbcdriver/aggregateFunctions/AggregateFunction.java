@@ -17,13 +17,83 @@
  */
 package org.wso2.das.jdbcdriver.aggregateFunctions;
 
+import org.wso2.das.jdbcdriver.common.ServiceConstants;
+import org.wso2.das.jdbcdriver.expressions.ColumnName;
 import org.wso2.das.jdbcdriver.expressions.Expression;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Base Class which is used in common for all Aggregate Functions.
+ * The values of the function are aggregated by accumulators, which keep the state of each group of a query. The
+ * function evaluates to its value in the aggregated rows, at the position given by the result index.
  */
 public abstract class AggregateFunction extends Expression {
 
-    public abstract void processRow(Map<String, Object> env);
+    private int resultIndex = -1;
+
+    /**
+     * Create an empty accumulator of the values of the function.
+     */
+    public abstract Accumulator createAccumulator();
+
+    /**
+     * Get the columns used by the argument of the function.
+     */
+    public abstract List<String> getArgumentColumns();
+
+    /**
+     * Get the argument of the function.
+     */
+    protected abstract Expression getArgument();
+
+    /**
+     * Set the position of the value of the function in the aggregated rows.
+     */
+    public void setResultIndex(int resultIndex) {
+        this.resultIndex = resultIndex;
+    }
+
+    /**
+     * Get the value of the function in an aggregated row.
+     *
+     * @param row Aggregated row
+     */
+    @Override
+    public Object eval(Object[] row) {
+        return this.resultIndex >= 0 && this.resultIndex < row.length ? row[this.resultIndex] : null;
+    }
+
+    /**
+     * Get the schema data type of the argument of the function, or null if the argument is not a column. The type is
+     * known after the columns of the argument are resolved, and selects the accumulator of the function.
+     */
+    protected String getArgumentType() {
+        Expression argument = getArgument();
+        return argument instanceof ColumnName ? ((ColumnName) argument).getColumnType() : null;
+    }
+
+    /**
+     * Check whether the values of a data type are integers which fit in a long.
+     */
+    protected static boolean isIntegralType(String dataType) {
+        return ServiceConstants.DATATYPES.DATATYPE_INT.equalsIgnoreCase(dataType)
+                || ServiceConstants.DATATYPES.DATATYPE_INTEGER.equalsIgnoreCase(dataType)
+                || ServiceConstants.DATATYPES.DATATYPE_LONG.equalsIgnoreCase(dataType)
+                || ServiceConstants.DATATYPES.DATATYPE_SHORT.equalsIgnoreCase(dataType)
+                || ServiceConstants.DATATYPES.DATATYPE_BYTE.equalsIgnoreCase(dataType);
+    }
+
+    /**
+     * Check whether the values of a data type are floating point numbers.
+     */
+    protected static boolean isFloatingPointType(String dataType) {
+        return ServiceConstants.DATATYPES.DATATYPE_FLOAT.equalsIgnoreCase(dataType)
+                || ServiceConstants.DATATYPES.DATATYPE_DOUBLE.equalsIgnoreCase(dataType);
+    }
+
+    @Override
+    public void resolveColumns(Map<String, Integer> columnIndexes, String[] columnTypes) {
+        getArgument().resolveColumns(columnIndexes, columnTypes);
+    }
 }
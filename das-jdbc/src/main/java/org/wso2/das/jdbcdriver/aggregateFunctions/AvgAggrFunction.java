@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.aggregateFunctions;
+
+import org.wso2.das.jdbcdriver.expressions.Expression;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class which implements the SQL AVG Aggregation function.
+ * The values are summed by the accumulator of SUM for the type of the column, and counted alongside.
+ */
+public class AvgAggrFunction extends AggregateFunction {
+
+    private Expression expression;
+    private SumAggrFunction sumFunction;
+
+    public AvgAggrFunction(Expression expression) {
+        this.expression = expression;
+        this.sumFunction = new SumAggrFunction(expression);
+    }
+
+    @Override
+    public Accumulator createAccumulator() {
+        return new AvgAccumulator(this.sumFunction.createAccumulator());
+    }
+
+    @Override
+    protected Expression getArgument() {
+        return this.expression;
+    }
+
+    @Override
+    public List<String> getArgumentColumns() {
+        return this.expression.getFilteredColumns(Collections.<String>emptySet());
+    }
+
+    /*
+     * Sum and number of the values of each group. The partial aggregate of a group is an array of the partial sum and
+     * the count, or null for a group without values.
+     */
+    private class AvgAccumulator extends Accumulator {
+        private final Accumulator sums;
+        private long[] counts = new long[0];
+
+        private AvgAccumulator(Accumulator sums) {
+            this.sums = sums;
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            this.sums.ensureCapacity(capacity);
+            this.counts = Arrays.copyOf(this.counts, capacity);
+        }
+
+        @Override
+        public void accumulate(int group, Object[] row) {
+            if (expression.eval(row) != null) {
+                this.sums.accumulate(group, row);
+                this.counts[group]++;
+            }
+        }
+
+        @Override
+        public Object getPartial(int group) {
+            return this.counts[group] == 0 ? null : new Object[] { this.sums.getPartial(group), this.counts[group] };
+        }
+
+        @Override
+        public void mergePartial(int group, Object partial) {
+            if (partial != null) {
+                Object[] sumAndCount = (Object[]) partial;
+                this.sums.mergePartial(group, sumAndCount[0]);
+                this.counts[group] += (Long) sumAndCount[1];
+            }
+        }
+
+        @Override
+        public Object getResult(int group) {
+            Object sum = this.sums.getPartial(group);
+            long count = this.counts[group];
+            if (sum == null || count == 0) {
+                return null;
+            } else if (sum instanceof BigDecimal) {
+                return ((BigDecimal) sum).divide(BigDecimal.valueOf(count), MathContext.DECIMAL64).doubleValue();
+            }
+            return ((Number) sum).doubleValue() / count;
+        }
+    }
+}
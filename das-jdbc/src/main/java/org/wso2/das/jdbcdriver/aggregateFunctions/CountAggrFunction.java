@@ -20,9 +20,10 @@ package org.wso2.das.jdbcdriver.aggregateFunctions;
 import org.wso2.das.jdbcdriver.expressions.AsteriskExpression;
 import org.wso2.das.jdbcdriver.expressions.Expression;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -31,35 +32,65 @@ import java.util.Set;
 public class CountAggrFunction extends AggregateFunction {
 
     private Expression expression;
-    private int counter = 0;
 
     public CountAggrFunction(Expression expression) {
         this.expression = expression;
     }
 
     /**
-     * Evaluate each row against the function.
-     *
-     * @param env RecordEnvironment which contains the data
+     * Check whether the function counts all the rows, as COUNT(*) does.
      */
+    public boolean isCountAll() {
+        return this.expression instanceof AsteriskExpression;
+    }
+
     @Override
-    public void processRow(Map<String, Object> env) {
-        if (this.expression instanceof AsteriskExpression) {
-            this.counter++;
-        } else {
-            Object o = this.expression.eval(env);
-            if (o != null) {
-                this.counter++;
-            }
-        }
+    public Accumulator createAccumulator() {
+        return new CountAccumulator();
     }
 
-    /**
-     * Get the evaluated result of the function with the given data.
-     *
-     * @param env - RecordEnvironment which contains the details of the record
+    @Override
+    protected Expression getArgument() {
+        return this.expression;
+    }
+
+    @Override
+    public List<String> getArgumentColumns() {
+        return this.expression.getFilteredColumns(Collections.<String>emptySet());
+    }
+
+    /*
+     * Number of rows of each group, or of the rows with a non null argument value.
      */
-    public Object eval(Map<String, Object> env) {
-        return this.counter;
+    private class CountAccumulator extends Accumulator {
+        private final boolean countAllRows = isCountAll();
+        private long[] counts = new long[0];
+
+        @Override
+        protected void grow(int capacity) {
+            this.counts = Arrays.copyOf(this.counts, capacity);
+        }
+
+        @Override
+        public void accumulate(int group, Object[] row) {
+            if (this.countAllRows || expression.eval(row) != null) {
+                this.counts[group]++;
+            }
+        }
+
+        @Override
+        public Object getPartial(int group) {
+            return this.counts[group];
+        }
+
+        @Override
+        public void mergePartial(int group, Object partial) {
+            this.counts[group] += (Long) partial;
+        }
+
+        @Override
+        public Object getResult(int group) {
+            return this.counts[group];
+        }
     }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.aggregateFunctions;
+
+import org.wso2.das.jdbcdriver.common.ServiceConstants;
+import org.wso2.das.jdbcdriver.expressions.Expression;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base class of the SQL MIN and MAX Aggregation functions, which keep the value of each group that is the extreme of
+ * the values of the group in the order of the function.
+ * The values of integer and floating point columns are compared as primitive longs and doubles, and the values of
+ * other columns through their natural order.
+ */
+public abstract class ExtremeValueAggrFunction extends AggregateFunction {
+
+    private Expression expression;
+
+    protected ExtremeValueAggrFunction(Expression expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * Check whether the value of a group is replaced by a new value, which compares to the value of the group with
+     * the given result.
+     *
+     * @param comparison Result of comparing the new value to the value of the group
+     */
+    protected abstract boolean isReplacedBy(int comparison);
+
+    @Override
+    public Accumulator createAccumulator() {
+        String argumentType = getArgumentType();
+        if (isIntegralType(argumentType)) {
+            return new LongAccumulator(argumentType);
+        } else if (isFloatingPointType(argumentType)) {
+            return new DoubleAccumulator(argumentType);
+        }
+        return new ComparableAccumulator();
+    }
+
+    @Override
+    protected Expression getArgument() {
+        return this.expression;
+    }
+
+    @Override
+    public List<String> getArgumentColumns() {
+        return this.expression.getFilteredColumns(Collections.<String>emptySet());
+    }
+
+    /*
+     * Extreme integer value of each group in a long. The values are returned in the class of the column type.
+     */
+    private class LongAccumulator extends Accumulator {
+        private final String dataType;
+        private long[] values = new long[0];
+        private boolean[] hasValues = new boolean[0];
+
+        private LongAccumulator(String dataType) {
+            this.dataType = dataType.toUpperCase();
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            this.values = Arrays.copyOf(this.values, capacity);
+            this.hasValues = Arrays.copyOf(this.hasValues, capacity);
+        }
+
+        @Override
+        public void accumulate(int group, Object[] row) {
+            mergePartial(group, expression.eval(row));
+        }
+
+        @Override
+        public Object getPartial(int group) {
+            if (!this.hasValues[group]) {
+                return null;
+            }
+            long value = this.values[group];
+            switch (this.dataType) {
+                case ServiceConstants.DATATYPES.DATATYPE_INT:
+                case ServiceConstants.DATATYPES.DATATYPE_INTEGER:
+                    return (int) value;
+                case ServiceConstants.DATATYPES.DATATYPE_SHORT:
+                    return (short) value;
+                case ServiceConstants.DATATYPES.DATATYPE_BYTE:
+                    return (byte) value;
+                default:
+                    return value;
+            }
+        }
+
+        @Override
+        public void mergePartial(int group, Object partial) {
+            if (partial instanceof Number) {
+                long value = ((Number) partial).longValue();
+                if (!this.hasValues[group] || isReplacedBy(Long.compare(value, this.values[group]))) {
+                    this.values[group] = value;
+                    this.hasValues[group] = true;
+                }
+            }
+        }
+
+        @Override
+        public Object getResult(int group) {
+            return getPartial(group);
+        }
+    }
+
+    /*
+     * Extreme floating point value of each group in a double. The values are returned in the class of the column
+     * type.
+     */
+    private class DoubleAccumulator extends Accumulator {
+        private final boolean floatValues;
+        private double[] values = new double[0];
+        private boolean[] hasValues = new boolean[0];
+
+        private DoubleAccumulator(String dataType) {
+            this.floatValues = ServiceConstants.DATATYPES.DATATYPE_FLOAT.equalsIgnoreCase(dataType);
+        }
+
+        @Override
+        protected void grow(int capacity) {
+            this.values = Arrays.copyOf(this.values, capacity);
+            this.hasValues = Arrays.copyOf(this.hasValues, capacity);
+        }
+
+        @Override
+        public void accumulate(int group, Object[] row) {
+            mergePartial(group, expression.eval(row));
+        }
+
+        @Override
+        public Object getPartial(int group) {
+            if (!this.hasValues[group]) {
+                return null;
+            }
+            return this.floatValues ? (Object) (float) this.values[group] : (Object) this.values[group];
+        }
+
+        @Override
+        public void mergePartial(int group, Object partial) {
+            if (partial instanceof Number) {
+                double value = ((Number) partial).doubleValue();
+                if (!this.hasValues[group] || isReplacedBy(Double.compare(value, this.values[group]))) {
+                    this.values[group] = value;
+                    this.hasValues[group] = true;
+                }
+            }
+        }
+
+        @Override
+        public Object getResult(int group) {
+            return getPartial(group);
+        }
+    }
+
+    /*
+     * Extreme value of each group in the natural order of the values, or null for a group without values.
+     */
+    private class ComparableAccumulator extends Accumulator {
+        private Object[] values = new Object[0];
+
+        @Override
+        protected void grow(int capacity) {
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+
+        @Override
+        public void accumulate(int group, Object[] row) {
+            mergePartial(group, expression.eval(row));
+        }
+
+        @Override
+        public Object getPartial(int group) {
+            return this.values[group];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void mergePartial(int group, Object partial) {
+            if (partial != null) {
+                Object value = this.values[group];
+                if (value == null || isReplacedBy(((Comparable) partial).compareTo(value))) {
+                    this.values[group] = partial;
+                }
+            }
+        }
+
+        @Override
+        public Object getResult(int group) {
+            return this.values[group];
+        }
+    }
+}
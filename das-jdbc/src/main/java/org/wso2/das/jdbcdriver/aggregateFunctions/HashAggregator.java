@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.aggregateFunctions;
+
+import org.wso2.das.jdbcdriver.dasInterface.DataReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hash aggregation of the records of a query by the values of the GROUP BY columns. Each distinct key gets a group
+ * number from a hash table, and the aggregate functions keep the state of the group in their accumulators.
+ * Without GROUP BY columns all the records belong to a single group.
+ * When the number of groups in memory reaches the limit, the partial aggregates of the groups are spilled to
+ * temporary files, partitioned by the hash of the key. The partitions are merged one by one when the aggregated
+ * rows are read, so only the groups of one partition are in memory at a time.
+ * An aggregated row has the values of the GROUP BY columns at their positions in the records, followed by the
+ * values of the aggregate functions, so that the expressions of the query can be evaluated on it.
+ */
+public class HashAggregator {
+
+    private static final int SPILL_PARTITIONS = 16;
+    //Bits of the hash of a key, which select the spill partition
+    private static final int PARTITION_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(SPILL_PARTITIONS);
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    private static final Object NULL_KEY = new Object();
+
+    private static Logger logger = Logger.getLogger(HashAggregator.class.getName());
+
+    private final int[] keyIndexes;
+    private final List<AggregateFunction> functions;
+    private final int recordLength;
+    private final int maxGroups;
+    private Map<Object, Integer> groups;
+    private List<Object[]> groupKeys;
+    private Accumulator[] accumulators;
+    private File[] spillFiles;
+    private ObjectOutputStream[] spillOutputs;
+
+    /**
+     * Creates the aggregator. The result indexes of the functions are set to their positions in the aggregated rows.
+     *
+     * @param keyIndexes   Positions of the GROUP BY columns in the records
+     * @param functions    Aggregate functions of the query
+     * @param recordLength Number of columns of the records
+     * @param maxGroups    Maximum number of groups kept in memory before they are spilled
+     */
+    public HashAggregator(int[] keyIndexes, List<AggregateFunction> functions, int recordLength, int maxGroups) {
+        this.keyIndexes = keyIndexes;
+        this.functions = functions;
+        this.recordLength = recordLength;
+        this.maxGroups = Math.max(maxGroups, 1);
+        for (int i = 0; i < functions.size(); i++) {
+            functions.get(i).setResultIndex(recordLength + i);
+        }
+        resetGroups();
+        if (keyIndexes.length == 0) {
+            //A query without GROUP BY has an aggregated row even if no record matches
+            addGroup(NULL_KEY, new Object[0]);
+        }
+    }
+
+    /**
+     * Add a record to the aggregate of its group.
+     *
+     * @param record Record which contains the data
+     * @throws SQLException if the groups cannot be spilled
+     */
+    public void add(Object[] record) throws SQLException {
+        int group = getGroup(record);
+        for (Accumulator accumulator : this.accumulators) {
+            accumulator.accumulate(group, record);
+        }
+    }
+
+    /**
+     * Merge the partial aggregates of a group, which are computed elsewhere, into the aggregate of the group.
+     *
+     * @param row Values of the columns, followed by the partial aggregates of the functions
+     * @throws SQLException if the groups cannot be spilled
+     */
+    public void addPartial(Object[] row) throws SQLException {
+        int group = getGroup(row);
+        for (int i = 0; i < this.accumulators.length; i++) {
+            this.accumulators[i].mergePartial(group, row[this.recordLength + i]);
+        }
+    }
+
+    /*
+     * Get the number of the group of a record, adding a new group if the key of the record is not found.
+     */
+    private int getGroup(Object[] record) throws SQLException {
+        Object key = getKey(record);
+        Integer group = this.groups.get(key);
+        if (group == null) {
+            if (this.groups.size() >= this.maxGroups) {
+                spill();
+            }
+            Object[] keyValues = new Object[this.keyIndexes.length];
+            for (int i = 0; i < this.keyIndexes.length; i++) {
+                keyValues[i] = record[this.keyIndexes[i]];
+            }
+            group = addGroup(key, keyValues);
+        }
+        return group;
+    }
+
+    /**
+     * Get a reader of the aggregated rows, after all the records are added. The reader has to be closed to remove
+     * the spilled groups.
+     */
+    public DataReader getResults() throws SQLException {
+        if (this.spillOutputs != null) {
+            spill();
+            for (ObjectOutputStream output : this.spillOutputs) {
+                try {
+                    output.close();
+                } catch (IOException e) {
+                    throw new SQLException("Error in writing the spilled groups:", e);
+                }
+            }
+            this.spillOutputs = null;
+        }
+        return new GroupReader();
+    }
+
+    private void resetGroups() {
+        this.groups = new HashMap<Object, Integer>();
+        this.groupKeys = new ArrayList<Object[]>();
+        this.accumulators = new Accumulator[this.functions.size()];
+        for (int i = 0; i < this.accumulators.length; i++) {
+            this.accumulators[i] = this.functions.get(i).createAccumulator();
+        }
+    }
+
+    private int addGroup(Object key, Object[] keyValues) {
+        int group = this.groupKeys.size();
+        this.groups.put(key, group);
+        this.groupKeys.add(keyValues);
+        for (Accumulator accumulator : this.accumulators) {
+            accumulator.ensureCapacity(group + 1);
+        }
+        return group;
+    }
+
+    /*
+     * Get the hash key of the group of a record. A single GROUP BY column is keyed by its value.
+     */
+    private Object getKey(Object[] record) {
+        if (this.keyIndexes.length == 0) {
+            return NULL_KEY;
+        } else if (this.keyIndexes.length == 1) {
+            Object value = record[this.keyIndexes[0]];
+            return value != null ? value : NULL_KEY;
+        }
+        Object[] values = new Object[this.keyIndexes.length];
+        for (int i = 0; i < this.keyIndexes.length; i++) {
+            values[i] = record[this.keyIndexes[i]];
+        }
+        return createKey(values);
+    }
+
+    private static Object createKey(Object[] keyValues) {
+        if (keyValues.length == 1) {
+            return keyValues[0] != null ? keyValues[0] : NULL_KEY;
+        }
+        return keyValues.length == 0 ? NULL_KEY : new GroupKey(keyValues);
+    }
+
+    private static int getPartition(Object key) {
+        return (key.hashCode() * HASH_MULTIPLIER) >>> PARTITION_SHIFT;
+    }
+
+    /*
+     * Write the key values and the partial aggregates of the groups in memory to the spill files, and clear the
+     * groups.
+     */
+    private void spill() throws SQLException {
+        try {
+            if (this.spillOutputs == null) {
+                this.spillFiles = new File[SPILL_PARTITIONS];
+                this.spillOutputs = new ObjectOutputStream[SPILL_PARTITIONS];
+                for (int i = 0; i < SPILL_PARTITIONS; i++) {
+                    this.spillFiles[i] = File.createTempFile("dasjdbc-groups", ".tmp");
+                    this.spillFiles[i].deleteOnExit();
+                    this.spillOutputs[i] = new ObjectOutputStream(
+                            new BufferedOutputStream(new FileOutputStream(this.spillFiles[i])));
+                }
+            }
+            for (Map.Entry<Object, Integer> entry : this.groups.entrySet()) {
+                int group = entry.getValue();
+                Object[] keyValues = this.groupKeys.get(group);
+                Object[] spilled = Arrays.copyOf(keyValues, keyValues.length + this.accumulators.length);
+                for (int i = 0; i < this.accumulators.length; i++) {
+                    spilled[keyValues.length + i] = this.accumulators[i].getPartial(group);
+                }
+                this.spillOutputs[getPartition(entry.getKey())].writeObject(spilled);
+            }
+            for (ObjectOutputStream output : this.spillOutputs) {
+                //Forget the written objects, which are not referred again
+                output.reset();
+            }
+        } catch (IOException e) {
+            close();
+            throw new SQLException("Error in spilling the groups to disk:", e);
+        }
+        resetGroups();
+    }
+
+    /*
+     * Read the spilled groups of a partition and merge the partial aggregates of the same key.
+     */
+    private void loadPartition(int partition) throws SQLException {
+        resetGroups();
+        try (ObjectInputStream input = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(this.spillFiles[partition])))) {
+            while (true) {
+                Object[] spilled;
+                try {
+                    spilled = (Object[]) input.readObject();
+                } catch (EOFException e) {
+                    break;
+                }
+                Object[] keyValues = Arrays.copyOf(spilled, this.keyIndexes.length);
+                Object key = createKey(keyValues);
+                Integer group = this.groups.get(key);
+                if (group == null) {
+                    group = addGroup(key, keyValues);
+                }
+                for (int i = 0; i < this.accumulators.length; i++) {
+                    this.accumulators[i].mergePartial(group, spilled[keyValues.length + i]);
+                }
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SQLException("Error in reading the spilled groups:", e);
+        }
+        if (!this.spillFiles[partition].delete()) {
+            logger.log(Level.FINE, "Spill file not deleted: " + this.spillFiles[partition]);
+        }
+    }
+
+    /*
+     * Remove the spill files.
+     */
+    private void close() {
+        if (this.spillOutputs != null) {
+            for (ObjectOutputStream output : this.spillOutputs) {
+                try {
+                    if (output != null) {
+                        output.close();
+                    }
+                } catch (IOException e) {
+                    logger.log(Level.FINE, "Error in closing a spill file", e);
+                }
+            }
+            this.spillOutputs = null;
+        }
+        if (this.spillFiles != null) {
+            for (File file : this.spillFiles) {
+                if (file != null && file.exists() && !file.delete()) {
+                    logger.log(Level.FINE, "Spill file not deleted: " + file);
+                }
+            }
+        }
+        resetGroups();
+    }
+
+    /*
+     * Key of a group by the values of many GROUP BY columns.
+     */
+    private static class GroupKey {
+        private final Object[] values;
+        private final int hash;
+
+        private GroupKey(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof GroupKey && Arrays.equals(this.values, ((GroupKey) o).values);
+        }
+    }
+
+    /*
+     * Reader of the aggregated rows, which reads the groups in memory, or loads the spilled partitions one by one.
+     */
+    private class GroupReader extends DataReader {
+        private int group = -1;
+        private int partition = -1;
+
+        @Override
+        public boolean next() throws SQLException {
+            this.group++;
+            while (this.group >= groupKeys.size()) {
+                if (spillFiles == null || this.partition + 1 >= spillFiles.length) {
+                    return false;
+                }
+                this.partition++;
+                loadPartition(this.partition);
+                this.group = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public Object[] getRow() throws SQLException {
+            Object[] row = new Object[recordLength + accumulators.length];
+            Object[] keyValues = groupKeys.get(this.group);
+            for (int i = 0; i < keyIndexes.length; i++) {
+                row[keyIndexes[i]] = keyValues[i];
+            }
+            for (int i = 0; i < accumulators.length; i++) {
+                row[recordLength + i] = accumulators[i].getResult(this.group);
+            }
+            return row;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            HashAggregator.this.close();
+        }
+    }
+}
@@ -19,44 +19,17 @@ package org.wso2.das.jdbcdriver.aggregateFunctions;
 
 import org.wso2.das.jdbcdriver.expressions.Expression;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-
 /**
  * Class which implements the SQL MIN Aggregation function.
  */
-public class MinAggrFunciton extends AggregateFunction {
-
-    private Expression expression;
-    private Object minValue = null;
+public class MinAggrFunciton extends ExtremeValueAggrFunction {
 
     public MinAggrFunciton(Expression expression) {
-        this.expression = expression;
+        super(expression);
     }
 
-    /**
-     * Evaluate each row against the function.
-     *
-     * @param env RecordEnvironment which contains the data
-     */
     @Override
-    public void processRow(Map<String, Object> env) {
-        Object o = this.expression.eval(env);
-        if (o != null) {
-            if (this.minValue == null || ((Comparable) this.minValue).compareTo(o) > 0) {
-                this.minValue = o;
-            }
-        }
-    }
-
-    /**
-     * Get the evaluated result of the function with the given data.
-     *
-     * @param env - RecordEnvironment which contains the details of the record
-     */
-    public Object eval(Map<String, Object> env) {
-        return this.minValue;
+    protected boolean isReplacedBy(int comparison) {
+        return comparison < 0;
     }
 }
@@ -20,9 +20,10 @@ package org.wso2.das.jdbcdriver.aggregateFunctions;
 import org.wso2.das.jdbcdriver.expressions.Expression;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -33,7 +34,6 @@ import java.util.logging.Logger;
 public class SumAggrFunction extends AggregateFunction {
 
     private Expression expression;
-    private BigDecimal sum = null;
     private static Logger logger = Logger.getLogger(SumAggrFunction.class.getName());
 
     public SumAggrFunction(Expression expression) {
@@ -41,39 +41,214 @@ public class SumAggrFunction extends AggregateFunction {
     }
 
     /**
-     * Evaluate each row against the function.
-     *
-     * @param env RecordEnvironment which contains the data
+     * Create the accumulator of the sums. Integer columns are summed in longs and floating point columns in doubles,
+     * and the values of other columns in BigDecimals.
      */
-    @Override public void processRow(Map<String, Object> env) {
-        Object o = this.expression.eval(env);
-        if (o != null) {
+    @Override
+    public Accumulator createAccumulator() {
+        String argumentType = getArgumentType();
+        if (isIntegralType(argumentType)) {
+            return new LongSumAccumulator();
+        } else if (isFloatingPointType(argumentType)) {
+            return new DoubleSumAccumulator();
+        }
+        return new DecimalSumAccumulator();
+    }
+
+    @Override
+    protected Expression getArgument() {
+        return this.expression;
+    }
+
+    @Override
+    public List<String> getArgumentColumns() {
+        return this.expression.getFilteredColumns(Collections.<String>emptySet());
+    }
+
+    /*
+     * Sum of the integer values of each group in a long. The sum of a group is promoted to a BigDecimal only when it
+     * overflows the long.
+     */
+    private class LongSumAccumulator extends Accumulator {
+        private long[] sums = new long[0];
+        private boolean[] hasValues = new boolean[0];
+        //Sums of the groups which overflowed, created by the first overflow
+        private BigDecimal[] decimalSums;
+
+        @Override
+        protected void grow(int capacity) {
+            this.sums = Arrays.copyOf(this.sums, capacity);
+            this.hasValues = Arrays.copyOf(this.hasValues, capacity);
+            if (this.decimalSums != null) {
+                this.decimalSums = Arrays.copyOf(this.decimalSums, capacity);
+            }
+        }
+
+        @Override
+        public void accumulate(int group, Object[] row) {
+            Object o = expression.eval(row);
+            if (o instanceof Number) {
+                add(group, ((Number) o).longValue());
+            } else if (o != null) {
+                try {
+                    addDecimal(group, new BigDecimal(o.toString()));
+                } catch (NumberFormatException e) {
+                    logger.log(Level.SEVERE, "Error in Process Sum:", e);
+                }
+            }
+        }
+
+        private void add(int group, long value) {
+            if (this.decimalSums != null && this.decimalSums[group] != null) {
+                this.decimalSums[group] = this.decimalSums[group].add(BigDecimal.valueOf(value));
+                return;
+            }
             try {
-                if (this.sum == null) {
-                    this.sum = new BigDecimal(o.toString());
-                } else {
-                    this.sum = this.sum.add(new BigDecimal(o.toString()));
+                this.sums[group] = Math.addExact(this.sums[group], value);
+                this.hasValues[group] = true;
+            } catch (ArithmeticException e) {
+                addDecimal(group, BigDecimal.valueOf(value));
+            }
+        }
+
+        private void addDecimal(int group, BigDecimal value) {
+            if (this.decimalSums == null) {
+                this.decimalSums = new BigDecimal[this.sums.length];
+            }
+            BigDecimal sum = this.decimalSums[group];
+            if (sum == null) {
+                sum = BigDecimal.valueOf(this.sums[group]);
+            }
+            this.decimalSums[group] = sum.add(value);
+            this.hasValues[group] = true;
+        }
+
+        @Override
+        public Object getPartial(int group) {
+            if (this.decimalSums != null && this.decimalSums[group] != null) {
+                return this.decimalSums[group];
+            }
+            return this.hasValues[group] ? this.sums[group] : null;
+        }
+
+        @Override
+        public void mergePartial(int group, Object partial) {
+            if (partial instanceof BigDecimal) {
+                addDecimal(group, (BigDecimal) partial);
+            } else if (partial != null) {
+                add(group, ((Number) partial).longValue());
+            }
+        }
+
+        @Override
+        public Object getResult(int group) {
+            if (this.decimalSums != null && this.decimalSums[group] != null) {
+                return this.decimalSums[group].doubleValue();
+            }
+            return this.hasValues[group] ? this.sums[group] : null;
+        }
+    }
+
+    /*
+     * Sum of the floating point values of each group in a double.
+     */
+    private class DoubleSumAccumulator extends Accumulator {
+        private double[] sums = new double[0];
+        private boolean[] hasValues = new boolean[0];
+
+        @Override
+        protected void grow(int capacity) {
+            this.sums = Arrays.copyOf(this.sums, capacity);
+            this.hasValues = Arrays.copyOf(this.hasValues, capacity);
+        }
+
+        @Override
+        public void accumulate(int group, Object[] row) {
+            Object o = expression.eval(row);
+            if (o instanceof Number) {
+                add(group, ((Number) o).doubleValue());
+            } else if (o != null) {
+                try {
+                    add(group, Double.parseDouble(o.toString()));
+                } catch (NumberFormatException e) {
+                    logger.log(Level.SEVERE, "Error in Process Sum:", e);
                 }
-            } catch (NumberFormatException e) {
-                logger.log(Level.SEVERE, "Error in Process Sum:", e);
             }
         }
+
+        private void add(int group, double value) {
+            this.sums[group] += value;
+            this.hasValues[group] = true;
+        }
+
+        @Override
+        public Object getPartial(int group) {
+            return this.hasValues[group] ? this.sums[group] : null;
+        }
+
+        @Override
+        public void mergePartial(int group, Object partial) {
+            if (partial != null) {
+                add(group, ((Number) partial).doubleValue());
+            }
+        }
+
+        @Override
+        public Object getResult(int group) {
+            return getPartial(group);
+        }
     }
 
-    /**
-     * Get the evaluated result of the function with the given data.
-     *
-     * @param env - RecordEnvironment which contains the details of the record
+    /*
+     * Sum of the values of each group in a BigDecimal, for the columns which are not of a numeric type.
      */
-    public Object eval(Map<String, Object> env) {
-        Object retVal = null;
-        try {
-            if (this.sum != null) {
-                retVal = this.sum.longValueExact();
+    private class DecimalSumAccumulator extends Accumulator {
+        private BigDecimal[] sums = new BigDecimal[0];
+
+        @Override
+        protected void grow(int capacity) {
+            this.sums = Arrays.copyOf(this.sums, capacity);
+        }
+
+        @Override
+        public void accumulate(int group, Object[] row) {
+            Object o = expression.eval(row);
+            if (o != null) {
+                try {
+                    add(group, new BigDecimal(o.toString()));
+                } catch (NumberFormatException e) {
+                    logger.log(Level.SEVERE, "Error in Process Sum:", e);
+                }
+            }
+        }
+
+        private void add(int group, BigDecimal value) {
+            this.sums[group] = this.sums[group] == null ? value : this.sums[group].add(value);
+        }
+
+        @Override
+        public Object getPartial(int group) {
+            return this.sums[group];
+        }
+
+        @Override
+        public void mergePartial(int group, Object partial) {
+            if (partial != null) {
+                add(group, (BigDecimal) partial);
+            }
+        }
+
+        @Override
+        public Object getResult(int group) {
+            BigDecimal sum = this.sums[group];
+            if (sum == null) {
+                return null;
+            }
+            try {
+                return sum.longValueExact();
+            } catch (ArithmeticException e) {
+                return sum.doubleValue();
             }
-        } catch (ArithmeticException e) {
-            retVal = this.sum.doubleValue();
         }
-        return retVal;
     }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.aggregateFunctions;
+
+import org.wso2.das.jdbcdriver.expressions.Expression;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Class which implements the SQL VARIANCE Aggregation function, as the sample variance of the values.
+ * The count, mean and sum of squared deviations of each group are updated in primitive arrays by Welford's method,
+ * and the partial aggregates of the same group are combined by the parallel form of the method.
+ */
+public class VarianceAggrFunction extends AggregateFunction {
+
+    private Expression expression;
+    private static Logger logger = Logger.getLogger(VarianceAggrFunction.class.getName());
+
+    public VarianceAggrFunction(Expression expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * Get the value of the function from the sample variance of a group.
+     *
+     * @param variance Sample variance of the values of the group
+     */
+    protected double getValue(double variance) {
+        return variance;
+    }
+
+    @Override
+    public Accumulator createAccumulator() {
+        return new VarianceAccumulator();
+    }
+
+    @Override
+    protected Expression getArgument() {
+        return this.expression;
+    }
+
+    @Override
+    public List<String> getArgumentColumns() {
+        return this.expression.getFilteredColumns(Collections.<String>emptySet());
+    }
+
+    /*
+     * Moments of the values of each group. The partial aggregate of a group is an array of the count, the mean and
+     * the sum of squared deviations, or null for a group without values. The value of a group with less than two
+     * values is null.
+     */
+    private class VarianceAccumulator extends Accumulator {
+        private long[] counts = new long[0];
+        private double[] means = new double[0];
+        private double[] squaredDeviations = new double[0];
+
+        @Override
+        protected void grow(int capacity) {
+            this.counts = Arrays.copyOf(this.counts, capacity);
+            this.means = Arrays.copyOf(this.means, capacity);
+            this.squaredDeviations = Arrays.copyOf(this.squaredDeviations, capacity);
+        }
+
+        @Override
+        public void accumulate(int group, Object[] row) {
+            Object o = expression.eval(row);
+            if (o instanceof Number) {
+                add(group, ((Number) o).doubleValue());
+            } else if (o != null) {
+                try {
+                    add(group, Double.parseDouble(o.toString()));
+                } catch (NumberFormatException e) {
+                    logger.log(Level.SEVERE, "Error in Process Variance:", e);
+                }
+            }
+        }
+
+        private void add(int group, double value) {
+            long count = ++this.counts[group];
+            double delta = value - this.means[group];
+            this.means[group] += delta / count;
+            this.squaredDeviations[group] += delta * (value - this.means[group]);
+        }
+
+        @Override
+        public Object getPartial(int group) {
+            if (this.counts[group] == 0) {
+                return null;
+            }
+            return new double[] { this.counts[group], this.means[group], this.squaredDeviations[group] };
+        }
+
+        @Override
+        public void mergePartial(int group, Object partial) {
+            if (partial == null) {
+                return;
+            }
+            double[] moments = (double[]) partial;
+            long otherCount = (long) moments[0];
+            long count = this.counts[group] + otherCount;
+            double delta = moments[1] - this.means[group];
+            this.squaredDeviations[group] += moments[2]
+                    + delta * delta * ((double) this.counts[group] * otherCount / count);
+            this.means[group] += delta * otherCount / count;
+            this.counts[group] = count;
+        }
+
+        @Override
+        public Object getResult(int group) {
+            long count = this.counts[group];
+            return count < 2 ? null : getValue(this.squaredDeviations[group] / (count - 1));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+/**
+ * Snapshot of the usage counters of a cache.
+ */
+public class CacheStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+
+    public CacheStatistics(long hitCount, long missCount, long evictionCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    /**
+     * Number of lookups which found a valid entry.
+     */
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * Number of lookups which did not find an entry, or found an expired entry.
+     */
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * Number of entries removed because the cache was full or the entry was expired.
+     */
+    public long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * Number of entries in the cache.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Ratio of the lookups which found a valid entry, or 0 if there were no lookups.
+     */
+    public double getHitRatio() {
+        long lookups = this.hitCount + this.missCount;
+        return lookups == 0 ? 0 : (double) this.hitCount / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + this.hitCount + ", misses=" + this.missCount + ", evictions=" + this.evictionCount
+                + ", size=" + this.size;
+    }
+}
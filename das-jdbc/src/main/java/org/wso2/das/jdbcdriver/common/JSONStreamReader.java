@@ -0,0 +1,500 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull parser which reads a JSON document token by token from a character stream.
+ * Unlike the json-simple parser, no object tree is built for the document. Values are decoded only when they are
+ * requested and skipped values are not allocated. Decoded values have the same types as the json-simple values:
+ * String, Long, Double, Boolean, JSONObject, JSONArray or null.
+ */
+public class JSONStreamReader implements Closeable {
+
+    /**
+     * Types of the JSON values.
+     */
+    public enum ValueType {
+        OBJECT, ARRAY, STRING, NUMBER, BOOLEAN, NULL
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private Reader in;
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+    private StringBuilder scratch = new StringBuilder();
+
+    public JSONStreamReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Consume the start of an array.
+     */
+    public void beginArray() throws IOException {
+        expect('[');
+    }
+
+    /**
+     * Consume the end of an array.
+     */
+    public void endArray() throws IOException {
+        expect(']');
+    }
+
+    /**
+     * Consume the start of an object.
+     */
+    public void beginObject() throws IOException {
+        expect('{');
+    }
+
+    /**
+     * Consume the end of an object.
+     */
+    public void endObject() throws IOException {
+        expect('}');
+    }
+
+    /**
+     * Check whether the current array or object has another element. The separator before the element is consumed.
+     */
+    public boolean hasNext() throws IOException {
+        int c = peekChar();
+        if (c == ',') {
+            this.pos++;
+            c = peekChar();
+        }
+        if (c == -1) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return c != ']' && c != '}';
+    }
+
+    /**
+     * Read the name of the next member of an object.
+     */
+    public String nextName() throws IOException {
+        readNameToScratch();
+        return this.scratch.toString();
+    }
+
+    /**
+     * Read the name of the next member of an object and find it in the given names, without creating a String
+     * for the name.
+     *
+     * @param names Known member names
+     * @param hint  Position in the names where the search starts, usually the position after the previous member
+     * @return Position of the name in the names, or -1 if the name is not one of them. The name can then be
+     * retrieved by {@link #lastName()}
+     */
+    public int nextName(String[] names, int hint) throws IOException {
+        readNameToScratch();
+        int count = names.length;
+        for (int i = 0; i < count; i++) {
+            int index = (hint + i) % count;
+            if (contentEquals(names[index])) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the last member name read by {@link #nextName(String[], int)}.
+     */
+    public String lastName() {
+        return this.scratch.toString();
+    }
+
+    /**
+     * Get the type of the next value.
+     */
+    public ValueType peek() throws IOException {
+        int c = peekChar();
+        switch (c) {
+            case '{':
+                return ValueType.OBJECT;
+            case '[':
+                return ValueType.ARRAY;
+            case '"':
+                return ValueType.STRING;
+            case 't':
+            case 'f':
+                return ValueType.BOOLEAN;
+            case 'n':
+                return ValueType.NULL;
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return ValueType.NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    /**
+     * Read the next value.
+     */
+    public Object readValue() throws IOException {
+        switch (peek()) {
+            case OBJECT:
+                return readObject();
+            case ARRAY:
+                return readArray();
+            case STRING:
+                this.pos++;
+                return readString();
+            case BOOLEAN:
+                return readBoolean();
+            case NULL:
+                readLiteral("null");
+                return null;
+            default:
+                return readNumber();
+        }
+    }
+
+    /**
+     * Read the next value as a long. The value must be an integer number.
+     */
+    public long nextLong() throws IOException {
+        if (peek() != ValueType.NUMBER) {
+            throw syntaxError("Expected a number");
+        }
+        boolean negative = false;
+        if (this.buffer[this.pos] == '-') {
+            negative = true;
+            this.pos++;
+        }
+        //The value is accumulated as a negative number, so that Long.MIN_VALUE does not overflow
+        long value = 0;
+        int digits = 0;
+        int c;
+        while ((c = currentChar()) >= '0' && c <= '9') {
+            int digit = c - '0';
+            if (value < Long.MIN_VALUE / 10 || value * 10 < Long.MIN_VALUE + digit) {
+                throw syntaxError("Expected a long value");
+            }
+            value = value * 10 - digit;
+            this.pos++;
+            digits++;
+        }
+        if (digits == 0 || c == '.' || c == 'e' || c == 'E' || (!negative && value == Long.MIN_VALUE)) {
+            throw syntaxError("Expected a long value");
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Skip the next value, including all the nested values of an object or an array.
+     */
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            int c = peekChar();
+            switch (c) {
+                case '{':
+                case '[':
+                    this.pos++;
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    this.pos++;
+                    depth--;
+                    break;
+                case ',':
+                case ':':
+                    this.pos++;
+                    break;
+                case '"':
+                    this.pos++;
+                    skipString();
+                    break;
+                case -1:
+                    throw syntaxError("Unexpected end of input");
+                default:
+                    skipLiteral();
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject readObject() throws IOException {
+        JSONObject object = new JSONObject();
+        beginObject();
+        while (hasNext()) {
+            String name = nextName();
+            object.put(name, readValue());
+        }
+        endObject();
+        return object;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONArray readArray() throws IOException {
+        JSONArray array = new JSONArray();
+        beginArray();
+        while (hasNext()) {
+            array.add(readValue());
+        }
+        endArray();
+        return array;
+    }
+
+    private Boolean readBoolean() throws IOException {
+        if (this.buffer[this.pos] == 't') {
+            readLiteral("true");
+            return Boolean.TRUE;
+        }
+        readLiteral("false");
+        return Boolean.FALSE;
+    }
+
+    private Object readNumber() throws IOException {
+        this.scratch.setLength(0);
+        boolean isDecimal = false;
+        int c;
+        while ((c = currentChar()) != -1 && isLiteralChar(c)) {
+            if (c == '.' || c == 'e' || c == 'E') {
+                isDecimal = true;
+            }
+            this.scratch.append((char) c);
+            this.pos++;
+        }
+        String number = this.scratch.toString();
+        try {
+            if (!isDecimal) {
+                try {
+                    return Long.valueOf(number);
+                } catch (NumberFormatException e) {
+                    //Integer which does not fit in to a long
+                    return Double.valueOf(number);
+                }
+            }
+            return Double.valueOf(number);
+        } catch (NumberFormatException e) {
+            throw syntaxError("Invalid number " + number);
+        }
+    }
+
+    /*
+     * Read a string value. The opening quote is already consumed.
+     */
+    private String readString() throws IOException {
+        //Fast path for strings which are in the buffer and have no escape sequences
+        for (int i = this.pos; i < this.limit; i++) {
+            char c = this.buffer[i];
+            if (c == '"') {
+                String value = new String(this.buffer, this.pos, i - this.pos);
+                this.pos = i + 1;
+                return value;
+            } else if (c == '\\') {
+                break;
+            }
+        }
+        this.scratch.setLength(0);
+        readStringToScratch();
+        return this.scratch.toString();
+    }
+
+    private void readNameToScratch() throws IOException {
+        if (peekChar() != '"') {
+            throw syntaxError("Expected a member name");
+        }
+        this.pos++;
+        this.scratch.setLength(0);
+        readStringToScratch();
+        expect(':');
+    }
+
+    private void readStringToScratch() throws IOException {
+        while (true) {
+            int start = this.pos;
+            while (this.pos < this.limit) {
+                char c = this.buffer[this.pos];
+                if (c == '"') {
+                    this.scratch.append(this.buffer, start, this.pos - start);
+                    this.pos++;
+                    return;
+                } else if (c == '\\') {
+                    this.scratch.append(this.buffer, start, this.pos - start);
+                    this.pos++;
+                    this.scratch.append(readEscape());
+                    start = this.pos;
+                } else {
+                    this.pos++;
+                }
+            }
+            this.scratch.append(this.buffer, start, this.pos - start);
+            if (!fill()) {
+                throw syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    private void skipString() throws IOException {
+        while (true) {
+            while (this.pos < this.limit) {
+                char c = this.buffer[this.pos++];
+                if (c == '"') {
+                    return;
+                } else if (c == '\\') {
+                    if (currentChar() == -1) {
+                        throw syntaxError("Unterminated string");
+                    }
+                    this.pos++;
+                }
+            }
+            if (!fill()) {
+                throw syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = currentChar();
+        if (c == -1) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+        this.pos++;
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = currentChar() == -1 ? -1 : Character.digit(this.buffer[this.pos], 16);
+                    if (digit < 0) {
+                        throw syntaxError("Invalid unicode escape sequence");
+                    }
+                    value = (value << 4) + digit;
+                    this.pos++;
+                }
+                return (char) value;
+            default:
+                return (char) c;
+        }
+    }
+
+    private void readLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (currentChar() != literal.charAt(i)) {
+                throw syntaxError("Expected " + literal);
+            }
+            this.pos++;
+        }
+    }
+
+    private void skipLiteral() throws IOException {
+        int c;
+        boolean skipped = false;
+        while ((c = currentChar()) != -1 && isLiteralChar(c)) {
+            this.pos++;
+            skipped = true;
+        }
+        if (!skipped) {
+            throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private static boolean isLiteralChar(int c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '-' || c == '+'
+                || c == '.';
+    }
+
+    private boolean contentEquals(String name) {
+        int length = this.scratch.length();
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != this.scratch.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expect(char expected) throws IOException {
+        if (peekChar() != expected) {
+            throw syntaxError("Expected '" + expected + "'");
+        }
+        this.pos++;
+    }
+
+    /*
+     * Get the next non white space character without consuming it, or -1 at the end of the input.
+     */
+    private int peekChar() throws IOException {
+        while (true) {
+            int c = currentChar();
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                this.pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int currentChar() throws IOException {
+        if (this.pos >= this.limit && !fill()) {
+            return -1;
+        }
+        return this.buffer[this.pos];
+    }
+
+    private boolean fill() throws IOException {
+        this.pos = 0;
+        this.limit = 0;
+        int read = this.in.read(this.buffer, 0, this.buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        this.limit = read;
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Invalid JSON: " + message);
+    }
+}
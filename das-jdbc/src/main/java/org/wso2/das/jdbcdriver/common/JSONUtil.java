@@ -20,10 +20,18 @@ package org.wso2.das.jdbcdriver.common;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 import org.wso2.das.jdbcdriver.dasInterface.DataReader;
+import org.wso2.das.jdbcdriver.dasInterface.RecordLayout;
+import org.wso2.das.jdbcdriver.dasInterface.TableSchema;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +46,11 @@ public class JSONUtil {
 
     private static Logger logger = Logger.getLogger(JSONUtil.class.getName());
 
+    private static final String[] RECORD_MEMBERS = { ServiceConstants.DAS_RESPONSE_DATA.ROW_TIMESTAMP,
+            ServiceConstants.DAS_RESPONSE_DATA.RESPONSE_TAG_VALUES };
+    private static final int RECORD_MEMBER_TIMESTAMP = 0;
+    private static final int RECORD_MEMBER_VALUES = 1;
+
     /**
      * Decode the given json array and returns a list of Strings.
      *
@@ -131,6 +144,96 @@ public class JSONUtil {
         return listReturn;
     }
 
+    /**
+     * Decode the schema of a DAS table.
+     *
+     * @param sInput JSON String which contains the schema response
+     * @throws SQLException if the schema cannot be decoded
+     */
+    public static TableSchema parseTableSchema(String sInput) throws SQLException {
+        JSONParser parser = new JSONParser();
+        try {
+            JSONObject schemaObj = (JSONObject) parser.parse(sInput);
+            Map<String, String> columnDataTypes = new LinkedHashMap<String, String>();
+            List<String> indexes = new ArrayList<String>();
+            List<String> facets = new ArrayList<String>();
+            JSONObject columnsObj = (JSONObject) schemaObj.get(ServiceConstants.DAS_RESPONSE_KEYS.COLUMNS);
+            if (columnsObj != null) {
+                for (Map.Entry entry : (Set<Map.Entry>) columnsObj.entrySet()) {
+                    String sKey = (String) entry.getKey();
+                    JSONObject valObj = (JSONObject) entry.getValue();
+                    String dataType = (String) valObj.get(ServiceConstants.DAS_RESPONSE_KEYS.TYPE);
+                    columnDataTypes.put(sKey, dataType);
+                    if (Boolean.TRUE.equals(valObj.get(ServiceConstants.DAS_RESPONSE_KEYS.ISINDEX))) {
+                        indexes.add(sKey);
+                    }
+                    //Older DAS versions have a FACET data type, newer ones mark the facet columns
+                    if (ServiceConstants.DATATYPES.DATATYPE_FACET.equalsIgnoreCase(dataType)
+                            || Boolean.TRUE.equals(valObj.get(ServiceConstants.DAS_RESPONSE_KEYS.ISFACET))) {
+                        facets.add(sKey);
+                    }
+                }
+            }
+            List<String> primaryKeys = new ArrayList<String>();
+            JSONArray primaryKeysArr = (JSONArray) schemaObj.get(ServiceConstants.DAS_RESPONSE_KEYS.PRIMARYKEYS);
+            if (primaryKeysArr != null) {
+                for (Object arrObj : primaryKeysArr) {
+                    primaryKeys.add((String) arrObj);
+                }
+            }
+            return new TableSchema(columnDataTypes, primaryKeys, indexes, facets);
+        } catch (Exception e) {
+            throw new SQLException("Error in Parse Table Schema:", e);
+        }
+    }
+
+    /**
+     * Decode the number of records returned by the record count and search count APIs.
+     *
+     * @param in Stream of the DAS response
+     * @throws IOException if the response is not a number
+     */
+    public static long parseCount(Reader in) throws IOException {
+        try {
+            Object count = new JSONParser().parse(in);
+            if (!(count instanceof Number)) {
+                throw new IOException("Invalid record count: " + count);
+            }
+            return ((Number) count).longValue();
+        } catch (ParseException e) {
+            throw new IOException("Error in Parse Record Count:", e);
+        }
+    }
+
+    /**
+     * Decode the categories returned by the facets API, with the number of records of each category.
+     *
+     * @param in Stream of the DAS response
+     * @return Map of category value - record count, in the order of the response
+     * @throws IOException if the response cannot be decoded
+     */
+    public static Map<String, Long> parseFacetCategories(Reader in) throws IOException {
+        try {
+            JSONObject responseObj = (JSONObject) new JSONParser().parse(in);
+            Map<String, Long> categories = new LinkedHashMap<String, Long>();
+            JSONArray categoriesArr = (JSONArray) responseObj.get(ServiceConstants.DAS_RESPONSE_KEYS.CATEGORIES);
+            if (categoriesArr != null) {
+                for (Object arrObj : categoriesArr) {
+                    JSONObject categoryObj = (JSONObject) arrObj;
+                    Number score = (Number) categoryObj.get(ServiceConstants.DAS_RESPONSE_KEYS.SCORE);
+                    if (score == null) {
+                        throw new IOException("Facet category without a score: " + categoryObj);
+                    }
+                    categories.put((String) categoryObj.get(ServiceConstants.DAS_RESPONSE_KEYS.CATEGORY_VALUE),
+                            Math.round(score.doubleValue()));
+                }
+            }
+            return categories;
+        } catch (ParseException | ClassCastException e) {
+            throw new IOException("Error in Parse Facet Categories:", e);
+        }
+    }
+
     /**
      * Decode the JSON Data Array retrieved from the DAS backend.
      *
@@ -138,52 +241,123 @@ public class JSONUtil {
      * @param colDataTypes Data types of the each column
      */
     public static DataReader parseDataArray(String sInput, HashMap<String, String> colDataTypes) {
-        JSONParser parser = new JSONParser();
-        DataReader dataReader = new DataReader();
         try {
-            Object obj = parser.parse(sInput);
-            JSONArray arr = (JSONArray) obj;
-            List<Object[]> columnValues = new ArrayList<Object[]>(arr.size());
-            List<String> listColumnNames = new ArrayList<String>();
-            List<String> listColumnDataTypes = new ArrayList<String>();
-            //The data type of the Column "_version" is not present in the schema query.
-            colDataTypes
-                    .put(ServiceConstants.DAS_RESPONSE_DATA.ROW_VERSION, ServiceConstants.DATATYPES.DATATYPE_STRING);
-            for (int i = 0; i < arr.size(); i++) {
-                JSONObject dataObj = (JSONObject) arr.get(i);
-                long lTime = (Long) dataObj.get(ServiceConstants.DAS_RESPONSE_DATA.ROW_TIMESTAMP);
-                JSONObject rowValObj = (JSONObject) dataObj.get(ServiceConstants.DAS_RESPONSE_DATA.RESPONSE_TAG_VALUES);
-                Object[] dataRow = new Object[rowValObj.size() + 1];//ONE is added to store the timestamp
-                int j = 0;
-                for (Map.Entry entry : (Set<Map.Entry>) rowValObj.entrySet()) {
-                    String sKey = (String) entry.getKey();
-                    //Get the column names in the order appear in the "values" object.
-                    // Extract this info only for the first row.
-                    if (i == 0) {
-                        if (sKey.startsWith(ServiceConstants.DAS_CONSTANTS.UNDERSCORE)) {
-                            sKey = sKey.substring(1);
+            return parseDataArray(new StringReader(sInput), colDataTypes, null, null);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error in Parse Data array:", e);
+        }
+        return new DataReader();
+    }
+
+    /**
+     * Decode a JSON Data Array retrieved from the DAS backend into rows of the given layout, while it is read from
+     * the given stream. If no layout is given, the layout is created from the first record.
+     * Only the values of the given columns are decoded. The values of the other columns are skipped and left null
+     * in the rows. The record timestamp is always decoded.
+     *
+     * @param in           Stream of the DAS response
+     * @param colDataTypes Data types of the each column
+     * @param layout       Layout of the rows, or null
+     * @param columns      Upper case names of the columns to decode, or null to decode all the columns
+     * @throws IOException if the response cannot be read or decoded
+     */
+    public static DataReader parseDataArray(Reader in, Map<String, String> colDataTypes, RecordLayout layout,
+            Set<String> columns) throws IOException {
+        JSONStreamReader jsonReader = new JSONStreamReader(in);
+        List<Object[]> columnValues = new ArrayList<Object[]>();
+        boolean[] decodedKeys = layout != null ? getDecodedKeys(layout, columns) : null;
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            Object[] dataRow = null;
+            long lTime = 0;
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                int member = jsonReader.nextName(RECORD_MEMBERS, 0);
+                if (member == RECORD_MEMBER_TIMESTAMP) {
+                    lTime = jsonReader.nextLong();
+                } else if (member == RECORD_MEMBER_VALUES) {
+                    if (layout == null) {
+                        //Get the column names in the order appear in the "values" object of the first row.
+                        List<String> recordKeys = new ArrayList<String>();
+                        List<Object> recordValues = new ArrayList<Object>();
+                        jsonReader.beginObject();
+                        while (jsonReader.hasNext()) {
+                            String sKey = jsonReader.nextName();
+                            recordKeys.add(sKey);
+                            recordValues.add(isDecoded(sKey, columns) ? jsonReader.readValue() : skip(jsonReader));
                         }
-                        listColumnNames.add(sKey.toUpperCase());
-                        listColumnDataTypes.add(colDataTypes.get(sKey));
+                        jsonReader.endObject();
+                        layout = RecordLayout.fromRecordKeys(recordKeys, colDataTypes);
+                        decodedKeys = getDecodedKeys(layout, columns);
+                        dataRow = new Object[layout.getColumnCount()];
+                        recordValues.toArray(dataRow);
+                    } else {
+                        dataRow = readRecordValues(jsonReader, layout, decodedKeys);
                     }
-                    Object columnVal = entry.getValue();
-                    dataRow[j] = columnVal;
-                    j++;
+                } else {
+                    jsonReader.skipValue();
                 }
-                //Add the timestamp data
-                dataRow[j] = lTime;
-                columnValues.add(dataRow);
             }
-            if (!listColumnNames.isEmpty()) {
-                listColumnNames.add(ServiceConstants.DAS_RESPONSE_DATA.ROW_TIMESTAMP.toUpperCase());
-                listColumnDataTypes.add(ServiceConstants.DATATYPES.DATATYPE_LONG);
+            jsonReader.endObject();
+            if (dataRow == null) {
+                throw new IOException("Invalid JSON: DAS record without values");
             }
-            dataReader.setColumnTypes(listColumnDataTypes.toArray(new String[listColumnDataTypes.size()]));
-            dataReader.setColumnNames(listColumnNames.toArray(new String[listColumnDataTypes.size()]));
-            dataReader.setColumnValues(columnValues);
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error in Parse Data array:", e);
+            //Add the timestamp data
+            dataRow[layout.getTimestampIndex()] = lTime;
+            columnValues.add(dataRow);
+        }
+        jsonReader.endArray();
+        DataReader dataReader = new DataReader();
+        if (layout != null) {
+            dataReader.setRecordLayout(layout);
+        } else {
+            dataReader.setColumnTypes(new String[0]);
+            dataReader.setColumnNames(new String[0]);
         }
+        dataReader.setColumnValues(columnValues);
         return dataReader;
     }
+
+    /*
+     * Decode the "values" object of a record into a row. The keys of the records usually appear in the same order,
+     * so the search for each key starts after the position of the previous key.
+     */
+    private static Object[] readRecordValues(JSONStreamReader jsonReader, RecordLayout layout, boolean[] decodedKeys)
+            throws IOException {
+        Object[] dataRow = new Object[layout.getColumnCount()];
+        String[] recordKeys = layout.getRecordKeys();
+        int hint = 0;
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            int index = jsonReader.nextName(recordKeys, hint);
+            if (index >= 0 && decodedKeys[index]) {
+                dataRow[index] = jsonReader.readValue();
+            } else {
+                jsonReader.skipValue();
+            }
+            if (index >= 0) {
+                hint = index + 1;
+            }
+        }
+        jsonReader.endObject();
+        return dataRow;
+    }
+
+    private static boolean[] getDecodedKeys(RecordLayout layout, Set<String> columns) {
+        String[] recordKeys = layout.getRecordKeys();
+        boolean[] decodedKeys = new boolean[recordKeys.length];
+        for (int i = 0; i < recordKeys.length; i++) {
+            decodedKeys[i] = isDecoded(recordKeys[i], columns);
+        }
+        return decodedKeys;
+    }
+
+    private static boolean isDecoded(String recordKey, Set<String> columns) {
+        return columns == null || columns.contains(RecordLayout.getColumnName(recordKey));
+    }
+
+    private static Object skip(JSONStreamReader jsonReader) throws IOException {
+        jsonReader.skipValue();
+        return null;
+    }
 }
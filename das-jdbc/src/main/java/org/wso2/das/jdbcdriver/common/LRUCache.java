@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread safe cache with a maximum number of entries and an optional time to live.
+ * When the cache is full, the least recently used entry is evicted.
+ *
+ * @param <K> Type of the keys
+ * @param <V> Type of the values
+ */
+public class LRUCache<K, V> {
+
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxSize         Maximum number of entries, 0 to disable the cache
+     * @param timeToLiveMillis Time in milliseconds an entry is valid after it is added, 0 for entries which do not
+     *                        expire
+     */
+    public LRUCache(int maxSize, long timeToLiveMillis) {
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > LRUCache.this.maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the value of the given key.
+     *
+     * @return Cached value, or null if the key is not cached or the entry is expired
+     */
+    public synchronized V get(K key) {
+        CacheEntry<V> entry = this.entries.get(key);
+        if (entry == null) {
+            this.missCount++;
+            return null;
+        }
+        if (isExpired(entry, System.nanoTime())) {
+            this.entries.remove(key);
+            this.evictionCount++;
+            this.missCount++;
+            return null;
+        }
+        this.hitCount++;
+        return entry.value;
+    }
+
+    /**
+     * Add a value to the cache, replacing any value of the same key.
+     */
+    public synchronized void put(K key, V value) {
+        if (this.maxSize <= 0) {
+            return;
+        }
+        this.entries.put(key, new CacheEntry<V>(value, System.nanoTime()));
+    }
+
+    /**
+     * Remove the value of the given key.
+     *
+     * @return Removed value, or null if the key is not cached
+     */
+    public synchronized V remove(K key) {
+        CacheEntry<V> entry = this.entries.remove(key);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Remove all the entries of the cache.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    /**
+     * Remove the expired entries of the cache.
+     */
+    public synchronized void purgeExpired() {
+        long now = System.nanoTime();
+        Iterator<CacheEntry<V>> iterator = this.entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (isExpired(iterator.next(), now)) {
+                iterator.remove();
+                this.evictionCount++;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Get a snapshot of the usage counters of the cache.
+     */
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(this.hitCount, this.missCount, this.evictionCount, this.entries.size());
+    }
+
+    private boolean isExpired(CacheEntry<V> entry, long now) {
+        return this.timeToLiveNanos > 0 && now - entry.createdTime >= this.timeToLiveNanos;
+    }
+
+    private static class CacheEntry<V> {
+        private final V value;
+        private final long createdTime;
+
+        private CacheEntry(V value, long createdTime) {
+            this.value = value;
+            this.createdTime = createdTime;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled SQL LIKE pattern. The common pattern forms 'abc', 'abc%', '%abc' and '%abc%' are matched without a
+ * regular expression. Compiled patterns are cached, so a pattern is compiled once for repeated matches.
+ */
+public abstract class LikeMatcher {
+
+    private static final String WILDCARD_ANY = ServiceConstants.DAS_CONSTANTS.PERCENT_SIGN;
+    private static final String WILDCARD_ONE = ServiceConstants.DAS_CONSTANTS.UNDERSCORE;
+
+    private static final LRUCache<String, LikeMatcher> matcherCache = new LRUCache<String, LikeMatcher>(
+            ServiceConstants.DAS_DRIVER_SETTINGS.LIKE_PATTERN_CACHE_SIZE, 0);
+
+    /**
+     * Check whether the given input matches the pattern.
+     */
+    public abstract boolean matches(CharSequence input);
+
+    /**
+     * Get the compiled matcher of a LIKE pattern, from the cache if the pattern is already compiled.
+     *
+     * @param likePattern Pattern with the % and _ wildcards
+     * @param escape      Escape sequence of the wildcards
+     */
+    public static LikeMatcher getMatcher(String likePattern, String escape) {
+        String key = escape + ' ' + likePattern;
+        LikeMatcher matcher = matcherCache.get(key);
+        if (matcher == null) {
+            matcher = compile(likePattern, escape);
+            matcherCache.put(key, matcher);
+        }
+        return matcher;
+    }
+
+    /**
+     * Get the statistics of the compiled pattern cache.
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return matcherCache.getStatistics();
+    }
+
+    /**
+     * Compile a LIKE pattern.
+     *
+     * @param likePattern Pattern with the % and _ wildcards
+     * @param escape      Escape sequence of the wildcards
+     */
+    public static LikeMatcher compile(String likePattern, String escape) {
+        if (likePattern.indexOf(ServiceConstants.DAS_CONSTANTS.CHAR_PERCENT_SIGN) < 0
+                && likePattern.indexOf(ServiceConstants.DAS_CONSTANTS.CHAR_UNDERSCORE_SIGN) < 0) {
+            return new ExactMatcher(likePattern); //No wildcards. Compare the string.
+        }
+        List<String> tokens = tokenize(likePattern, escape);
+        int size = tokens.size();
+        if (!containsWildcardOne(tokens)) {
+            boolean startsWithAny = size > 0 && tokens.get(0) == WILDCARD_ANY;
+            boolean endsWithAny = size > 0 && tokens.get(size - 1) == WILDCARD_ANY;
+            int literals = size - (startsWithAny ? 1 : 0) - (endsWithAny && size > 1 ? 1 : 0);
+            if (literals == 0) {
+                return new AnyMatcher();
+            } else if (literals == 1) {
+                String literal = tokens.get(startsWithAny ? 1 : 0);
+                if (startsWithAny && endsWithAny) {
+                    return new ContainsMatcher(literal);
+                } else if (startsWithAny) {
+                    return new SuffixMatcher(literal);
+                } else if (endsWithAny) {
+                    return new PrefixMatcher(literal);
+                }
+                return new ExactMatcher(literal);
+            }
+        }
+        StringBuilder regex = new StringBuilder();
+        for (String token : tokens) {
+            if (token == WILDCARD_ANY) {
+                regex.append(ServiceConstants.DAS_CONSTANTS.REGEX_ALL);
+            } else if (token == WILDCARD_ONE) {
+                regex.append(ServiceConstants.DAS_CONSTANTS.DOT);
+            } else {
+                regex.append(Pattern.quote(token));
+            }
+        }
+        return new RegexMatcher(Pattern.compile(regex.toString(), Pattern.DOTALL));
+    }
+
+    /*
+     * Split the pattern into literals and wildcards. Escaped wildcards are part of the literals, and consecutive %
+     * wildcards are merged. The wildcard tokens are the WILDCARD_ANY and WILDCARD_ONE instances.
+     */
+    private static List<String> tokenize(String likePattern, String escape) {
+        List<String> tokens = new ArrayList<String>();
+        StringBuilder literal = new StringBuilder();
+        boolean isEscaped = false;
+        StringTokenizer tokenizer = new StringTokenizer(likePattern,
+                ServiceConstants.DAS_CONSTANTS.REGEX_PERCENT + escape, true);
+        while (tokenizer.hasMoreTokens()) {
+            String token = tokenizer.nextToken();
+            if (token.equals(escape) && !isEscaped) {
+                isEscaped = true;
+                continue;
+            }
+            if (!isEscaped && (token.equals(WILDCARD_ANY) || token.equals(WILDCARD_ONE))) {
+                if (literal.length() > 0) {
+                    tokens.add(literal.toString());
+                    literal.setLength(0);
+                }
+                boolean isAny = token.equals(WILDCARD_ANY);
+                if (!isAny || tokens.isEmpty() || tokens.get(tokens.size() - 1) != WILDCARD_ANY) {
+                    tokens.add(isAny ? WILDCARD_ANY : WILDCARD_ONE);
+                }
+            } else {
+                literal.append(token);
+            }
+            isEscaped = false;
+        }
+        if (literal.length() > 0) {
+            tokens.add(literal.toString());
+        }
+        return tokens;
+    }
+
+    private static boolean containsWildcardOne(List<String> tokens) {
+        for (String token : tokens) {
+            if (token == WILDCARD_ONE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class ExactMatcher extends LikeMatcher {
+        private String literal;
+
+        ExactMatcher(String literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(CharSequence input) {
+            return this.literal.contentEquals(input);
+        }
+    }
+
+    private static class AnyMatcher extends LikeMatcher {
+        @Override
+        public boolean matches(CharSequence input) {
+            return true;
+        }
+    }
+
+    private static class PrefixMatcher extends LikeMatcher {
+        private String prefix;
+
+        PrefixMatcher(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public boolean matches(CharSequence input) {
+            return input.toString().startsWith(this.prefix);
+        }
+    }
+
+    private static class SuffixMatcher extends LikeMatcher {
+        private String suffix;
+
+        SuffixMatcher(String suffix) {
+            this.suffix = suffix;
+        }
+
+        @Override
+        public boolean matches(CharSequence input) {
+            return input.toString().endsWith(this.suffix);
+        }
+    }
+
+    private static class ContainsMatcher extends LikeMatcher {
+        private String infix;
+
+        ContainsMatcher(String infix) {
+            this.infix = infix;
+        }
+
+        @Override
+        public boolean matches(CharSequence input) {
+            return input.toString().contains(this.infix);
+        }
+    }
+
+    private static class RegexMatcher extends LikeMatcher {
+        private Pattern pattern;
+
+        RegexMatcher(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean matches(CharSequence input) {
+            return this.pattern.matcher(input).matches();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes how the records of a query are retrieved from the DAS backend.
+ * The where clause of the query is always evaluated on the retrieved records, so the plan only has to select a
+ * superset of the matching records.
+ */
+public class QueryPlan {
+
+    private String tableName;
+    private Set<String> columns;
+    private List<String> fields;
+    private String searchQuery;
+    private long timeFrom;
+    private long timeTo;
+    private String countQuery;
+    private boolean countPushdown;
+    private String facetField;
+
+    QueryPlan(String tableName, Set<String> columns, List<String> fields, String searchQuery, long timeFrom,
+            long timeTo, String countQuery, boolean countPushdown, String facetField) {
+        this.tableName = tableName;
+        this.columns = columns;
+        this.fields = fields;
+        this.searchQuery = searchQuery;
+        this.timeFrom = timeFrom;
+        this.timeTo = timeTo;
+        this.countQuery = countQuery;
+        this.countPushdown = countPushdown;
+        this.facetField = facetField;
+    }
+
+    public String getTableName() {
+        return this.tableName;
+    }
+
+    /**
+     * Upper case names of the columns used by the query, or null if all the columns are used.
+     */
+    public Set<String> getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * Names of the DAS record fields requested from the backend, or null if all the fields are requested.
+     */
+    public List<String> getFields() {
+        return this.fields;
+    }
+
+    /**
+     * Lucene query which selects the candidate records through the DAS search API, or null if the whole table is
+     * scanned.
+     */
+    public String getSearchQuery() {
+        return this.searchQuery;
+    }
+
+    /**
+     * Start of the record timestamp range of the query, inclusive.
+     */
+    public long getTimeFrom() {
+        return this.timeFrom;
+    }
+
+    /**
+     * End of the record timestamp range of the query, exclusive.
+     */
+    public long getTimeTo() {
+        return this.timeTo;
+    }
+
+    /**
+     * Whether the records are limited to a timestamp range.
+     */
+    public boolean hasTimeRange() {
+        return this.timeFrom != ServiceConstants.DAS_SERVICE_QUERIES.TIME_FROM_UNBOUNDED
+                || this.timeTo != ServiceConstants.DAS_SERVICE_QUERIES.TIME_TO_UNBOUNDED;
+    }
+
+    /**
+     * Lucene query which selects exactly the records that satisfy the where clause, or null if the where clause
+     * cannot be translated exactly. The query matches all the records if the query has no where clause.
+     */
+    public String getCountQuery() {
+        return this.countQuery;
+    }
+
+    /**
+     * Whether the aggregates of the query can be counted by the DAS backend, instead of retrieving the records.
+     */
+    public boolean isCountPushdown() {
+        return this.countPushdown;
+    }
+
+    /**
+     * DAS record field of the facet column by which the records are counted, or null if the query has no GROUP BY
+     * clause.
+     */
+    public String getFacetField() {
+        return this.facetField;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlan[table=" + this.tableName + ", columns=" + this.columns + ", fields=" + this.fields + ", search=" + this.searchQuery
+                + ", time=[" + this.timeFrom + ", " + this.timeTo + ")]";
+    }
+}
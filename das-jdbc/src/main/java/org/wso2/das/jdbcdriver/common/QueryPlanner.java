@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import org.wso2.das.jdbcdriver.aggregateFunctions.AggregateFunction;
+import org.wso2.das.jdbcdriver.aggregateFunctions.CountAggrFunction;
+import org.wso2.das.jdbcdriver.dasInterface.RecordLayout;
+import org.wso2.das.jdbcdriver.dasInterface.TableSchema;
+import org.wso2.das.jdbcdriver.expressions.AndExpression;
+import org.wso2.das.jdbcdriver.expressions.AsteriskExpression;
+import org.wso2.das.jdbcdriver.expressions.ColumnName;
+import org.wso2.das.jdbcdriver.expressions.Expression;
+import org.wso2.das.jdbcdriver.expressions.ORExpression;
+import org.wso2.das.jdbcdriver.expressions.RelationOpExpression;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates the plan which retrieves the records of a query from the DAS backend.
+ * Predicates of the where clause on indexed columns are translated to a Lucene query of the DAS search API, so that
+ * only the candidate records are transferred. Predicates which can not be translated are left out of the search
+ * query, which then selects a superset of the matching records. The whole where clause is still evaluated on the
+ * retrieved records. Comparisons of strings are never translated, since Lucene matches the analyzed text, from which
+ * the analyzer may remove a whole value such as a stop word, so the search query could leave out matching records.
+ * A query of which the aggregates are only COUNT(*), grouped by at most one facet column, is counted by the DAS
+ * backend when the where clause is translated exactly, so that no record is transferred.
+ */
+public class QueryPlanner {
+
+    private static final String LUCENE_AND = " AND ";
+    private static final String LUCENE_OR = " OR ";
+    private static final String LUCENE_UNBOUNDED = "*";
+    private static final String LUCENE_TIMESTAMP_FIELD = ServiceConstants.DAS_SERVICE_QUERIES.TIMESTAMP_FIELD;
+
+    private Map<String, String> indexedFields = new HashMap<String, String>();
+    private Map<String, String> columnFields = new HashMap<String, String>();
+    private Map<String, String> facetFields = new HashMap<String, String>();
+    private Set<Expression> timeRangePredicates = new HashSet<Expression>();
+    private Map<String, String> columnDataTypes;
+    private long timeFrom = ServiceConstants.DAS_SERVICE_QUERIES.TIME_FROM_UNBOUNDED;
+    private long timeTo = ServiceConstants.DAS_SERVICE_QUERIES.TIME_TO_UNBOUNDED;
+
+    private QueryPlanner(TableSchema schema) {
+        this.columnDataTypes = schema.getColumnDataTypes();
+        for (String field : schema.getIndexes()) {
+            this.indexedFields.put(RecordLayout.getColumnName(field), field);
+        }
+        for (String field : this.columnDataTypes.keySet()) {
+            this.columnFields.put(RecordLayout.getColumnName(field), field);
+        }
+        for (String field : schema.getFacets()) {
+            this.facetFields.put(RecordLayout.getColumnName(field), field);
+        }
+    }
+
+    /**
+     * Create the plan of the given query.
+     *
+     * @param sqlParser Parsed query
+     * @param schema    Schema of the table of the query
+     */
+    public static QueryPlan createPlan(SQLParser sqlParser, TableSchema schema) {
+        QueryPlanner planner = new QueryPlanner(schema);
+        String searchQuery = null;
+        String countQuery = ServiceConstants.DAS_SERVICE_QUERIES.MATCH_ALL_QUERY;
+        if (sqlParser.getWhereExpression() != null) {
+            planner.addTimeRange(sqlParser.getWhereExpression());
+            searchQuery = planner.toSearchQuery(sqlParser.getWhereExpression());
+            if (searchQuery != null && planner.hasTimeRange()) {
+                //The search API has no time range, so the range is added as a query on the record timestamp
+                searchQuery = join(Arrays.asList(searchQuery, planner.toTimestampQuery()), LUCENE_AND);
+            }
+            if (!planner.isExactlyTranslated(sqlParser.getWhereExpression(), false)) {
+                countQuery = null;
+            } else if (searchQuery != null) {
+                countQuery = searchQuery;
+            } else if (planner.hasTimeRange()) {
+                countQuery = planner.toTimestampQuery();
+            }
+        }
+        boolean countPushdown = countQuery != null && isCountQuery(sqlParser);
+        String facetField = null;
+        List<String> groupByColumns = sqlParser.getGroupByColumns();
+        if (countPushdown && groupByColumns.size() > 0) {
+            facetField = groupByColumns.size() == 1 ? planner.facetFields.get(groupByColumns.get(0)) : null;
+            countPushdown = facetField != null;
+        }
+        Set<String> columns = sqlParser.getReferencedColumns();
+        return new QueryPlan(sqlParser.getTableName(), columns, planner.toFields(columns), searchQuery,
+                planner.timeFrom, planner.timeTo, countQuery, countPushdown, facetField);
+    }
+
+    /*
+     * Check whether the only aggregates of the query are COUNT(*). The other items of the select part have to be
+     * GROUP BY columns, which is validated by the result set.
+     */
+    private static boolean isCountQuery(SQLParser sqlParser) {
+        if (!sqlParser.isAggregateQuery()) {
+            return false;
+        }
+        for (Object[] o : sqlParser.getQueryEnvironment()) {
+            Expression expr = (Expression) o[1];
+            if (expr instanceof AsteriskExpression || (expr instanceof AggregateFunction
+                    && !(expr instanceof CountAggrFunction && ((CountAggrFunction) expr).isCountAll()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Check whether the records selected by the search query and the time range are exactly the records which
+     * satisfy the expression.
+     */
+    private boolean isExactlyTranslated(Expression expr, boolean inDisjunction) {
+        if (expr instanceof AndExpression || expr instanceof ORExpression) {
+            List<Expression> subExprs = expr instanceof AndExpression ? ((AndExpression) expr).getExpressions()
+                    : ((ORExpression) expr).getExpressions();
+            for (Expression subExpr : subExprs) {
+                if (!isExactlyTranslated(subExpr, inDisjunction || expr instanceof ORExpression)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (expr instanceof RelationOpExpression) {
+            if (!inDisjunction && this.timeRangePredicates.contains(expr)) {
+                return true;
+            }
+            RelationOpExpression relExpr = (RelationOpExpression) expr;
+            String field = relExpr.getLeft() instanceof ColumnName
+                    ? this.indexedFields.get(((ColumnName) relExpr.getLeft()).getColumnName()) : null;
+            return field != null && toSearchQuery(relExpr) != null;
+        }
+        return false;
+    }
+
+    /*
+     * Narrow down the timestamp range by the comparisons of the record timestamp which are conjuncts of the where
+     * clause.
+     */
+    private void addTimeRange(Expression expr) {
+        if (expr instanceof AndExpression) {
+            for (Expression subExpr : ((AndExpression) expr).getExpressions()) {
+                addTimeRange(subExpr);
+            }
+            return;
+        }
+        if (!(expr instanceof RelationOpExpression)) {
+            return;
+        }
+        RelationOpExpression relExpr = (RelationOpExpression) expr;
+        if (!(relExpr.getLeft() instanceof ColumnName) || relExpr.getRight() == null || !ServiceConstants
+                .DAS_RESPONSE_DATA.ROW_TIMESTAMP.equalsIgnoreCase(((ColumnName) relExpr.getLeft()).getColumnName())) {
+            return;
+        }
+        long value;
+        try {
+            value = Long.parseLong(relExpr.getRight().toString().trim());
+        } catch (NumberFormatException e) {
+            return;
+        }
+        switch (relExpr.getOperation()) {
+            case "=":
+                narrowTimeRange(value, increment(value));
+                break;
+            case ">":
+                narrowTimeRange(increment(value), this.timeTo);
+                break;
+            case ">=":
+            case "=>":
+                narrowTimeRange(value, this.timeTo);
+                break;
+            case "<":
+                narrowTimeRange(this.timeFrom, value);
+                break;
+            case "<=":
+            case "=<":
+                narrowTimeRange(this.timeFrom, increment(value));
+                break;
+            default:
+                return;
+        }
+        this.timeRangePredicates.add(relExpr);
+    }
+
+    private void narrowTimeRange(long from, long to) {
+        this.timeFrom = Math.max(this.timeFrom, from);
+        this.timeTo = Math.min(this.timeTo, to);
+    }
+
+    private boolean hasTimeRange() {
+        return this.timeFrom != ServiceConstants.DAS_SERVICE_QUERIES.TIME_FROM_UNBOUNDED
+                || this.timeTo != ServiceConstants.DAS_SERVICE_QUERIES.TIME_TO_UNBOUNDED;
+    }
+
+    private String toTimestampQuery() {
+        String from = this.timeFrom == ServiceConstants.DAS_SERVICE_QUERIES.TIME_FROM_UNBOUNDED ? LUCENE_UNBOUNDED
+                : String.valueOf(this.timeFrom);
+        String to = this.timeTo == ServiceConstants.DAS_SERVICE_QUERIES.TIME_TO_UNBOUNDED ? LUCENE_UNBOUNDED
+                : String.valueOf(this.timeTo);
+        return LUCENE_TIMESTAMP_FIELD + ":[" + from + " TO " + to + "}";
+    }
+
+    /*
+     * Get the value after the given timestamp, keeping the end of the range unbounded.
+     */
+    private static long increment(long value) {
+        return value == Long.MAX_VALUE ? value : value + 1;
+    }
+
+    /*
+     * Get the DAS record fields of the used columns. All the fields are requested if a used column is not part of
+     * the schema, such as the version of the record. If no field is used, only one field is requested, so that the
+     * records are still returned.
+     */
+    private List<String> toFields(Set<String> columns) {
+        if (columns == null) {
+            return null;
+        }
+        List<String> fields = new ArrayList<String>(columns.size());
+        for (String column : columns) {
+            String field = this.columnFields.get(column);
+            if (field != null) {
+                fields.add(field);
+            } else if (!column.equalsIgnoreCase(ServiceConstants.DAS_RESPONSE_DATA.ROW_TIMESTAMP)) {
+                return null;
+            }
+        }
+        if (fields.isEmpty()) {
+            if (this.columnDataTypes.isEmpty()) {
+                return null;
+            }
+            fields.add(this.columnDataTypes.keySet().iterator().next());
+        }
+        return fields;
+    }
+
+    /*
+     * Translate an expression of the where clause. Returns null if the expression can not be translated.
+     */
+    private String toSearchQuery(Expression expr) {
+        if (expr instanceof AndExpression) {
+            //Any of the conjuncts narrows down the candidates, the others are only evaluated locally
+            List<String> conjuncts = new ArrayList<String>();
+            for (Expression subExpr : ((AndExpression) expr).getExpressions()) {
+                String subQuery = toSearchQuery(subExpr);
+                if (subQuery != null) {
+                    conjuncts.add(subQuery);
+                }
+            }
+            return join(conjuncts, LUCENE_AND);
+        } else if (expr instanceof ORExpression) {
+            //All of the disjuncts have to be translated, otherwise matching records could be left out
+            List<String> disjuncts = new ArrayList<String>();
+            for (Expression subExpr : ((ORExpression) expr).getExpressions()) {
+                String subQuery = toSearchQuery(subExpr);
+                if (subQuery == null) {
+                    return null;
+                }
+                disjuncts.add(subQuery);
+            }
+            return join(disjuncts, LUCENE_OR);
+        } else if (expr instanceof RelationOpExpression) {
+            return toSearchQuery((RelationOpExpression) expr);
+        }
+        return null;
+    }
+
+    private String toSearchQuery(RelationOpExpression expr) {
+        if (!(expr.getLeft() instanceof ColumnName) || expr.getRight() == null) {
+            return null;
+        }
+        String field = this.indexedFields.get(((ColumnName) expr.getLeft()).getColumnName());
+        if (field == null) {
+            return null;
+        }
+        String dataType = this.columnDataTypes.get(field);
+        String value = expr.getRight().toString();
+        String operation = expr.getOperation();
+        //Only the comparisons of numeric columns are translated
+        String number = toNumber(value, dataType);
+        if (number == null) {
+            return null;
+        }
+        switch (operation) {
+            case "=":
+                return field + ":[" + number + " TO " + number + "]";
+            case ">":
+                return field + ":{" + number + " TO " + LUCENE_UNBOUNDED + "]";
+            case ">=":
+            case "=>":
+                return field + ":[" + number + " TO " + LUCENE_UNBOUNDED + "]";
+            case "<":
+                return field + ":[" + LUCENE_UNBOUNDED + " TO " + number + "}";
+            case "<=":
+            case "=<":
+                return field + ":[" + LUCENE_UNBOUNDED + " TO " + number + "]";
+            default:
+                return null;
+        }
+    }
+
+    /*
+     * Format the literal for a range query on a numeric column. Returns null if the literal is not a number of the
+     * type of the column.
+     */
+    private static String toNumber(String value, String dataType) {
+        if (dataType == null) {
+            return null;
+        }
+        try {
+            switch (dataType.toUpperCase()) {
+                case ServiceConstants.DATATYPES.DATATYPE_INT:
+                case ServiceConstants.DATATYPES.DATATYPE_INTEGER:
+                case ServiceConstants.DATATYPES.DATATYPE_LONG:
+                    return String.valueOf(Long.parseLong(value.trim()));
+                case ServiceConstants.DATATYPES.DATATYPE_FLOAT:
+                case ServiceConstants.DATATYPES.DATATYPE_DOUBLE:
+                    return new BigDecimal(value.trim()).toPlainString();
+                default:
+                    return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String join(List<String> queries, String operator) {
+        if (queries.isEmpty()) {
+            return null;
+        } else if (queries.size() == 1) {
+            return queries.get(0);
+        }
+        StringBuilder query = new StringBuilder();
+        for (String subQuery : queries) {
+            if (query.length() > 0) {
+                query.append(operator);
+            }
+            query.append('(').append(subQuery).append(')');
+        }
+        return query.toString();
+    }
+}
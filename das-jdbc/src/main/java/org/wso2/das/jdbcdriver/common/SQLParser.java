@@ -18,23 +18,36 @@
 package org.wso2.das.jdbcdriver.common;
 
 import org.gibello.zql.ParseException;
+import org.gibello.zql.ZConstant;
+import org.gibello.zql.ZExp;
 import org.gibello.zql.ZExpression;
 import org.gibello.zql.ZFromItem;
+import org.gibello.zql.ZGroupBy;
+import org.gibello.zql.ZOrderBy;
 import org.gibello.zql.ZQuery;
 import org.gibello.zql.ZSelectItem;
 import org.gibello.zql.ZStatement;
+import org.gibello.zql.ZUtils;
 import org.gibello.zql.ZqlParser;
+import org.wso2.das.jdbcdriver.aggregateFunctions.AggregateFunction;
+import org.wso2.das.jdbcdriver.aggregateFunctions.AvgAggrFunction;
 import org.wso2.das.jdbcdriver.aggregateFunctions.MaxAggrFunction;
 import org.wso2.das.jdbcdriver.aggregateFunctions.MinAggrFunciton;
+import org.wso2.das.jdbcdriver.aggregateFunctions.StddevAggrFunction;
 import org.wso2.das.jdbcdriver.aggregateFunctions.SumAggrFunction;
+import org.wso2.das.jdbcdriver.aggregateFunctions.VarianceAggrFunction;
 import org.wso2.das.jdbcdriver.aggregateFunctions.CountAggrFunction;
 import org.wso2.das.jdbcdriver.expressions.AndExpression;
 import org.wso2.das.jdbcdriver.expressions.AsteriskExpression;
 import org.wso2.das.jdbcdriver.expressions.ColumnName;
 import org.wso2.das.jdbcdriver.expressions.Expression;
 import org.wso2.das.jdbcdriver.expressions.GeneralExpression;
+import org.wso2.das.jdbcdriver.expressions.LikeExpression;
 import org.wso2.das.jdbcdriver.expressions.ORExpression;
+import org.wso2.das.jdbcdriver.expressions.ParameterExpression;
+import org.wso2.das.jdbcdriver.sort.SortKey;
 import org.wso2.das.jdbcdriver.expressions.RelationOpExpression;
+import org.wso2.das.jdbcdriver.expressions.RelationOperator;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
@@ -42,18 +55,44 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * This class have the functions required for parsing the SQL. ZQL Sql parser is used for this.
  */
 public class SQLParser {
 
+    //LIMIT clause at the end of the query, which is not supported by the ZQL parser
+    private static final Pattern LIMIT_CLAUSE = Pattern.compile("\\s+LIMIT\\s+(\\d+)\\s*;?\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    //Parameter of a prepared statement, parsed by ZQL as an expression without operands
+    private static final String PARAMETER = "?";
+
     private List<Object[]> queryEnvironment = new ArrayList<Object[]>();
     private Expression whereExpression;
     private String sTableName;
     private String sql;
+    private int limit = -1;
+    private List<ParameterExpression> parameters = new ArrayList<ParameterExpression>();
+    private List<String> literals;
+    private int parameterSlotCount;
+    private List<String> groupByColumns = new ArrayList<String>();
+    private List<SortKey> sortKeys = new ArrayList<SortKey>();
+
+    static {
+        //Aggregate functions which are not known to the ZQL parser, each with a single argument
+        ZUtils.addCustomFunction(ServiceConstants.AGGREGATE_FUNCTIONS.AGGR_FUNC_STDDEV, 1);
+        ZUtils.addCustomFunction(ServiceConstants.AGGREGATE_FUNCTIONS.AGGR_FUNC_VARIANCE, 1);
+    }
 
     public SQLParser(String sql) {
         this.sql = sql;
@@ -63,6 +102,23 @@ public class SQLParser {
      * Parse the SQL Query String by using the ZQL parser.
      */
     public void parse() throws SQLException {
+        build(readStatement(), this.limit, null);
+    }
+
+    /*
+     * Parse the SQL with the ZQL parser, without building the expressions of the query. The LIMIT clause is removed
+     * from the SQL before it is parsed.
+     */
+    ZStatement readStatement() throws SQLException {
+        Matcher limitMatcher = LIMIT_CLAUSE.matcher(sql);
+        if (limitMatcher.find()) {
+            try {
+                this.limit = Integer.parseInt(limitMatcher.group(1));
+            } catch (NumberFormatException e) {
+                throw new SQLException("Invalid LIMIT: " + limitMatcher.group(1), e);
+            }
+            sql = sql.substring(0, limitMatcher.start());
+        }
         if (sql.length() > 0) {
             if (sql.charAt(sql.length() - 1) != ';') {
                 sql = sql.concat(";");
@@ -77,10 +133,27 @@ public class SQLParser {
         } catch (ParseException e) {
             throw new SQLException("Error in Parsing SQL:", e);
         }
+        return stmt;
+    }
+
+    /*
+     * Build the expressions of the query from a parsed statement. The parsed statement is only read, so a statement
+     * can be shared by many queries.
+     *
+     * @param stmt     Statement parsed by the ZQL parser
+     * @param limit    Maximum number of rows, or -1 if the query has no LIMIT clause
+     * @param literals Literal values of the parameters of the where clause in the order they appear, with null for
+     *                 the parameters of a prepared statement, or null if all the parameters are of a prepared
+     *                 statement
+     */
+    void build(ZStatement stmt, int limit, List<String> literals) throws SQLException {
+        this.limit = limit;
+        this.literals = literals;
         if (stmt != null) {
             if (stmt instanceof ZQuery) {
                 ZQuery query = (ZQuery) stmt;
                 Vector selectPart = query.getSelect(); // SELECT part of the query
+                Map<String, Expression> selectedAggregates = new HashMap<String, Expression>();
                 Vector fromPart = query.getFrom();  // FROM part of the query
                 ZExpression wherePart = (ZExpression) query.getWhere();  // WHERE part of the query
                 if (wherePart != null) {
@@ -110,27 +183,34 @@ public class SQLParser {
                             Expression aggregateExpression = getAggregateFunctionExpression(aggragateName,
                                     funcExpression);
                             this.queryEnvironment.add(new Object[] { columnName, aggregateExpression });
+                            selectedAggregates.put(getAggregateKey(aggragateName, columnName), aggregateExpression);
                         } else {
                             if (columnName.equals(ServiceConstants.DAS_CONSTANTS.ASTERISK)) {
                                 this.queryEnvironment
                                         .add(new Object[] { columnName, new AsteriskExpression(columnName) });
                             } else {
-                                if (columnName.startsWith(ServiceConstants.DAS_SERVICE_QUERIES.DAS_SCHEMA_NAME + ".")) {
-                                    columnName = columnName.substring(
-                                            ServiceConstants.DAS_SERVICE_QUERIES.DAS_SCHEMA_NAME.length() + 1);
-                                }
-                                if (columnName.startsWith(this.sTableName + ".")) {
-                                    columnName = columnName.substring(this.sTableName.length() + 1);
-                                }
-                                if (columnName.contains(".")) {
-                                    columnName = columnName.split("\\.")[1];
-                                }
+                                columnName = getUnqualifiedColumnName(columnName);
                                 this.queryEnvironment.add(new Object[] { columnName,
                                         new GeneralExpression(columnName, new ColumnName(columnName)) });
                             }
                         }
                     }
                 }
+                ZGroupBy groupByPart = query.getGroupBy();  // GROUP BY part of the query
+                if (groupByPart != null) {
+                    if (groupByPart.getHaving() != null) {
+                        throw new SQLException("HAVING is not supported");
+                    }
+                    for (Object groupByItem : groupByPart.getGroupBy()) {
+                        this.groupByColumns.add(getUnqualifiedColumnName(groupByItem.toString()).toUpperCase());
+                    }
+                }
+                Vector<?> orderByPart = query.getOrderBy();  // ORDER BY part of the query
+                if (orderByPart != null) {
+                    for (Object orderByItem : orderByPart) {
+                        this.sortKeys.add(getSortKey((ZOrderBy) orderByItem, selectedAggregates));
+                    }
+                }
             }
         }
     }
@@ -147,10 +227,151 @@ public class SQLParser {
         return this.whereExpression;
     }
 
+    /**
+     * Get the parameters of the query, in the order of the parameter indexes.
+     */
+    public List<ParameterExpression> getParameters() {
+        return this.parameters;
+    }
+
+    /*
+     * Get the number of parameters of the where clause used as values, including the parameters replaced by
+     * literals.
+     */
+    int getParameterSlotCount() {
+        return this.parameterSlotCount;
+    }
+
+    /**
+     * Get the maximum number of rows given by the LIMIT clause, or -1 if the query has no LIMIT clause.
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Get the upper case names of the columns of the GROUP BY clause, or an empty list if the query has no GROUP BY
+     * clause.
+     */
+    public List<String> getGroupByColumns() {
+        return this.groupByColumns;
+    }
+
+    /**
+     * Get the keys of the ORDER BY clause, or an empty list if the query has no ORDER BY clause.
+     */
+    public List<SortKey> getSortKeys() {
+        return this.sortKeys;
+    }
+
+    /**
+     * Check whether the rows of the query are aggregated, by aggregate functions or by a GROUP BY clause.
+     */
+    public boolean isAggregateQuery() {
+        return !this.groupByColumns.isEmpty() || hasAggregateFunctions();
+    }
+
+    /**
+     * Check whether the select part of the query has aggregate functions.
+     */
+    public boolean hasAggregateFunctions() {
+        for (Object[] o : this.queryEnvironment) {
+            if (o[1] instanceof AggregateFunction) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the upper case names of the columns used by the query, in the select part and in the where clause.
+     *
+     * @return Names of the used columns, or null if the query selects all the columns
+     */
+    public Set<String> getReferencedColumns() {
+        Set<String> columns = new HashSet<String>();
+        Set<String> noColumns = Collections.emptySet();
+        for (Object[] o : this.queryEnvironment) {
+            Expression expr = (Expression) o[1];
+            if (expr instanceof AsteriskExpression) {
+                return null;
+            } else if (expr instanceof AggregateFunction) {
+                columns.addAll(((AggregateFunction) expr).getArgumentColumns());
+            } else if (expr != null) {
+                columns.addAll(expr.getFilteredColumns(noColumns));
+            }
+        }
+        if (this.whereExpression != null) {
+            columns.addAll(this.whereExpression.getFilteredColumns(noColumns));
+        }
+        columns.addAll(this.groupByColumns);
+        for (SortKey sortKey : this.sortKeys) {
+            if (sortKey.getExpression() instanceof ColumnName) {
+                columns.addAll(sortKey.getExpression().getFilteredColumns(noColumns));
+            }
+        }
+        return columns;
+    }
+
+    /*
+     * Get the key of an item of the ORDER BY clause. The item is a column, the position of a select item, or an
+     * aggregate function which is in the select part.
+     */
+    private SortKey getSortKey(ZOrderBy orderByItem, Map<String, Expression> selectedAggregates)
+            throws SQLException {
+        ZExp expression = orderByItem.getExpression();
+        boolean descending = !orderByItem.getAscOrder();
+        if (expression instanceof ZConstant) {
+            ZConstant constant = (ZConstant) expression;
+            if (constant.getType() == ZConstant.NUMBER) {
+                try {
+                    return new SortKey(Integer.parseInt(constant.getValue()), descending);
+                } catch (NumberFormatException e) {
+                    throw new SQLException("Invalid ORDER BY position: " + constant.getValue(), e);
+                }
+            } else if (constant.getType() == ZConstant.COLUMNNAME) {
+                return new SortKey(new ColumnName(getUnqualifiedColumnName(constant.getValue())), descending);
+            }
+        } else if (expression instanceof ZExpression && ((ZExpression) expression).nbOperands() == 1) {
+            ZExpression function = (ZExpression) expression;
+            Expression aggregateExpression = selectedAggregates.get(
+                    getAggregateKey(function.getOperator(), function.getOperand(0).toString()));
+            if (aggregateExpression != null) {
+                return new SortKey(aggregateExpression, descending);
+            }
+        }
+        throw new SQLException("ORDER BY is only supported on columns and on the selected aggregate functions: "
+                + expression);
+    }
+
+    /*
+     * Get the key of an aggregate function of the select part, by which the function is found in the ORDER BY
+     * clause.
+     */
+    private String getAggregateKey(String aggregateFuncName, String columnName) {
+        return aggregateFuncName.toUpperCase() + "(" + getUnqualifiedColumnName(columnName).toUpperCase() + ")";
+    }
+
+    /*
+     * Remove the schema and table names from a qualified column name.
+     */
+    private String getUnqualifiedColumnName(String columnName) {
+        if (columnName.startsWith(ServiceConstants.DAS_SERVICE_QUERIES.DAS_SCHEMA_NAME + ".")) {
+            columnName = columnName.substring(ServiceConstants.DAS_SERVICE_QUERIES.DAS_SCHEMA_NAME.length() + 1);
+        }
+        if (columnName.startsWith(this.sTableName + ".")) {
+            columnName = columnName.substring(this.sTableName.length() + 1);
+        }
+        if (columnName.contains(".")) {
+            columnName = columnName.split("\\.")[1];
+        }
+        return columnName;
+    }
+
     /**
      * Get the Aggregate Funtion from the ZQL expression.
      *
-     * @param aggregateFuncName  Name of the Aggreate Function -COUNT|MIN|MAX|SUM
+     * @param aggregateFuncName  Name of the Aggreate Function -COUNT|MIN|MAX|SUM|AVG|STDDEV|VARIANCE
      * @param internalExpression ZQL expression which contains the aggragate function
      */
     private Expression getAggregateFunctionExpression(String aggregateFuncName, Expression internalExpression) {
@@ -162,6 +383,12 @@ public class SQLParser {
             return new MinAggrFunciton(internalExpression);
         } else if (aggregateFuncName.equalsIgnoreCase(ServiceConstants.AGGREGATE_FUNCTIONS.AGGR_FUNC_MAX)) {
             return new MaxAggrFunction(internalExpression);
+        } else if (aggregateFuncName.equalsIgnoreCase(ServiceConstants.AGGREGATE_FUNCTIONS.AGGR_FUNC_AVG)) {
+            return new AvgAggrFunction(internalExpression);
+        } else if (aggregateFuncName.equalsIgnoreCase(ServiceConstants.AGGREGATE_FUNCTIONS.AGGR_FUNC_STDDEV)) {
+            return new StddevAggrFunction(internalExpression);
+        } else if (aggregateFuncName.equalsIgnoreCase(ServiceConstants.AGGREGATE_FUNCTIONS.AGGR_FUNC_VARIANCE)) {
+            return new VarianceAggrFunction(internalExpression);
         } else {
             return null;
         }
@@ -179,18 +406,21 @@ public class SQLParser {
             Vector<ZExpression> operands = where.getOperands();
             Vector<Expression> vecExpressions = new Vector<Expression>();
             for (ZExpression zExp : operands) {
-                RelationOpExpression relOperation = getRelationOpExpression(zExp);
-                vecExpressions.add(relOperation);
+                vecExpressions.add(getWhereClauseExpression(zExp));
             }
             expr = new AndExpression(vecExpressions);
         } else if (sOperator.equalsIgnoreCase(ServiceConstants.OPERATORS.OPERATOR_OR)) {
             Vector<ZExpression> operands = where.getOperands();
             Vector<Expression> vecExpressions = new Vector<Expression>();
             for (ZExpression zExp : operands) {
-                RelationOpExpression relOperation = getRelationOpExpression(zExp);
-                vecExpressions.add(relOperation);
+                vecExpressions.add(getWhereClauseExpression(zExp));
             }
             expr = new ORExpression(vecExpressions);
+        } else if (sOperator.equalsIgnoreCase(ServiceConstants.OPERATORS.OPERATOR_LIKE)
+                || sOperator.equalsIgnoreCase(ServiceConstants.OPERATORS.OPERATOR_NOT_LIKE)) {
+            expr = new LikeExpression(new ColumnName(where.getOperand(0).toString()),
+                    getValueExpression(where.getOperand(1)), ServiceConstants.DAS_SERVICE_QUERIES.DEFAULT_ESCAPE_STRING,
+                    sOperator.equalsIgnoreCase(ServiceConstants.OPERATORS.OPERATOR_NOT_LIKE));
         } else {
             expr = getRelationOpExpression(where);
         }
@@ -203,14 +433,85 @@ public class SQLParser {
      * @param zExp ZQL expression which represents a relation operation
      */
     private RelationOpExpression getRelationOpExpression(ZExpression zExp) {
-        String sColName = zExp.getOperand(0).toString();
-        String sColVal = zExp.getOperand(1).toString();
+        String sOperator = zExp.getOperator();
+        ZExp columnOperand = zExp.getOperand(0);
+        ZExp valueOperand = zExp.getOperand(1);
+        RelationOperator operator = RelationOperator.fromSymbol(sOperator);
+        if (operator != null && isColumnName(valueOperand) && !isColumnName(columnOperand)) {
+            //Comparison of a constant with a column, such as 10 < COL
+            sOperator = operator.reverse().getSymbol();
+            columnOperand = valueOperand;
+            valueOperand = zExp.getOperand(0);
+        }
+        String sColName = columnOperand.toString();
+        return new RelationOpExpression(sOperator, new ColumnName(sColName), getValueExpression(valueOperand));
+    }
+
+    /*
+     * Get the expression of a literal or a parameter of the where clause. Parameters are numbered in the order they
+     * appear in the query. A parameter which has a literal value is replaced by the literal.
+     */
+    private Expression getValueExpression(ZExp zExp) {
+        if (zExp instanceof ZExpression && PARAMETER.equals(((ZExpression) zExp).getOperator())) {
+            int slot = this.parameterSlotCount++;
+            if (this.literals != null && slot < this.literals.size() && this.literals.get(slot) != null) {
+                return new AsteriskExpression(unescape(this.literals.get(slot)));
+            }
+            ParameterExpression parameter = new ParameterExpression(this.parameters.size() + 1);
+            this.parameters.add(parameter);
+            return parameter;
+        }
+        String signedNumber = getSignedNumber(zExp);
+        if (signedNumber != null) {
+            return new AsteriskExpression(signedNumber);
+        }
+        if (zExp instanceof ZConstant && ((ZConstant) zExp).getType() == ZConstant.STRING) {
+            return new AsteriskExpression(unescape(((ZConstant) zExp).getValue()));
+        }
+        return new AsteriskExpression(unquote(zExp.toString()));
+    }
+
+    /*
+     * Get the value of a string literal, of which the quotes are escaped by doubling them.
+     */
+    private static String unescape(String literal) {
+        return literal.replace("''", "'");
+    }
+
+    /*
+     * Fold a unary minus or plus over a number, which ZQL parses as an expression such as (- 5), into the signed
+     * number. Returns null if the expression is not a signed number.
+     */
+    private static String getSignedNumber(ZExp zExp) {
+        if (zExp instanceof ZConstant) {
+            return ((ZConstant) zExp).getType() == ZConstant.NUMBER ? ((ZConstant) zExp).getValue() : null;
+        }
+        if (!(zExp instanceof ZExpression) || ((ZExpression) zExp).nbOperands() != 1) {
+            return null;
+        }
+        ZExpression unary = (ZExpression) zExp;
+        String operand = getSignedNumber(unary.getOperand(0));
+        if (operand == null) {
+            return null;
+        } else if ("+".equals(unary.getOperator())) {
+            return operand;
+        } else if ("-".equals(unary.getOperator())) {
+            return operand.startsWith("-") ? operand.substring(1) : "-" + operand;
+        }
+        return null;
+    }
+
+    private static String unquote(String sColVal) {
         if (sColVal.startsWith("'")) {
             sColVal = sColVal.substring(1);
         }
         if (sColVal.endsWith("'")) {
             sColVal = sColVal.substring(0, sColVal.length() - 1);
         }
-        return new RelationOpExpression(zExp.getOperator(), new ColumnName(sColName),new AsteriskExpression(sColVal));
+        return sColVal;
+    }
+
+    private static boolean isColumnName(ZExp zExp) {
+        return zExp instanceof ZConstant && ((ZConstant) zExp).getType() == ZConstant.COLUMNNAME;
     }
 }
\ No newline at end of file
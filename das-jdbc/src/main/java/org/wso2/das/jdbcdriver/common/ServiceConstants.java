@@ -28,6 +28,41 @@ public class ServiceConstants {
         public final static String  DAS_PASS                = "password";
         public static final String  DAS_DRIVER_NAME         = "DASJDBC";
         public static final int     DEFAULT_COLUMN_SIZE     = 100;
+        public final static String  CONNECT_TIMEOUT         = "connectTimeout";
+        public final static String  READ_TIMEOUT            = "readTimeout";
+        public final static String  MAX_CONNECTIONS         = "maxConnections";
+        public static final int     DEFAULT_CONNECT_TIMEOUT = 30000;
+        public static final int     DEFAULT_READ_TIMEOUT    = 0;
+        public static final int     DEFAULT_MAX_CONNECTIONS = 5;
+        public final static String  FETCH_SIZE              = "fetchSize";
+        public static final int     DEFAULT_FETCH_SIZE      = 0;
+        public static final int     DEFAULT_SEARCH_PAGE_SIZE = 1000;
+        public static final int     MIN_LIMIT_PAGE_SIZE     = 100;
+        public static final int     LIKE_PATTERN_CACHE_SIZE = 256;
+        public final static String  SCHEMA_CACHE_SIZE       = "schemaCacheSize";
+        public final static String  SCHEMA_CACHE_TTL        = "schemaCacheTTL";
+        public static final int     DEFAULT_SCHEMA_CACHE_SIZE = 100;
+        public static final int     DEFAULT_SCHEMA_CACHE_TTL  = 300000;
+        public final static String  STATEMENT_CACHE_SIZE    = "statementCacheSize";
+        public static final int     DEFAULT_STATEMENT_CACHE_SIZE = 100;
+        public final static String  RESULT_CACHE_MEMORY     = "resultCacheMemory";
+        public final static String  RESULT_CACHE_TTL        = "resultCacheTTL";
+        public final static String  RESULT_CACHE_REVALIDATE = "resultCacheRevalidate";
+        public static final int     DEFAULT_RESULT_CACHE_MEMORY = 0;
+        public static final int     DEFAULT_RESULT_CACHE_TTL  = 30000;
+        public static final boolean DEFAULT_RESULT_CACHE_REVALIDATE = true;
+        public final static String  SNAPSHOT_TABLES         = "snapshotTables";
+        public final static String  ALL_TABLES              = "*";
+        public final static String  AGGREGATION_MAX_GROUPS  = "aggregationMaxGroups";
+        public static final int     DEFAULT_AGGREGATION_MAX_GROUPS = 100000;
+        public final static String  SORT_MAX_ROWS           = "sortMaxRows";
+        public static final int     DEFAULT_SORT_MAX_ROWS   = 100000;
+        public final static String  SCAN_PARALLELISM        = "scanParallelism";
+        public final static String  SCAN_ORDERED            = "scanOrdered";
+        public static final int     DEFAULT_SCAN_PARALLELISM = 1;
+        public static final boolean DEFAULT_SCAN_ORDERED    = true;
+        public final static String  PREFETCH_MEMORY         = "prefetchMemory";
+        public static final int     DEFAULT_PREFETCH_MEMORY = 0;
     }
 
     public static final class DAS_VERSIONS {
@@ -59,8 +94,33 @@ public class ServiceConstants {
         public static final String  DAS_SCHEMA_NAME             = "analytics";
         public static final String  DAS_TABLE_NAMES_QUERY       = "/tables";
         public static final String  DAS_SCHEMA_QUERY            = "/schema";
+        public static final String  DAS_SEARCH_QUERY            = "/search";
+        public static final String  DAS_SEARCH_COUNT_QUERY      = "/search_count";
+        public static final String  DAS_RECORD_COUNT_QUERY      = "/recordcount";
+        public static final String  DAS_FACETS_QUERY            = "/facets";
         public static final char    URL_PATH_SEPERATOR          = '/';
         public static final String  DEFAULT_ESCAPE_STRING       = "\\";
+        public static final long    TIME_FROM_UNBOUNDED         = Long.MIN_VALUE;
+        public static final long    TIME_TO_UNBOUNDED           = Long.MAX_VALUE;
+        public static final int     RECORD_COUNT_ALL            = -1;
+        public static final String  TIMESTAMP_FIELD             = "_timestamp";
+        public static final String  MATCH_ALL_QUERY             = "*:*";
+        public static final String  SORT_DESCENDING             = "DESC";
+        public static final String  COUNT_SCORE_FUNCTION        = "1";
+    }
+
+    public static final class DAS_REQUEST_KEYS {
+        public static final String  TABLE_NAME  = "tableName";
+        public static final String  QUERY       = "query";
+        public static final String  START       = "start";
+        public static final String  COUNT       = "count";
+        public static final String  COLUMNS     = "columns";
+        public static final String  SORT_BY     = "sortBy";
+        public static final String  SORT_FIELD  = "field";
+        public static final String  SORT_TYPE   = "sortType";
+        public static final String  FIELD_NAME  = "fieldName";
+        public static final String  CATEGORY_PATH = "categoryPath";
+        public static final String  SCORE_FUNCTION = "scoreFunction";
     }
 
     public static final class DAS_RESPONSE_KEYS{
@@ -68,6 +128,10 @@ public class ServiceConstants {
         public static final String  TYPE        = "type";
         public static final String  PRIMARYKEYS = "primaryKeys";
         public static final String  ISINDEX     = "isIndex";
+        public static final String  ISFACET     = "isFacet";
+        public static final String  CATEGORIES  = "categories";
+        public static final String  CATEGORY_VALUE = "categoryValue";
+        public static final String  SCORE       = "score";
 
     }
     public static final class DAS_RESPONSE_DATA {
@@ -94,23 +158,59 @@ public class ServiceConstants {
         public static final String DATATYPE_BLOB        = "BLOB";
         public static final String DATATYPE_CLOB        ="CLOB";
         public static final String DATATYPE_EXPRESSION  ="EXPRESSION";
+        public static final String DATATYPE_FACET       = "FACET";
     }
 
     public static final class AGGREGATE_FUNCTIONS {
-        public static final String AGGR_FUNC_COUNT  = "COUNT";
-        public static final String AGGR_FUNC_SUM    = "SUM";
-        public static final String AGGR_FUNC_MIN    = "MIN";
-        public static final String AGGR_FUNC_MAX    = "MAX";
+        public static final String AGGR_FUNC_COUNT     = "COUNT";
+        public static final String AGGR_FUNC_SUM       = "SUM";
+        public static final String AGGR_FUNC_MIN       = "MIN";
+        public static final String AGGR_FUNC_MAX       = "MAX";
+        public static final String AGGR_FUNC_AVG       = "AVG";
+        public static final String AGGR_FUNC_STDDEV    = "STDDEV";
+        public static final String AGGR_FUNC_VARIANCE  = "VARIANCE";
     }
 
     public static final class OPERATORS {
         public static final String OPERATOR_AND = "AND";
         public static final String OPERATOR_OR  = "OR";
+        public static final String OPERATOR_LIKE = "LIKE";
+        public static final String OPERATOR_NOT_LIKE = "NOT LIKE";
     }
 
     public static final class PROPERTY_DESCRIPTIONS {
         public static final String USERNAME = "UserName";
         public static final String PASSWORD  = "Password";
+        public static final String CONNECT_TIMEOUT = "Connect timeout of the DAS REST requests in milliseconds";
+        public static final String READ_TIMEOUT = "Read timeout of the DAS REST requests in milliseconds";
+        public static final String MAX_CONNECTIONS = "Maximum number of concurrent DAS REST requests per connection";
+        public static final String FETCH_SIZE = "Default number of records fetched in each page of a table scan, "
+                + "0 to fetch the whole table at once";
+        public static final String SCHEMA_CACHE_SIZE = "Maximum number of table schemas cached by a connection, "
+                + "0 to disable the schema cache";
+        public static final String SCHEMA_CACHE_TTL = "Time in milliseconds a cached table schema is used before it "
+                + "is fetched again, 0 to keep it for the life time of the connection";
+        public static final String STATEMENT_CACHE_SIZE = "Maximum number of parsed SQL statements cached by a "
+                + "connection, 0 to disable the statement cache";
+        public static final String RESULT_CACHE_MEMORY = "Maximum memory in megabytes of the query results cached by "
+                + "a connection, 0 to disable the result cache";
+        public static final String RESULT_CACHE_TTL = "Time in milliseconds a cached query result is used before it "
+                + "is revalidated or fetched again";
+        public static final String RESULT_CACHE_REVALIDATE = "Whether an expired query result is used again when the "
+                + "table has no records newer than the result";
+        public static final String SNAPSHOT_TABLES = "Comma separated names of the append-only tables of which a local "
+                + "copy is kept by a connection and only the new records are retrieved on each query, * for all tables";
+        public static final String AGGREGATION_MAX_GROUPS = "Maximum number of groups of a GROUP BY query kept in "
+                + "memory, beyond which the groups are spilled to temporary files";
+        public static final String SORT_MAX_ROWS = "Maximum number of rows of an ORDER BY query sorted in memory, beyond "
+                + "which the sorted rows are spilled to temporary files";
+        public static final String SCAN_PARALLELISM = "Number of pages of a table scan requested from DAS at the same "
+                + "time, 1 to scan the pages one after another";
+        public static final String SCAN_ORDERED = "Whether the records of a parallel table scan are read in the order "
+                + "of the table, or in the order in which the pages are received";
+        public static final String PREFETCH_MEMORY = "Estimated memory in bytes of the pages of a table scan received "
+                + "ahead of the reader, up to which more pages are requested, 0 to only request the scanParallelism "
+                + "pages";
     }
 
     public static final class DAS_METADATA_DEF_COLUMN_NAMES {
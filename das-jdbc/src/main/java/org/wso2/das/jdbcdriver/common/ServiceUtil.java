@@ -23,8 +23,6 @@ import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
-import java.util.StringTokenizer;
-import java.util.regex.Pattern;
 
 /**
  * This class have a collection of Utility functions required by the Driver classes.
@@ -131,41 +129,7 @@ public class ServiceUtil {
      * @param input       Input string which needs to match with the given pattern
      */
     public static boolean isPatternMatched(String likePattern, String escape, CharSequence input) {
-        boolean retVal;
-        int percentIndex = likePattern.indexOf(ServiceConstants.DAS_CONSTANTS.CHAR_PERCENT_SIGN);
-        int underscoreIndex = likePattern.indexOf(ServiceConstants.DAS_CONSTANTS.CHAR_UNDERSCORE_SIGN);
-        if (percentIndex < 0 && underscoreIndex < 0) {
-            retVal = likePattern.equals(input); //No wildcards. Compare the string.
-        } else {
-            boolean isEscaped = false;
-            StringBuilder regex = new StringBuilder();
-            StringTokenizer tokenizer = new StringTokenizer(likePattern,
-                    ServiceConstants.DAS_CONSTANTS.REGEX_PERCENT + escape, true);
-            while (tokenizer.hasMoreTokens()) {
-                String token = tokenizer.nextToken();
-                if (token.equals(escape)) {
-                    if (isEscaped) {
-                        regex.append(Pattern.quote(token));
-                    } else {
-                        isEscaped = true;
-                    }
-                } else {
-                    if (isEscaped) {
-                        regex.append(Pattern.quote(token));
-                    } else if (token.equals(ServiceConstants.DAS_CONSTANTS.PERCENT_SIGN)) {
-                        regex.append(ServiceConstants.DAS_CONSTANTS.REGEX_ALL);
-                    } else if (token.equals(ServiceConstants.DAS_CONSTANTS.UNDERSCORE)) {
-                        regex.append(ServiceConstants.DAS_CONSTANTS.DOT);
-                    } else {
-                        regex.append(Pattern.quote(token));
-                    }
-                    isEscaped = false;
-                }
-            }
-            Pattern pattern = Pattern.compile(regex.toString());
-            retVal = pattern.matcher(input).matches();
-        }
-        return retVal;
+        return LikeMatcher.getMatcher(likePattern, escape).matches(input);
     }
 
     /**
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import org.gibello.zql.ZStatement;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache of the SQL statements parsed by the ZQL parser. Statements are cached by their normalized SQL, in which the
+ * white spaces are collapsed and the literals of the where clause are replaced by parameters. Queries which differ
+ * only in the literals of the where clause share the parsed statement.
+ * Each query gets its own expressions built from the cached statement, so the queries do not share any state.
+ */
+public class StatementCache {
+
+    private static final char PARAMETER = '?';
+    private static final char SINGLE_QUOTE = '\'';
+    private static final char DOUBLE_QUOTE = '"';
+    private static final String WHERE = "WHERE";
+    private static final String[] WHERE_CLAUSE_END = { "GROUP", "ORDER", "HAVING", "LIMIT" };
+
+    private final LRUCache<String, CachedStatement> statements;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxSize Maximum number of cached statements, 0 to disable the cache
+     */
+    public StatementCache(int maxSize) {
+        this.statements = new LRUCache<String, CachedStatement>(maxSize, 0);
+    }
+
+    /**
+     * Get the parsed query of the given SQL. The SQL is parsed by the ZQL parser only if a statement of the same
+     * normalized SQL is not cached.
+     *
+     * @param sql SQL of the query, which may have parameters (?) of a prepared statement
+     * @return Parsed query, with the parameters of the prepared statement not bound
+     * @throws SQLException if the SQL cannot be parsed
+     */
+    public SQLParser getParser(String sql) throws SQLException {
+        List<String> literals = new ArrayList<String>();
+        String normalizedSQL = normalize(sql, literals);
+        CachedStatement cached = this.statements.get(normalizedSQL);
+        if (cached == null) {
+            SQLParser normalizedParser = new SQLParser(normalizedSQL);
+            try {
+                ZStatement statement = normalizedParser.readStatement();
+                cached = new CachedStatement(statement, normalizedParser.getLimit());
+                normalizedParser.build(statement, cached.limit, literals);
+                if (normalizedParser.getParameterSlotCount() != literals.size()) {
+                    //Some literals are not values of the where clause, so they cannot be replaced by parameters
+                    cached = CachedStatement.NOT_NORMALIZED;
+                }
+            } catch (SQLException e) {
+                cached = CachedStatement.NOT_NORMALIZED;
+            }
+            this.statements.put(normalizedSQL, cached);
+            if (cached != CachedStatement.NOT_NORMALIZED) {
+                return normalizedParser;
+            }
+        }
+        if (cached == CachedStatement.NOT_NORMALIZED) {
+            SQLParser parser = new SQLParser(sql);
+            parser.parse();
+            return parser;
+        }
+        SQLParser parser = new SQLParser(normalizedSQL);
+        parser.build(cached.statement, cached.limit, literals);
+        return parser;
+    }
+
+    /**
+     * Get the usage counters of the cache.
+     */
+    public CacheStatistics getStatistics() {
+        return this.statements.getStatistics();
+    }
+
+    /**
+     * Remove all the cached statements.
+     */
+    public void clear() {
+        this.statements.clear();
+    }
+
+    /**
+     * Normalize the SQL of a query. White spaces outside the quotes are collapsed to a single space and the trailing
+     * semicolon is removed. The string and number literals of the where clause are replaced by parameters and added
+     * to the given list, without the quotes. For each parameter of a prepared statement in the where clause a null
+     * is added to the list. Signed numbers are kept in the SQL.
+     *
+     * @param sql      SQL of the query
+     * @param literals List to add the literals of the where clause
+     * @return Normalized SQL
+     */
+    public static String normalize(String sql, List<String> literals) {
+        StringBuilder normalized = new StringBuilder(sql.length());
+        boolean inWhereClause = false;
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+            } else if (c == SINGLE_QUOTE || c == DOUBLE_QUOTE) {
+                int end = findClosingQuote(sql, i);
+                if (end < 0) {
+                    normalized.append(sql, i, length);
+                    break;
+                }
+                if (c == SINGLE_QUOTE && inWhereClause) {
+                    literals.add(sql.substring(i + 1, end));
+                    normalized.append(PARAMETER);
+                } else {
+                    normalized.append(sql, i, end + 1);
+                }
+                i = end + 1;
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = i;
+                while (end < length && isIdentifierPart(sql.charAt(end))) {
+                    end++;
+                }
+                String word = sql.substring(i, end);
+                if (WHERE.equalsIgnoreCase(word)) {
+                    inWhereClause = true;
+                } else if (isWhereClauseEnd(word)) {
+                    inWhereClause = false;
+                }
+                normalized.append(word);
+                i = end;
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < length && Character.isDigit(sql.charAt(i + 1)))) {
+                int end = i;
+                while (end < length && (Character.isDigit(sql.charAt(end)) || sql.charAt(end) == '.')) {
+                    end++;
+                }
+                if (inWhereClause && !isSigned(normalized) && (end == length || !isIdentifierPart(sql.charAt(end)))) {
+                    literals.add(sql.substring(i, end));
+                    normalized.append(PARAMETER);
+                } else {
+                    normalized.append(sql, i, end);
+                }
+                i = end;
+            } else {
+                if (c == PARAMETER && inWhereClause) {
+                    literals.add(null);
+                }
+                normalized.append(c);
+                i++;
+            }
+        }
+        int end = normalized.length();
+        while (end > 0 && (normalized.charAt(end - 1) == ' ' || normalized.charAt(end - 1) == ';')) {
+            end--;
+        }
+        normalized.setLength(end);
+        return normalized.toString();
+    }
+
+    /*
+     * Find the closing quote of a quoted string or identifier. A doubled quote inside the quotes is not a closing
+     * quote.
+     *
+     * @return Index of the closing quote, or -1 if the quote is not closed
+     */
+    private static int findClosingQuote(String sql, int start) {
+        char quote = sql.charAt(start);
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+    private static boolean isWhereClauseEnd(String word) {
+        for (String keyword : WHERE_CLAUSE_END) {
+            if (keyword.equalsIgnoreCase(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSigned(StringBuilder normalized) {
+        int i = normalized.length() - 1;
+        if (i >= 0 && normalized.charAt(i) == ' ') {
+            i--;
+        }
+        return i >= 0 && (normalized.charAt(i) == '-' || normalized.charAt(i) == '+');
+    }
+
+    /*
+     * Statement parsed from the normalized SQL, which is only read after it is cached.
+     */
+    private static class CachedStatement {
+        //Marks the SQL of which the literals cannot be replaced by parameters. Such SQL is parsed on each query.
+        private static final CachedStatement NOT_NORMALIZED = new CachedStatement(null, -1);
+
+        private final ZStatement statement;
+        private final int limit;
+
+        private CachedStatement(ZStatement statement, int limit) {
+            this.statement = statement;
+            this.limit = limit;
+        }
+    }
+}
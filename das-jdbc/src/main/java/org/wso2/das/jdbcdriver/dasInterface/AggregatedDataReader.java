@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.dasInterface;
+
+import java.util.List;
+
+/**
+ * Reader of groups aggregated by the DAS backend, instead of records. The columns of the reader are the GROUP BY
+ * columns of the query. Each row has the values of the columns, followed by the partial aggregates of the aggregate
+ * functions of the query. The rows already satisfy the where clause of the query.
+ */
+public class AggregatedDataReader extends DataReader {
+
+    public AggregatedDataReader(String[] columnNames, String[] columnTypes, List<Object[]> rows) {
+        super(columnNames, columnTypes, rows);
+    }
+}
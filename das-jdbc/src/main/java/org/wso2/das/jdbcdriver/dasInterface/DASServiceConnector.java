@@ -19,30 +19,78 @@ package org.wso2.das.jdbcdriver.dasInterface;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
-import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 
 /**
- * Class which creates the Http Url Connection with the DAS instance.
+ * Class which creates the Http Url Connections with the DAS instance.
+ * One connector is owned by each DASJConnection. It keeps its own SSL context so that TLS sessions are resumed
+ * and keep-alive sockets are reused across requests, without changing the JVM wide SSL defaults.
  */
 public class DASServiceConnector {
+
     /**
-     * Sends HTTP GET request to DAS Backend rest API.
+     * Handler which decodes the body of a DAS response while it is received.
      *
-     * @param url  Connectio URL of the DAS API
-     * @param user User name for the DAS Service
-     * @param pass Password for the DAS service
-     * @throws Exception
+     * @param <T> Type of the decoded response
      */
-    public static String sendGet(String url, String user, String pass) throws Exception {
-        URL obj = new URL(url);
-        HttpURLConnection con = (HttpURLConnection) obj.openConnection();
+    public interface ResponseHandler<T> {
+        /**
+         * Decode the response body.
+         *
+         * @param response Reader of the response body
+         * @return Decoded response
+         * @throws IOException if the response cannot be read or decoded
+         */
+        T handleResponse(Reader response) throws IOException;
+    }
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final String authorization;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final Semaphore connectionPermits;
+    //Connections of the requests which are in progress, by the thread which sends the request
+    private final ConcurrentMap<Thread, HttpURLConnection> openConnections =
+            new ConcurrentHashMap<Thread, HttpURLConnection>();
+    private final SSLSocketFactory sslSocketFactory;
+    private final HostnameVerifier hostnameVerifier;
+
+    /**
+     * Creates a connector for the given DAS credentials.
+     *
+     * @param user           User name for the DAS Service
+     * @param pass           Password for the DAS service
+     * @param connectTimeout Connect timeout in milliseconds, 0 for no timeout
+     * @param readTimeout    Read timeout in milliseconds, 0 for no timeout
+     * @param maxConnections Maximum number of requests which can be open at the same time
+     * @throws GeneralSecurityException if the SSL context cannot be initialized
+     */
+    public DASServiceConnector(String user, String pass, int connectTimeout, int readTimeout, int maxConnections)
+            throws GeneralSecurityException {
+        String userPassword = user + ":" + pass;
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString(userPassword.getBytes(StandardCharsets.UTF_8));
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.connectionPermits = new Semaphore(maxConnections, true);
         /**
          *ignoring SSL certificates
          */
@@ -59,35 +107,176 @@ public class DASServiceConnector {
                     java.security.cert.X509Certificate[] certs, String authType) {
             }
         }};
-        HostnameVerifier allHostsValid = new HostnameVerifier() {
+        this.hostnameVerifier = new HostnameVerifier() {
             @Override
             public boolean verify(String arg0, SSLSession arg1) {
                 return true;
             }
         };
-
-        // Install the all-trusting trust manager
-        SSLContext sc = SSLContext.getInstance("SSL");
+        // The context is kept for the life time of the connector, so that its session cache can resume TLS sessions
+        // and the JDK keep-alive cache can hand back sockets created by the same socket factory.
+        SSLContext sc = SSLContext.getInstance("TLS");
         sc.init(null, trustAllCerts, new java.security.SecureRandom());
-        HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
-        HttpsURLConnection.setDefaultHostnameVerifier(allHostsValid);
+        this.sslSocketFactory = sc.getSocketFactory();
+    }
+
+    /**
+     * Sends HTTP GET request to DAS Backend rest API.
+     *
+     * @param url Connection URL of the DAS API
+     * @return Response body of the request
+     * @throws IOException if the request fails or DAS responds with an error
+     */
+    public String sendGet(String url) throws IOException {
+        acquirePermit();
+        HttpURLConnection con = null;
+        try {
+            con = openConnection(url);
+            con.setRequestMethod("GET");
+            return readResponse(con);
+        } finally {
+            releasePermit(con);
+        }
+    }
+
+    /**
+     * Sends HTTP GET request to DAS Backend rest API and decodes the response body as it is streamed from the
+     * connection, without buffering the whole body.
+     *
+     * @param url     Connection URL of the DAS API
+     * @param handler Handler which decodes the response body
+     * @return Decoded response
+     * @throws IOException if the request fails, DAS responds with an error or the response cannot be decoded
+     */
+    public <T> T sendGet(String url, ResponseHandler<T> handler) throws IOException {
+        acquirePermit();
+        HttpURLConnection con = null;
+        try {
+            con = openConnection(url);
+            con.setRequestMethod("GET");
+            try (Reader in = new InputStreamReader(getResponseStream(con), StandardCharsets.UTF_8)) {
+                return handler.handleResponse(in);
+            }
+        } finally {
+            releasePermit(con);
+        }
+    }
+
+    /**
+     * Sends HTTP POST request with a JSON body to DAS Backend rest API and decodes the response body as it is
+     * streamed from the connection.
+     *
+     * @param url     Connection URL of the DAS API
+     * @param body    JSON request body
+     * @param handler Handler which decodes the response body
+     * @return Decoded response
+     * @throws IOException if the request fails, DAS responds with an error or the response cannot be decoded
+     */
+    public <T> T sendPost(String url, String body, ResponseHandler<T> handler) throws IOException {
+        acquirePermit();
+        HttpURLConnection con = null;
+        try {
+            con = openConnection(url);
+            con.setRequestMethod("POST");
+            con.setDoOutput(true);
+            con.setRequestProperty("Content-Type", "application/json");
+            byte[] requestBody = body.getBytes(StandardCharsets.UTF_8);
+            con.setFixedLengthStreamingMode(requestBody.length);
+            try (OutputStream out = con.getOutputStream()) {
+                out.write(requestBody);
+            }
+            try (Reader in = new InputStreamReader(getResponseStream(con), StandardCharsets.UTF_8)) {
+                return handler.handleResponse(in);
+            }
+        } finally {
+            releasePermit(con);
+        }
+    }
 
-        // optional default is GET
-        con.setRequestMethod("GET");
+    /**
+     * Abort the request which the given thread is sending or receiving, by disconnecting its connection, so that
+     * the thread stops waiting on the network and fails with an IOException. Does nothing if the thread has no
+     * request in progress.
+     *
+     * @param thread Thread which sends the request
+     */
+    public void abortRequest(Thread thread) {
+        HttpURLConnection con = this.openConnections.get(thread);
+        if (con != null) {
+            con.disconnect();
+        }
+    }
 
+    /*
+     * Create a connection for the given url, configured with the settings of this connector.
+     */
+    private HttpURLConnection openConnection(String url) throws IOException {
+        HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
+        if (con instanceof HttpsURLConnection) {
+            HttpsURLConnection httpsCon = (HttpsURLConnection) con;
+            httpsCon.setSSLSocketFactory(this.sslSocketFactory);
+            httpsCon.setHostnameVerifier(this.hostnameVerifier);
+        }
+        con.setConnectTimeout(this.connectTimeout);
+        con.setReadTimeout(this.readTimeout);
+        con.setUseCaches(false);
         //add authorization header
-        String userPassword = user + ":" + pass;
-        String encoding = new sun.misc.BASE64Encoder().encode(userPassword.getBytes());
-        con.setRequestProperty("Authorization", "Basic " + encoding);
-        StringBuilder response = new StringBuilder();
+        con.setRequestProperty("Authorization", this.authorization);
+        con.setRequestProperty("Accept", "application/json");
+        this.openConnections.put(Thread.currentThread(), con);
+        return con;
+    }
+
+    /*
+     * Read the whole response body. The streams are always drained and closed (not disconnected) so that the
+     * underlying socket goes back to the keep-alive cache.
+     */
+    private String readResponse(HttpURLConnection con) throws IOException {
+        return readFully(getResponseStream(con));
+    }
+
+    /*
+     * Get the stream of a successful response, or fail with the error sent by DAS.
+     */
+    private InputStream getResponseStream(HttpURLConnection con) throws IOException {
+        int responseCode = con.getResponseCode();
+        if (responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+            InputStream errorStream = con.getErrorStream();
+            String errorBody = errorStream != null ? readFully(errorStream) : "";
+            throw new IOException("DAS request failed with HTTP " + responseCode + ": " + con.getURL() + " "
+                    + errorBody);
+        }
+        return con.getInputStream();
+    }
 
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream()))) {
-            String inputLine;
-            while ((inputLine = in.readLine()) != null) {
-                response.append(inputLine);
+    private static String readFully(InputStream inputStream) throws IOException {
+        StringBuilder response = new StringBuilder();
+        try (Reader in = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            char[] buffer = new char[READ_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                response.append(buffer, 0, read);
             }
         }
-        return (response.toString());
+        return response.toString();
     }
 
-}
\ No newline at end of file
+    /*
+     * Release the permit of a request of the current thread, once its connection is no longer used.
+     */
+    private void releasePermit(HttpURLConnection con) {
+        if (con != null) {
+            this.openConnections.remove(Thread.currentThread(), con);
+        }
+        this.connectionPermits.release();
+    }
+
+    private void acquirePermit() throws IOException {
+        try {
+            this.connectionPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a DAS connection", e);
+        }
+    }
+}
@@ -18,21 +18,27 @@
 package org.wso2.das.jdbcdriver.dasInterface;
 
 import org.wso2.das.jdbcdriver.common.ServiceConstants;
+import org.wso2.das.jdbcdriver.expressions.Expression;
 
 import java.sql.SQLException;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Helper class which supports the data reading operations.
  */
 public class DataReader {
 
+    //Estimated memory of the objects of a record
+    private static final int ARRAY_OVERHEAD = 16;
+    private static final int REFERENCE_SIZE = 4;
+    private static final int STRING_OVERHEAD = 40;
+    private static final int BOXED_VALUE_SIZE = 16;
+
     private String[] columnNames;
     private String[] columnTypes;
     private List<Object[]> columnValues;
+    private RecordLayout recordLayout;
     private int rowIndex;
 
     public DataReader() {
@@ -58,6 +64,23 @@ public class DataReader {
         this.columnValues = columnValues;
     }
 
+    /**
+     * Set the column names and types from the layout of the decoded DAS records.
+     */
+    public void setRecordLayout(RecordLayout recordLayout) {
+        this.recordLayout = recordLayout;
+        this.columnNames = recordLayout.getColumnNames();
+        this.columnTypes = recordLayout.getColumnTypes();
+    }
+
+    public RecordLayout getRecordLayout() {
+        return this.recordLayout;
+    }
+
+    public int getRowCount() {
+        return this.columnValues.size();
+    }
+
     public boolean next() throws SQLException {
         this.rowIndex++;
         return (this.rowIndex < this.columnValues.size());
@@ -71,17 +94,13 @@ public class DataReader {
     }
 
     /**
-     * Get the data of the current record.
+     * Get the values of the current record, in the order of the column names. Columns which are not decoded have
+     * null values.
      *
      * @throws SQLException
      */
-    public Map<String, Object> getEnvironment() throws SQLException {
-        HashMap<String, Object> retval = new HashMap<String, Object>();
-        Object[] o = this.columnValues.get(this.rowIndex);
-        for (int i = 0; i < this.columnNames.length; i++) {
-            retval.put(this.columnNames[i], o[i]);
-        }
-        return retval;
+    public Object[] getRow() throws SQLException {
+        return this.columnValues.get(this.rowIndex);
     }
 
     public String[] getColumnTypes() throws SQLException {
@@ -97,4 +116,32 @@ public class DataReader {
     public String getTableAlias() {
         return null;
     }
+
+    /**
+     * Filter the records by a where clause, which is resolved to the columns of the reader, if the reader can
+     * filter them before they are read. The filter has to be set once, before the records are read.
+     *
+     * @param rowFilter Where clause which the records have to satisfy
+     * @return true if the reader only returns the records which satisfy the where clause, or false if the records
+     * are not filtered by the reader
+     * @throws SQLException if the where clause cannot be evaluated on the records
+     */
+    public boolean setRowFilter(Expression rowFilter) throws SQLException {
+        return false;
+    }
+
+    /**
+     * Estimate the memory of a record and its values in bytes.
+     */
+    static long estimateSize(Object[] row) {
+        long size = ARRAY_OVERHEAD + (long) REFERENCE_SIZE * row.length;
+        for (Object value : row) {
+            if (value instanceof String) {
+                size += STRING_OVERHEAD + 2L * ((String) value).length();
+            } else if (value != null && !(value instanceof Boolean)) {
+                size += BOXED_VALUE_SIZE;
+            }
+        }
+        return size;
+    }
 }
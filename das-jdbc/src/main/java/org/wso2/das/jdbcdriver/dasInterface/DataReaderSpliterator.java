@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.dasInterface;
+
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the rows of a data reader, for streams of the rows. The rows are read from the reader only when
+ * the stream asks for them, so a paged reader fetches the pages as the stream consumes the rows.
+ * The reader is read by one thread at a time, but a parallel stream splits batches of rows off the reader, which are
+ * processed by the other threads of the stream while the next rows are read. The batches grow by a fixed number of
+ * rows on each split, up to a maximum.
+ * The errors of the reader are thrown as IllegalStateException, with the SQLException as the cause.
+ */
+public class DataReaderSpliterator implements Spliterator<Object[]> {
+
+    private static final int BATCH_INCREMENT = 1024;
+    private static final int MAX_BATCH_SIZE = 1 << 20;
+
+    private final DataReader reader;
+    private int batchSize;
+    private boolean exhausted;
+
+    /**
+     * Creates the spliterator, which reads the remaining rows of the reader.
+     *
+     * @param reader Reader of the rows
+     */
+    public DataReaderSpliterator(DataReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Object[]> action) {
+        Object[] row = nextRow();
+        if (row == null) {
+            return false;
+        }
+        action.accept(row);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Object[]> action) {
+        Object[] row;
+        while ((row = nextRow()) != null) {
+            action.accept(row);
+        }
+    }
+
+    @Override
+    public Spliterator<Object[]> trySplit() {
+        this.batchSize = Math.min(this.batchSize + BATCH_INCREMENT, MAX_BATCH_SIZE);
+        Object[][] batch = new Object[this.batchSize][];
+        int count = 0;
+        Object[] row;
+        while (count < batch.length && (row = nextRow()) != null) {
+            batch[count++] = row;
+        }
+        if (count == 0) {
+            return null;
+        }
+        return Spliterators.spliterator(batch, 0, count, ORDERED | NONNULL);
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.exhausted ? 0 : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /*
+     * Read the next row of the reader, or return null after the last row.
+     */
+    private Object[] nextRow() {
+        if (this.exhausted) {
+            return null;
+        }
+        try {
+            if (this.reader.next()) {
+                return this.reader.getRow();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error in reading the rows: " + e.getMessage(), e);
+        }
+        this.exhausted = true;
+        return null;
+    }
+}
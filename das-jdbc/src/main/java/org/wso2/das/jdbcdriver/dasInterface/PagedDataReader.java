@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.dasInterface;
+
+import org.wso2.das.jdbcdriver.expressions.Expression;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Data reader which scans a DAS table page by page. The pages are ranges of records, which are fetched and decoded
+ * by the threads of an executor ahead of the page which is read, so that the reader does not wait on the network
+ * between the pages.
+ * A scan can request many pages at the same time, and the pages are read in the order of the scan, or in the order
+ * in which they are received if the order of the records does not matter. Each received page requests the following
+ * pages, until the number of pages ahead of the reader reaches the parallelism of the scan, or the estimated memory
+ * of the received pages reaches the prefetch memory, whichever allows more pages. When the reader is slower than the
+ * network, the pages stop being requested until the received pages are read.
+ */
+public class PagedDataReader extends DataReader {
+
+    /**
+     * Source of the pages of a table scan.
+     */
+    public interface PageSource {
+        /**
+         * Fetch and decode the records in the given range of the scan.
+         *
+         * @param start  Index of the first record
+         * @param count  Maximum number of records to fetch
+         * @param layout Layout of the rows found in the previous pages, or null for the first page
+         * @return Reader of the decoded records
+         */
+        DataReader fetchPage(int start, int count, RecordLayout layout) throws SQLException;
+
+        /**
+         * Abort the page which the given thread is fetching, when the scan is closed, so that the thread does not
+         * keep waiting on the network for a page which is not read.
+         *
+         * @param thread Thread which runs fetchPage
+         */
+        void abortFetch(Thread thread);
+    }
+
+    /**
+     * Receives all the records of a filtered scan, including the records which do not satisfy the filter.
+     */
+    interface RecordListener {
+        /**
+         * Called with the records of each page before the filtered records of the page are read, in the order in
+         * which the pages are read.
+         *
+         * @param records Records of the page
+         */
+        void recordsRead(List<Object[]> records) throws SQLException;
+    }
+
+    private static final String[] NO_COLUMNS = new String[0];
+
+    private final PageSource pageSource;
+    private final int pageSize;
+    private final int maxRecords;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final boolean ordered;
+    private final long prefetchMemory;
+    private volatile Expression rowFilter;
+    private RecordListener recordListener;
+    private DataReader currentPage;
+    //Pages which are requested and not read yet, in the order of the scan. The state of the scan is shared with the
+    //threads which fetch the pages, and is guarded by this queue.
+    private final Deque<PendingPage> pendingPages = new ArrayDeque<PendingPage>();
+    private RecordLayout layout;
+    private boolean firstPageReceived;
+    private int nextStart;
+    private boolean lastPageRequested;
+    private int requestsInFlight;
+    private long receivedMemory;
+    private boolean closed;
+
+    /**
+     * Creates the reader and loads the first page, so that the columns of the scan are known.
+     *
+     * @param pageSource Source of the pages
+     * @param pageSize   Number of records requested in each page
+     * @param executor   Executor which runs the page requests
+     */
+    public PagedDataReader(PageSource pageSource, int pageSize, ExecutorService executor) throws SQLException {
+        this(pageSource, pageSize, -1, executor);
+    }
+
+    /**
+     * Creates the reader which stops the scan after the given number of records, and loads the first page.
+     *
+     * @param pageSource Source of the pages
+     * @param pageSize   Number of records requested in each page
+     * @param maxRecords Maximum number of records read by the scan, or -1 to read all the records
+     * @param executor   Executor which runs the page requests
+     */
+    public PagedDataReader(PageSource pageSource, int pageSize, int maxRecords, ExecutorService executor)
+            throws SQLException {
+        this(pageSource, pageSize, maxRecords, executor, 1, true, 0);
+    }
+
+    /**
+     * Creates the reader which requests many pages at the same time, and loads the first page. The following pages
+     * are requested with the layout of the first page.
+     *
+     * @param pageSource     Source of the pages
+     * @param pageSize       Number of records requested in each page
+     * @param maxRecords     Maximum number of records read by the scan, or -1 to read all the records
+     * @param executor       Executor which runs the page requests
+     * @param parallelism    Maximum number of pages requested at the same time
+     * @param ordered        Whether the pages are read in the order of the scan, or in the order they are received
+     * @param prefetchMemory Estimated memory in bytes of the received pages, up to which more pages are requested
+     *                       ahead of the reader
+     */
+    public PagedDataReader(PageSource pageSource, int pageSize, int maxRecords, ExecutorService executor,
+            int parallelism, boolean ordered, long prefetchMemory) throws SQLException {
+        this.pageSource = pageSource;
+        this.pageSize = pageSize;
+        this.maxRecords = maxRecords;
+        this.executor = executor;
+        this.parallelism = Math.max(parallelism, 1);
+        this.ordered = ordered;
+        this.prefetchMemory = prefetchMemory;
+        setColumnNames(NO_COLUMNS);
+        setColumnTypes(NO_COLUMNS);
+        synchronized (this.pendingPages) {
+            requestPages();
+        }
+        loadNextPage();
+    }
+
+    /**
+     * Filter the records of the scan by a where clause, which is resolved to the columns of the scan. The pages
+     * received from now on are filtered by the threads which fetch them, and the pages already received are
+     * filtered when they are read. The filter has to be set once, before the records are read.
+     *
+     * @param rowFilter Where clause which the records have to satisfy
+     * @return true, as the records of the scan are filtered
+     * @throws SQLException if the where clause cannot be evaluated on the first page
+     */
+    @Override
+    public boolean setRowFilter(Expression rowFilter) throws SQLException {
+        setRowFilter(rowFilter, null);
+        return true;
+    }
+
+    /**
+     * Filter the records of the scan by a where clause, and pass all the records of the scan to the given listener
+     * as the pages are read.
+     *
+     * @param rowFilter      Where clause which the records have to satisfy
+     * @param recordListener Listener of all the records of the scan, or null
+     * @throws SQLException if the where clause cannot be evaluated on the first page
+     */
+    void setRowFilter(Expression rowFilter, RecordListener recordListener) throws SQLException {
+        this.rowFilter = rowFilter;
+        this.recordListener = recordListener;
+        if (this.currentPage != null) {
+            List<Object[]> records = readRecords(this.currentPage);
+            if (recordListener != null) {
+                recordListener.recordsRead(records);
+            }
+            this.currentPage = createPage(this.currentPage, filterRecords(records, rowFilter));
+        }
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        while (this.currentPage != null) {
+            if (this.currentPage.next()) {
+                return true;
+            }
+            if (!loadNextPage()) {
+                this.currentPage = null;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object[] getRow() throws SQLException {
+        return this.currentPage.getRow();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        synchronized (this.pendingPages) {
+            this.closed = true;
+            //A blocking read of the network is not interrupted, so the pages which are being fetched are aborted
+            for (PendingPage pendingPage : this.pendingPages) {
+                if (pendingPage.request != null) {
+                    pendingPage.request.cancel(true);
+                }
+                if (pendingPage.worker != null) {
+                    this.pageSource.abortFetch(pendingPage.worker);
+                }
+            }
+            this.pendingPages.clear();
+        }
+        this.currentPage = null;
+    }
+
+    /*
+     * Wait for the next page, and request the pages which are allowed by the memory released by the page. A page
+     * shorter than the requested count is the last page of the scan, so no more pages are requested after it.
+     */
+    private boolean loadNextPage() throws SQLException {
+        PendingPage page;
+        synchronized (this.pendingPages) {
+            page = awaitPage();
+            if (page == null) {
+                return false;
+            }
+            this.receivedMemory -= page.memory;
+            requestPages();
+        }
+        if (page.error != null) {
+            throw page.error;
+        }
+        if (getRecordLayout() == null && page.reader.getRecordLayout() != null) {
+            setRecordLayout(page.reader.getRecordLayout());
+        }
+        if (this.recordListener != null) {
+            this.recordListener.recordsRead(page.records);
+        }
+        Expression filter = this.rowFilter;
+        if (page.filtered || filter == null) {
+            this.currentPage = page.reader;
+        } else {
+            this.currentPage = createPage(page.reader, filterRecords(page.records, filter));
+        }
+        return true;
+    }
+
+    /*
+     * Wait for the first pending page to be received, or for any pending page if the order of the pages does not
+     * matter. Returns null if no page is pending. The caller holds the lock of the pending pages.
+     */
+    private PendingPage awaitPage() throws SQLException {
+        while (!this.pendingPages.isEmpty()) {
+            for (PendingPage pendingPage : this.pendingPages) {
+                if (pendingPage.received) {
+                    this.pendingPages.remove(pendingPage);
+                    return pendingPage;
+                } else if (this.ordered) {
+                    break;
+                }
+            }
+            try {
+                this.pendingPages.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while reading the table data", e);
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Request the pages which are allowed by the parallelism and the prefetch memory. The pages after the first
+     * page are only requested when the first page is received, with its layout. The caller holds the lock of the
+     * pending pages.
+     */
+    private void requestPages() {
+        while (!this.closed && !this.lastPageRequested && (this.maxRecords < 0 || this.nextStart < this.maxRecords)
+                && (this.nextStart == 0 || this.firstPageReceived) && this.requestsInFlight < this.parallelism
+                && (this.pendingPages.size() < this.parallelism || this.receivedMemory < this.prefetchMemory)) {
+            final int start = this.nextStart;
+            final int count = this.maxRecords >= 0 ? Math.min(this.pageSize, this.maxRecords - start) : this.pageSize;
+            final RecordLayout pageLayout = this.layout;
+            final PendingPage pendingPage = new PendingPage(count);
+            this.pendingPages.add(pendingPage);
+            this.requestsInFlight++;
+            this.nextStart = start + count;
+            pendingPage.request = this.executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    fetchPage(pendingPage, start, pageLayout);
+                }
+            });
+        }
+    }
+
+    /*
+     * Fetch, decode and filter a page on a thread of the executor, and request the following pages.
+     */
+    private void fetchPage(PendingPage pendingPage, int start, RecordLayout pageLayout) {
+        DataReader page = null;
+        List<Object[]> records = null;
+        SQLException error = null;
+        int recordCount = 0;
+        long memory = 0;
+        Expression filter = this.rowFilter;
+        synchronized (this.pendingPages) {
+            if (this.closed) {
+                return;
+            }
+            pendingPage.worker = Thread.currentThread();
+        }
+        try {
+            DataReader reader = this.pageSource.fetchPage(start, pendingPage.count, pageLayout);
+            recordCount = reader.getRowCount();
+            records = readRecords(reader);
+            List<Object[]> rows = filterRecords(records, filter);
+            if (this.prefetchMemory > 0) {
+                for (Object[] row : rows) {
+                    memory += estimateSize(row);
+                }
+            }
+            page = createPage(reader, rows);
+        } catch (SQLException e) {
+            error = e;
+        } catch (RuntimeException e) {
+            error = new SQLException("Error in Get Table Data:", e);
+        }
+        synchronized (this.pendingPages) {
+            pendingPage.worker = null;
+            pendingPage.reader = page;
+            pendingPage.records = records;
+            pendingPage.error = error;
+            pendingPage.filtered = filter != null;
+            pendingPage.memory = memory;
+            pendingPage.received = true;
+            this.requestsInFlight--;
+            this.receivedMemory += memory;
+            if (error != null || recordCount < pendingPage.count) {
+                this.lastPageRequested = true;
+            } else if (!this.firstPageReceived) {
+                this.layout = page.getRecordLayout();
+            }
+            this.firstPageReceived = true;
+            this.pendingPages.notifyAll();
+            requestPages();
+        }
+    }
+
+    /*
+     * Get all the records of a page.
+     */
+    private static List<Object[]> readRecords(DataReader reader) throws SQLException {
+        List<Object[]> records = new ArrayList<Object[]>();
+        while (reader.next()) {
+            records.add(reader.getRow());
+        }
+        return records;
+    }
+
+    /*
+     * Get the records which satisfy the where clause, or all the records if the where clause is null.
+     */
+    private static List<Object[]> filterRecords(List<Object[]> records, Expression filter) throws SQLException {
+        if (filter == null) {
+            return records;
+        }
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (Object[] row : records) {
+            if (Boolean.TRUE.equals(filter.isTrue(row))) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static DataReader createPage(DataReader reader, List<Object[]> rows) throws SQLException {
+        DataReader page = new DataReader(reader.getColumnNames(), reader.getColumnTypes(), rows);
+        if (reader.getRecordLayout() != null) {
+            page.setRecordLayout(reader.getRecordLayout());
+        }
+        return page;
+    }
+
+    /*
+     * Page which is requested and not read yet.
+     */
+    private static class PendingPage {
+        private final int count;
+        private Future<?> request;
+        private Thread worker;
+        private boolean received;
+        private DataReader reader;
+        private List<Object[]> records;
+        private SQLException error;
+        private boolean filtered;
+        private long memory;
+
+        private PendingPage(int count) {
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.dasInterface;
+
+import org.wso2.das.jdbcdriver.common.ServiceConstants;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Describes how the "values" object of a DAS record is laid out as a row of the result.
+ * The record timestamp is always stored after the record values.
+ */
+public class RecordLayout {
+
+    private String[] recordKeys;
+    private String[] columnNames;
+    private String[] columnTypes;
+    private Map<String, Integer> keyIndexes;
+
+    private RecordLayout(String[] recordKeys, String[] columnNames, String[] columnTypes) {
+        this.recordKeys = recordKeys;
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.keyIndexes = new HashMap<String, Integer>();
+        for (int i = 0; i < recordKeys.length; i++) {
+            this.keyIndexes.put(recordKeys[i], i);
+        }
+    }
+
+    /**
+     * Create the layout from the keys of a DAS record.
+     *
+     * @param recordKeys   Keys of the "values" object of the record in the order of the columns
+     * @param colDataTypes Data types of the each column
+     */
+    public static RecordLayout fromRecordKeys(Collection<String> recordKeys, Map<String, String> colDataTypes) {
+        int keyCount = recordKeys.size();
+        String[] keys = new String[keyCount];
+        String[] names = new String[keyCount + 1];//ONE is added to store the timestamp
+        String[] types = new String[keyCount + 1];
+        int i = 0;
+        for (String sKey : recordKeys) {
+            keys[i] = sKey;
+            sKey = getFieldName(sKey);
+            names[i] = sKey.toUpperCase();
+            types[i] = getColumnType(sKey, colDataTypes);
+            i++;
+        }
+        names[keyCount] = ServiceConstants.DAS_RESPONSE_DATA.ROW_TIMESTAMP.toUpperCase();
+        types[keyCount] = ServiceConstants.DATATYPES.DATATYPE_LONG;
+        return new RecordLayout(keys, names, types);
+    }
+
+    /**
+     * Get the name of the column which holds the value of the given record key.
+     */
+    public static String getColumnName(String recordKey) {
+        return getFieldName(recordKey).toUpperCase();
+    }
+
+    private static String getFieldName(String recordKey) {
+        if (recordKey.startsWith(ServiceConstants.DAS_CONSTANTS.UNDERSCORE)) {
+            return recordKey.substring(1);
+        }
+        return recordKey;
+    }
+
+    /*
+     * The data type of the Column "_version" is not present in the schema query.
+     */
+    private static String getColumnType(String columnName, Map<String, String> colDataTypes) {
+        if (ServiceConstants.DAS_RESPONSE_DATA.ROW_VERSION.equals(columnName)) {
+            return ServiceConstants.DATATYPES.DATATYPE_STRING;
+        }
+        return colDataTypes.get(columnName);
+    }
+
+    /**
+     * Get the position of the given record key in the row, or -1 if the key is not part of the layout.
+     */
+    public int indexOf(String recordKey) {
+        Integer index = this.keyIndexes.get(recordKey);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Keys of the "values" object of the record in the order of the columns.
+     */
+    public String[] getRecordKeys() {
+        return this.recordKeys;
+    }
+
+    public int getTimestampIndex() {
+        return this.recordKeys.length;
+    }
+
+    public int getColumnCount() {
+        return this.columnNames.length;
+    }
+
+    public String[] getColumnNames() {
+        return this.columnNames;
+    }
+
+    public String[] getColumnTypes() {
+        return this.columnTypes;
+    }
+}
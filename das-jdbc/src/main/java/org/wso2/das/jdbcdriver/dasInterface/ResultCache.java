@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.dasInterface;
+
+import org.wso2.das.jdbcdriver.common.CacheStatistics;
+import org.wso2.das.jdbcdriver.expressions.Expression;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache of the records retrieved from the DAS backend, bounded by the estimated memory of the records.
+ * The records of a query are cached once the query has read all of them. A cached result is used without any
+ * request until its time to live expires. Then it is used again only if the validator finds that the table has no
+ * records newer than the newest record at the time the result was retrieved.
+ * When the cache is full, the least recently used results are evicted.
+ */
+public class ResultCache {
+
+    /**
+     * Checks whether a cached result of a table is still valid.
+     */
+    public interface Validator {
+        /**
+         * Check whether the given table has no records newer than the given timestamp.
+         *
+         * @param tableName       Name of the table
+         * @param newestTimestamp Timestamp of the newest record of the table when the result was retrieved
+         */
+        boolean isValid(String tableName, long newestTimestamp) throws SQLException;
+    }
+
+    //A result larger than this fraction of the cache memory is not cached
+    private static final int MAX_RESULT_FRACTION = 4;
+
+    private static Logger logger = Logger.getLogger(ResultCache.class.getName());
+
+    private final long maxMemory;
+    private final long timeToLiveNanos;
+    private final LinkedHashMap<String, CachedResult> results;
+    private long usedMemory;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Creates the cache.
+     *
+     * @param maxMemory        Maximum estimated memory of the cached records in bytes
+     * @param timeToLiveMillis Time in milliseconds a result is used without validating it
+     */
+    public ResultCache(long maxMemory, long timeToLiveMillis) {
+        this.maxMemory = maxMemory;
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.results = new LinkedHashMap<String, CachedResult>(16, 0.75f, true);
+    }
+
+    /**
+     * Get a reader of the cached result of the given key.
+     *
+     * @param key       Key of the query which retrieved the records
+     * @param validator Validator of the results which are older than the time to live, or null to evict such
+     *                  results without validating them
+     * @return Reader of the cached records, or null if no valid result is cached
+     */
+    public DataReader get(String key, Validator validator) {
+        CachedResult result;
+        synchronized (this) {
+            result = this.results.get(key);
+            if (result == null) {
+                this.missCount++;
+                return null;
+            }
+            if (System.nanoTime() - result.validatedTime < this.timeToLiveNanos) {
+                this.hitCount++;
+                return result.createReader();
+            }
+        }
+        boolean valid = false;
+        if (validator != null) {
+            try {
+                valid = validator.isValid(result.tableName, result.newestTimestamp);
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Error in validating the cached result of " + result.tableName, e);
+            }
+        }
+        synchronized (this) {
+            if (valid) {
+                result.validatedTime = System.nanoTime();
+                this.hitCount++;
+                return result.createReader();
+            }
+            if (this.results.get(key) == result) {
+                remove(key);
+                this.evictionCount++;
+            }
+            this.missCount++;
+            return null;
+        }
+    }
+
+    /**
+     * Wrap the reader of a query, so that the records are cached when the query has read all of them. The records
+     * are not cached if the reader is closed before, or if they do not fit in the cache.
+     *
+     * @param key             Key of the query
+     * @param tableName       Name of the table of the query
+     * @param newestTimestamp Timestamp of the newest record of the table before the records are retrieved
+     * @param reader          Reader of the records of the query
+     */
+    public DataReader cacheResult(String key, String tableName, long newestTimestamp, DataReader reader) {
+        return new CachingDataReader(key, tableName, newestTimestamp, reader);
+    }
+
+    /**
+     * Remove all the cached results.
+     */
+    public synchronized void clear() {
+        this.results.clear();
+        this.usedMemory = 0;
+    }
+
+    /**
+     * Estimated memory of the cached records in bytes.
+     */
+    public synchronized long getUsedMemory() {
+        return this.usedMemory;
+    }
+
+    /**
+     * Get a snapshot of the usage counters of the cache.
+     */
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(this.hitCount, this.missCount, this.evictionCount, this.results.size());
+    }
+
+    private synchronized void put(String key, CachedResult result) {
+        CachedResult previous = this.results.put(key, result);
+        if (previous != null) {
+            this.usedMemory -= previous.size;
+        }
+        this.usedMemory += result.size;
+        Iterator<CachedResult> iterator = this.results.values().iterator();
+        while (this.usedMemory > this.maxMemory && iterator.hasNext()) {
+            CachedResult eldest = iterator.next();
+            iterator.remove();
+            this.usedMemory -= eldest.size;
+            this.evictionCount++;
+        }
+    }
+
+    private void remove(String key) {
+        CachedResult result = this.results.remove(key);
+        if (result != null) {
+            this.usedMemory -= result.size;
+        }
+    }
+
+    /*
+     * Records of a query. The records are only read after they are cached.
+     */
+    private static class CachedResult {
+        private final String tableName;
+        private final long newestTimestamp;
+        private final String[] columnNames;
+        private final String[] columnTypes;
+        private final RecordLayout layout;
+        private final List<Object[]> records;
+        private final long size;
+        private long validatedTime;
+
+        private CachedResult(String tableName, long newestTimestamp, String[] columnNames, String[] columnTypes,
+                RecordLayout layout, List<Object[]> records, long size) {
+            this.tableName = tableName;
+            this.newestTimestamp = newestTimestamp;
+            this.columnNames = columnNames;
+            this.columnTypes = columnTypes;
+            this.layout = layout;
+            this.records = records;
+            this.size = size;
+            this.validatedTime = System.nanoTime();
+        }
+
+        private DataReader createReader() {
+            DataReader reader = new DataReader(this.columnNames, this.columnTypes, this.records);
+            if (this.layout != null) {
+                reader.setRecordLayout(this.layout);
+            }
+            return reader;
+        }
+    }
+
+    /*
+     * Reader which keeps the records read from another reader, and caches them when all the records are read.
+     */
+    private class CachingDataReader extends DataReader {
+        private final String key;
+        private final String tableName;
+        private final long newestTimestamp;
+        private final DataReader reader;
+        private List<Object[]> records = new ArrayList<Object[]>();
+        private long size;
+        private boolean filtered;
+
+        private CachingDataReader(String key, String tableName, long newestTimestamp, DataReader reader) {
+            this.key = key;
+            this.tableName = tableName;
+            this.newestTimestamp = newestTimestamp;
+            this.reader = reader;
+        }
+
+        /*
+         * The filter of a paged scan is passed to the scan, which passes all the records back to be cached, as the
+         * cached result is shared by all the queries of the plan whatever their where clauses.
+         */
+        @Override
+        public boolean setRowFilter(Expression rowFilter) throws SQLException {
+            if (!(this.reader instanceof PagedDataReader)) {
+                return false;
+            }
+            ((PagedDataReader) this.reader).setRowFilter(rowFilter, new PagedDataReader.RecordListener() {
+                @Override
+                public void recordsRead(List<Object[]> records) {
+                    for (Object[] row : records) {
+                        addRecord(row);
+                    }
+                }
+            });
+            this.filtered = true;
+            return true;
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            boolean hasNext = this.reader.next();
+            if (this.records != null) {
+                if (!hasNext) {
+                    put(this.key, new CachedResult(this.tableName, this.newestTimestamp, getColumnNames(),
+                            getColumnTypes(), getRecordLayout(), this.records, this.size));
+                    this.records = null;
+                } else if (!this.filtered) {
+                    addRecord(this.reader.getRow());
+                }
+            }
+            return hasNext;
+        }
+
+        private void addRecord(Object[] row) {
+            if (this.records == null) {
+                return;
+            }
+            this.size += DataReader.estimateSize(row);
+            if (this.size > maxMemory / MAX_RESULT_FRACTION) {
+                this.records = null;
+            } else {
+                this.records.add(row);
+            }
+        }
+
+        @Override
+        public Object[] getRow() throws SQLException {
+            return this.reader.getRow();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            this.records = null;
+            this.reader.close();
+        }
+
+        @Override
+        public String[] getColumnNames() throws SQLException {
+            return this.reader.getColumnNames();
+        }
+
+        @Override
+        public String[] getColumnTypes() throws SQLException {
+            return this.reader.getColumnTypes();
+        }
+
+        @Override
+        public int[] getColumnSizes() throws SQLException {
+            return this.reader.getColumnSizes();
+        }
+
+        @Override
+        public RecordLayout getRecordLayout() {
+            return this.reader.getRecordLayout();
+        }
+    }
+}
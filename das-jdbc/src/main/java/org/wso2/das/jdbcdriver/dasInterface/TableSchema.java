@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.dasInterface;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schema of a DAS table, as returned by the schema query of the DAS REST API.
+ */
+public class TableSchema {
+
+    private Map<String, String> columnDataTypes;
+    private List<String> primaryKeys;
+    private List<String> indexes;
+    private List<String> facets;
+
+    /**
+     * Creates the schema.
+     *
+     * @param columnDataTypes Map of column name - data type, in the order of the columns
+     * @param primaryKeys     Names of the primary key columns
+     * @param indexes         Names of the indexed columns
+     */
+    public TableSchema(Map<String, String> columnDataTypes, List<String> primaryKeys, List<String> indexes) {
+        this(columnDataTypes, primaryKeys, indexes, Collections.<String>emptyList());
+    }
+
+    /**
+     * Creates the schema.
+     *
+     * @param columnDataTypes Map of column name - data type, in the order of the columns
+     * @param primaryKeys     Names of the primary key columns
+     * @param indexes         Names of the indexed columns
+     * @param facets          Names of the facet columns, of which the DAS backend counts the records by value
+     */
+    public TableSchema(Map<String, String> columnDataTypes, List<String> primaryKeys, List<String> indexes,
+            List<String> facets) {
+        this.columnDataTypes = Collections.unmodifiableMap(new LinkedHashMap<String, String>(columnDataTypes));
+        this.primaryKeys = Collections.unmodifiableList(primaryKeys);
+        this.indexes = Collections.unmodifiableList(indexes);
+        this.facets = Collections.unmodifiableList(facets);
+    }
+
+    /**
+     * Get the data types of the columns in the order of the columns. The returned map can not be modified.
+     */
+    public Map<String, String> getColumnDataTypes() {
+        return this.columnDataTypes;
+    }
+
+    public List<String> getPrimaryKeys() {
+        return this.primaryKeys;
+    }
+
+    public List<String> getIndexes() {
+        return this.indexes;
+    }
+
+    public List<String> getFacets() {
+        return this.facets;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.dasInterface;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Local copy of the records of an append-only DAS table. Each sync retrieves only the records from the timestamp of
+ * the newest record of the previous sync, and merges them into the snapshot.
+ * The records at the newest timestamp are retrieved again on the next sync, as more records of the same timestamp
+ * may be added later. Records added with a timestamp older than the newest record of the previous sync are not
+ * found, so the records of the table have to be added in the order of the timestamps.
+ */
+public class TableSnapshot {
+
+    /**
+     * Source of the records of the table.
+     */
+    public interface RecordSource {
+        /**
+         * Retrieve all the columns of the records from the given timestamp.
+         *
+         * @param timeFrom Start of the record timestamp range, inclusive
+         * @param layout   Layout of the rows of the snapshot, or null if the snapshot has no rows yet
+         * @return Reader of the decoded records
+         */
+        DataReader fetchRecords(long timeFrom, RecordLayout layout) throws SQLException;
+    }
+
+    //The chunks of the snapshot are merged when there are more chunks than this
+    private static final int MAX_CHUNKS = 64;
+
+    private static final Object[][] NO_RECORDS = new Object[0][];
+
+    private final String tableName;
+    private RecordLayout layout;
+    private List<Object[][]> chunks = Collections.emptyList();
+    private Object[][] tail = NO_RECORDS;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private int recordCount;
+
+    public TableSnapshot(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getTableName() {
+        return this.tableName;
+    }
+
+    /**
+     * Number of records in the snapshot.
+     */
+    public synchronized int getRecordCount() {
+        return this.recordCount;
+    }
+
+    /**
+     * Timestamp of the newest record in the snapshot, or Long.MIN_VALUE if the snapshot has no records.
+     */
+    public synchronized long getLastTimestamp() {
+        return this.lastTimestamp;
+    }
+
+    /**
+     * Retrieve the records added since the previous sync and get a reader of all the records. Records merged by
+     * later syncs are not visible to the reader.
+     *
+     * @param source Source of the records of the table
+     * @return Reader of the records of the snapshot
+     * @throws SQLException if the records cannot be retrieved
+     */
+    public synchronized DataReader sync(RecordSource source) throws SQLException {
+        DataReader delta = source.fetchRecords(this.lastTimestamp, this.layout);
+        if (this.layout == null) {
+            this.layout = delta.getRecordLayout();
+        }
+        List<Object[]> records = new ArrayList<Object[]>();
+        long newestTimestamp = this.lastTimestamp;
+        if (this.layout != null) {
+            int timestampIndex = this.layout.getTimestampIndex();
+            while (delta.next()) {
+                Object[] row = delta.getRow();
+                records.add(row);
+                newestTimestamp = Math.max(newestTimestamp, (Long) row[timestampIndex]);
+            }
+            merge(records, newestTimestamp, timestampIndex);
+        }
+        return createReader();
+    }
+
+    /*
+     * Merge the records retrieved from the timestamp of the previous sync. They replace the records at that
+     * timestamp, and the records at the new newest timestamp become the tail of the snapshot.
+     */
+    private void merge(List<Object[]> records, long newestTimestamp, int timestampIndex) {
+        List<Object[]> body = new ArrayList<Object[]>();
+        List<Object[]> newTail = new ArrayList<Object[]>();
+        for (Object[] row : records) {
+            if ((Long) row[timestampIndex] < newestTimestamp) {
+                body.add(row);
+            } else {
+                newTail.add(row);
+            }
+        }
+        //The chunks are replaced instead of modified, so that the readers of the previous syncs are not affected
+        List<Object[][]> newChunks = new ArrayList<Object[][]>(this.chunks);
+        if (!body.isEmpty()) {
+            newChunks.add(body.toArray(new Object[body.size()][]));
+        }
+        if (newChunks.size() > MAX_CHUNKS) {
+            newChunks = Collections.singletonList(concat(newChunks));
+        }
+        int bodyCount = this.recordCount - this.tail.length + body.size();
+        this.chunks = newChunks;
+        this.tail = newTail.toArray(new Object[newTail.size()][]);
+        this.recordCount = bodyCount + this.tail.length;
+        this.lastTimestamp = newestTimestamp;
+    }
+
+    private static Object[][] concat(List<Object[][]> chunks) {
+        int size = 0;
+        for (Object[][] chunk : chunks) {
+            size += chunk.length;
+        }
+        Object[][] records = new Object[size][];
+        int position = 0;
+        for (Object[][] chunk : chunks) {
+            System.arraycopy(chunk, 0, records, position, chunk.length);
+            position += chunk.length;
+        }
+        return records;
+    }
+
+    private DataReader createReader() {
+        List<Object[][]> readerChunks = new ArrayList<Object[][]>(this.chunks);
+        readerChunks.add(this.tail);
+        SnapshotReader reader = new SnapshotReader(readerChunks, this.recordCount);
+        if (this.layout != null) {
+            reader.setRecordLayout(this.layout);
+        } else {
+            reader.setColumnNames(new String[0]);
+            reader.setColumnTypes(new String[0]);
+        }
+        return reader;
+    }
+
+    /*
+     * Reader of the chunks of the snapshot at the time of a sync.
+     */
+    private static class SnapshotReader extends DataReader {
+        private final List<Object[][]> chunks;
+        private final int recordCount;
+        private int chunkIndex;
+        private int rowIndex = -1;
+
+        private SnapshotReader(List<Object[][]> chunks, int recordCount) {
+            this.chunks = chunks;
+            this.recordCount = recordCount;
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            this.rowIndex++;
+            while (this.chunkIndex < this.chunks.size()) {
+                if (this.rowIndex < this.chunks.get(this.chunkIndex).length) {
+                    return true;
+                }
+                this.chunkIndex++;
+                this.rowIndex = 0;
+            }
+            return false;
+        }
+
+        @Override
+        public Object[] getRow() throws SQLException {
+            return this.chunks.get(this.chunkIndex)[this.rowIndex];
+        }
+
+        @Override
+        public int getRowCount() {
+            return this.recordCount;
+        }
+    }
+}
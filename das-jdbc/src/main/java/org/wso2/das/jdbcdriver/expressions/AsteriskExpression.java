@@ -37,7 +37,7 @@ public class AsteriskExpression extends Expression {
         return this.expression;
     }
 
-    public Object eval(Map<String, Object> env) {
+    public Object eval(Object[] row) {
         return this.expression;
     }
 }
@@ -28,13 +28,36 @@ import java.util.Set;
 public class ColumnName extends Expression {
 
     private String columnName;
+    private int columnIndex = -1;
+    private String columnType;
 
     public ColumnName(String columnName) {
         this.columnName = columnName.toUpperCase();
     }
 
-    public Object eval(Map<String, Object> env) {
-        return env.get(this.columnName);
+    public Object eval(Object[] row) {
+        return this.columnIndex >= 0 ? row[this.columnIndex] : null;
+    }
+
+    public void resolveColumns(Map<String, Integer> columnIndexes, String[] columnTypes) {
+        Integer index = columnIndexes.get(this.columnName);
+        if (index == null && this.columnName.indexOf('.') >= 0) {
+            //Column name qualified by the table name
+            index = columnIndexes.get(this.columnName.substring(this.columnName.lastIndexOf('.') + 1));
+        }
+        this.columnIndex = index != null ? index : -1;
+        this.columnType = index != null && index < columnTypes.length ? columnTypes[index] : null;
+    }
+
+    /**
+     * Get the DAS data type of the column, or null if the column is not resolved.
+     */
+    public String getColumnType() {
+        return this.columnType;
+    }
+
+    public String getColumnName() {
+        return this.columnName;
     }
 
     public String toString() {
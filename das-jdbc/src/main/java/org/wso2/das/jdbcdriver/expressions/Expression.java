@@ -27,7 +27,7 @@ import java.util.Set;
  */
 public abstract class Expression {
 
-    public Object eval(Map<String, Object> env) {
+    public Object eval(Object[] row) {
         return null;
     }
 
@@ -35,7 +35,16 @@ public abstract class Expression {
         return new LinkedList<String>();
     }
 
-    public Boolean isTrue(Map<String, Object> env) {
+    public Boolean isTrue(Object[] row) {
         return Boolean.FALSE;
     }
+
+    /**
+     * Resolve the columns used by the expression to their positions in the rows, before the rows are evaluated.
+     *
+     * @param columnIndexes Positions of the columns in the rows, by the upper case column name
+     * @param columnTypes   DAS data types of the columns, by the position in the rows
+     */
+    public void resolveColumns(Map<String, Integer> columnIndexes, String[] columnTypes) {
+    }
 }
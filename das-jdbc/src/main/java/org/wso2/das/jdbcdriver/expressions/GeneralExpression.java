@@ -34,8 +34,12 @@ public class GeneralExpression extends Expression {
         this.expression = exp;
     }
 
-    public Object eval(Map<String, Object> env) {
-        return this.expression.eval(env);
+    public Object eval(Object[] row) {
+        return this.expression.eval(row);
+    }
+
+    public void resolveColumns(Map<String, Integer> columnIndexes, String[] columnTypes) {
+        this.expression.resolveColumns(columnIndexes, columnTypes);
     }
 
     public String toString() {
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.expressions;
+
+import org.wso2.das.jdbcdriver.common.LikeMatcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the LIKE and NOT LIKE operations of the where clause.
+ */
+public class LikeExpression extends Expression {
+
+    private Expression expression;
+    private Expression pattern;
+    private String escape;
+    private boolean negated;
+    private LikeMatcher matcher;
+
+    public LikeExpression(Expression expression, Expression pattern, String escape, boolean negated) {
+        this.expression = expression;
+        this.pattern = pattern;
+        this.escape = escape;
+        this.negated = negated;
+    }
+
+    /**
+     * Evaluates whether the value matches the pattern, or null if the value is null.
+     *
+     * @param row record data
+     * @return Boolean value indicating evaluation result
+     */
+    public Boolean isTrue(Object[] row) {
+        Object value = this.expression.eval(row);
+        if (value == null || this.matcher == null) {
+            return null;
+        }
+        CharSequence input = value instanceof CharSequence ? (CharSequence) value : value.toString();
+        return this.matcher.matches(input) != this.negated;
+    }
+
+    public void resolveColumns(Map<String, Integer> columnIndexes, String[] columnTypes) {
+        this.expression.resolveColumns(columnIndexes, columnTypes);
+        //The pattern is a literal or the bound value of a parameter
+        Object patternValue = this.pattern.eval(null);
+        this.matcher = patternValue != null ? LikeMatcher.getMatcher(patternValue.toString(), this.escape) : null;
+    }
+
+    public String toString() {
+        return this.expression + (this.negated ? " NOT LIKE " : " LIKE ") + this.pattern;
+    }
+
+    public List<String> getFilteredColumns(Set<String> availableColumns) {
+        return this.expression.getFilteredColumns(availableColumns);
+    }
+}
@@ -35,20 +35,33 @@ public class ORExpression extends Expression {
     }
 
     /**
-     * Evaluates to true if any of the expression is true.
+     * Evaluates to true if any of the expression is true. Evaluates to null if none of the expressions is true and
+     * any of them is null.
      *
-     * @param env record data
+     * @param row record data
      * @return Boolean values which indicates whether the expression is true
      */
-    public Boolean isTrue(Map<String, Object> env) {
-        Boolean bIsTrue = Boolean.FALSE;
+    public Boolean isTrue(Object[] row) {
+        Boolean result = Boolean.FALSE;
         for (Expression expr : this.vectorExpressions) {
-            bIsTrue = expr.isTrue(env);
-            if (bIsTrue) {
-                break;
+            Boolean bIsTrue = expr.isTrue(row);
+            if (Boolean.TRUE.equals(bIsTrue)) {
+                return bIsTrue;
+            } else if (bIsTrue == null) {
+                result = null;
             }
         }
-        return bIsTrue;
+        return result;
+    }
+
+    public void resolveColumns(Map<String, Integer> columnIndexes, String[] columnTypes) {
+        for (Expression expr : this.vectorExpressions) {
+            expr.resolveColumns(columnIndexes, columnTypes);
+        }
+    }
+
+    public Vector<Expression> getExpressions() {
+        return this.vectorExpressions;
     }
 
     public List<String> getFilteredColumns(Set<String> availableColumns) {
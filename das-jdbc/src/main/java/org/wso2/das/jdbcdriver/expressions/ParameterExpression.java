@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.expressions;
+
+/**
+ * Expression which represents a parameter (?) of a prepared statement. The value is bound before each execution.
+ */
+public class ParameterExpression extends Expression {
+
+    private int parameterIndex;
+    private Object value;
+    private boolean bound;
+
+    public ParameterExpression(int parameterIndex) {
+        this.parameterIndex = parameterIndex;
+    }
+
+    public int getParameterIndex() {
+        return this.parameterIndex;
+    }
+
+    /**
+     * Bind the value of the parameter.
+     */
+    public void setValue(Object value) {
+        this.value = value;
+        this.bound = true;
+    }
+
+    public Object getValue() {
+        return this.value;
+    }
+
+    public boolean isBound() {
+        return this.bound;
+    }
+
+    /**
+     * Remove the bound value.
+     */
+    public void clear() {
+        this.value = null;
+        this.bound = false;
+    }
+
+    public Object eval(Object[] row) {
+        return this.value;
+    }
+
+    public String toString() {
+        return String.valueOf(this.value);
+    }
+}
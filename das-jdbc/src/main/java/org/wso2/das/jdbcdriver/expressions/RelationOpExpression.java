@@ -17,6 +17,8 @@
  */
 package org.wso2.das.jdbcdriver.expressions;
 
+import org.wso2.das.jdbcdriver.common.ServiceConstants;
+
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -30,11 +32,22 @@ import java.util.logging.Logger;
 public class RelationOpExpression extends Expression {
 
     private String operation;
+    private RelationOperator operator;
     private Expression left, right;
     private static Logger logger = Logger.getLogger(RelationOpExpression.class.getName());
 
+    //Literal of a comparison of a column with a constant, parsed when the columns are resolved
+    private boolean compiled;
+    private String stringLiteral;
+    private boolean booleanLiteral;
+    private boolean numericLiteral;
+    private boolean integralLiteral;
+    private long longLiteral;
+    private double doubleLiteral;
+
     public RelationOpExpression(String op, Expression left, Expression right) {
         this.operation = op;
+        this.operator = RelationOperator.fromSymbol(op);
         this.left = left;
         this.right = right;
     }
@@ -42,33 +55,119 @@ public class RelationOpExpression extends Expression {
     /**
      * Evalutate whether the Relational operation is true for a given record.
      *
-     * @param env - Record details
+     * @param row - Record details
      * @return Boolean value indicating evaluation result
      */
-    public Boolean isTrue(Map<String, Object> env) {
-        Boolean result = null;
-        Comparable leftValue = (Comparable) this.left.eval(env);
-        Comparable rightValue = (Comparable) this.right.eval(env);
-        Integer leftComparedToRightObj = compare(leftValue, rightValue);
-        if (leftComparedToRightObj != null) {
-            int leftComparedToRight = leftComparedToRightObj;
-            if (leftValue != null && rightValue != null) {
-                if (this.operation.equals("=")) {
-                    result = leftComparedToRight == 0;
-                } else if (this.operation.equals("<>") || this.operation.equals("!=")) {
-                    result = leftComparedToRight != 0;
-                } else if (this.operation.equals(">")) {
-                    result = leftComparedToRight > 0;
-                } else if (this.operation.equals("<")) {
-                    result = leftComparedToRight < 0;
-                } else if (this.operation.equals("<=") || this.operation.equals("=<")) {
-                    result = leftComparedToRight <= 0;
-                } else if (this.operation.equals(">=") || this.operation.equals("=>")) {
-                    result = leftComparedToRight >= 0;
+    public Boolean isTrue(Object[] row) {
+        if (this.operator == null) {
+            return null;
+        }
+        if (this.compiled) {
+            return compareToLiteral(this.left.eval(row));
+        }
+        Comparable leftValue = (Comparable) this.left.eval(row);
+        Comparable rightValue = (Comparable) this.right.eval(row);
+        Integer leftComparedToRight = compare(leftValue, rightValue);
+        if (leftComparedToRight == null) {
+            return null;
+        }
+        return this.operator.test(leftComparedToRight);
+    }
+
+    /*
+     * Compare a column value with the parsed literal. Numbers are compared as primitives.
+     */
+    private Boolean compareToLiteral(Object value) {
+        int comparison;
+        if (value == null) {
+            return null;
+        } else if (value instanceof Number) {
+            if (!this.numericLiteral) {
+                return null;
+            }
+            if (this.integralLiteral && (value instanceof Long || value instanceof Integer || value instanceof Short
+                    || value instanceof Byte)) {
+                comparison = Long.compare(((Number) value).longValue(), this.longLiteral);
+            } else {
+                comparison = Double.compare(((Number) value).doubleValue(), this.doubleLiteral);
+            }
+        } else if (value instanceof String) {
+            comparison = ((String) value).compareTo(this.stringLiteral);
+        } else if (value instanceof Boolean) {
+            comparison = Boolean.compare((Boolean) value, this.booleanLiteral);
+        } else {
+            Integer leftComparedToRight = compare((Comparable) value, this.stringLiteral);
+            if (leftComparedToRight == null) {
+                return null;
+            }
+            comparison = leftComparedToRight;
+        }
+        return this.operator.test(comparison);
+    }
+
+    /*
+     * Parse the literal of a comparison with a column, according to the type of the column.
+     */
+    private void compileLiteral(String columnType, String literal) {
+        this.stringLiteral = literal;
+        this.booleanLiteral = Boolean.valueOf(literal);
+        this.numericLiteral = false;
+        this.integralLiteral = false;
+        String trimmed = literal.trim();
+        boolean isDecimalColumn = ServiceConstants.DATATYPES.DATATYPE_FLOAT.equalsIgnoreCase(columnType)
+                || ServiceConstants.DATATYPES.DATATYPE_DOUBLE.equalsIgnoreCase(columnType);
+        if (!isDecimalColumn) {
+            try {
+                this.longLiteral = Long.parseLong(trimmed);
+                this.doubleLiteral = this.longLiteral;
+                this.integralLiteral = true;
+                this.numericLiteral = true;
+            } catch (NumberFormatException e) {
+                //Not an integer
+            }
+        }
+        if (!this.numericLiteral) {
+            try {
+                this.doubleLiteral = Double.parseDouble(trimmed);
+                this.numericLiteral = true;
+            } catch (NumberFormatException e) {
+                if (isDecimalColumn || isIntegralType(columnType)) {
+                    logger.log(Level.WARNING, "Invalid number " + literal + " compared with " + this.left);
                 }
             }
         }
-        return result;
+        this.compiled = true;
+    }
+
+    /*
+     * Use the bound value of a parameter as the literal. Numbers and booleans are used as they are, other values are
+     * parsed as literals.
+     */
+    private void compileParameter(String columnType, Object value) {
+        if (value == null) {
+            return;
+        }
+        compileLiteral(columnType, value.toString());
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            this.longLiteral = ((Number) value).longValue();
+            this.doubleLiteral = this.longLiteral;
+            this.integralLiteral = true;
+            this.numericLiteral = true;
+        } else if (value instanceof Number) {
+            this.doubleLiteral = ((Number) value).doubleValue();
+            this.integralLiteral = false;
+            this.numericLiteral = true;
+        } else if (value instanceof Boolean) {
+            this.booleanLiteral = (Boolean) value;
+        }
+    }
+
+    private static boolean isIntegralType(String columnType) {
+        return ServiceConstants.DATATYPES.DATATYPE_INT.equalsIgnoreCase(columnType)
+                || ServiceConstants.DATATYPES.DATATYPE_INTEGER.equalsIgnoreCase(columnType)
+                || ServiceConstants.DATATYPES.DATATYPE_LONG.equalsIgnoreCase(columnType)
+                || ServiceConstants.DATATYPES.DATATYPE_SHORT.equalsIgnoreCase(columnType)
+                || ServiceConstants.DATATYPES.DATATYPE_BYTE.equalsIgnoreCase(columnType);
     }
 
     public Integer compare(Comparable leftValue, Comparable rightValue) {
@@ -102,6 +201,31 @@ public class RelationOpExpression extends Expression {
         return leftComparedToRightObj;
     }
 
+    public void resolveColumns(Map<String, Integer> columnIndexes, String[] columnTypes) {
+        this.left.resolveColumns(columnIndexes, columnTypes);
+        this.right.resolveColumns(columnIndexes, columnTypes);
+        this.compiled = false;
+        if (this.operator != null && this.left instanceof ColumnName) {
+            if (this.right instanceof AsteriskExpression) {
+                compileLiteral(((ColumnName) this.left).getColumnType(), this.right.toString());
+            } else if (this.right instanceof ParameterExpression) {
+                compileParameter(((ColumnName) this.left).getColumnType(), ((ParameterExpression) this.right).getValue());
+            }
+        }
+    }
+
+    public String getOperation() {
+        return this.operation;
+    }
+
+    public Expression getLeft() {
+        return this.left;
+    }
+
+    public Expression getRight() {
+        return this.right;
+    }
+
     public List<String> getFilteredColumns(Set<String> availableColumns) {
         List<String> result = new LinkedList<String>();
         result.addAll(this.left.getFilteredColumns(availableColumns));
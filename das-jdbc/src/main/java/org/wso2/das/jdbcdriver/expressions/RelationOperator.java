@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.expressions;
+
+/**
+ * Relational operators supported in the where clause.
+ */
+public enum RelationOperator {
+
+    EQUAL("="),
+    NOT_EQUAL("<>", "!="),
+    GREATER(">"),
+    LESS("<"),
+    GREATER_OR_EQUAL(">=", "=>"),
+    LESS_OR_EQUAL("<=", "=<");
+
+    private String[] symbols;
+
+    RelationOperator(String... symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Get the operator of the given SQL symbol.
+     *
+     * @param symbol SQL symbol of the operator
+     * @return The operator, or null if the symbol is not a relational operator
+     */
+    public static RelationOperator fromSymbol(String symbol) {
+        for (RelationOperator operator : values()) {
+            for (String s : operator.symbols) {
+                if (s.equals(symbol)) {
+                    return operator;
+                }
+            }
+        }
+        return null;
+    }
+
+    public String getSymbol() {
+        return this.symbols[0];
+    }
+
+    /**
+     * Check whether the operator holds for the result of comparing the left operand to the right operand.
+     *
+     * @param comparison Negative, zero or positive if the left operand is less than, equal to or greater than the
+     *                   right operand
+     */
+    public boolean test(int comparison) {
+        switch (this) {
+            case EQUAL:
+                return comparison == 0;
+            case NOT_EQUAL:
+                return comparison != 0;
+            case GREATER:
+                return comparison > 0;
+            case LESS:
+                return comparison < 0;
+            case GREATER_OR_EQUAL:
+                return comparison >= 0;
+            default:
+                return comparison <= 0;
+        }
+    }
+
+    /**
+     * Get the operator which gives the same result when the operands are swapped.
+     */
+    public RelationOperator reverse() {
+        switch (this) {
+            case GREATER:
+                return LESS;
+            case LESS:
+                return GREATER;
+            case GREATER_OR_EQUAL:
+                return LESS_OR_EQUAL;
+            case LESS_OR_EQUAL:
+                return GREATER_OR_EQUAL;
+            default:
+                return this;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.jdbc;
+
+import java.sql.ResultSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Extension of the DASJDriver statements and connections which runs queries without blocking the calling thread.
+ * The statements and connections of the driver are unwrapped to this interface:
+ * <pre>
+ * DASJAsyncQueryExecutor executor = connection.unwrap(DASJAsyncQueryExecutor.class);
+ * CompletableFuture&lt;ResultSet&gt; result = executor.executeQueryAsync("SELECT * FROM ORDERS");
+ * </pre>
+ * A statement runs its asynchronous queries one at a time, in the order they are submitted, and the result set of a
+ * query is closed when the next query of the statement is executed, as with executeQuery. A connection runs each
+ * query with a new statement, which is closed when its result set is closed, so that many queries can run at the same
+ * time.
+ * The future fails with the SQLException of the query. If the future is cancelled before the query completes, the
+ * result set is closed when the query completes.
+ */
+public interface DASJAsyncQueryExecutor {
+
+    /**
+     * Execute a query on the asynchronous query executor of the connection. The executor uses virtual threads when
+     * the Java runtime has them, unless another executor is set with DASJConnection.setAsyncExecutor.
+     *
+     * @param sql SQL statement for execution
+     * @return Future of the result set of the query
+     */
+    CompletableFuture<ResultSet> executeQueryAsync(String sql);
+
+    /**
+     * Execute a query on the given executor.
+     *
+     * @param sql      SQL statement for execution
+     * @param executor Executor which runs the query
+     * @return Future of the result set of the query
+     */
+    CompletableFuture<ResultSet> executeQueryAsync(String sql, Executor executor);
+}
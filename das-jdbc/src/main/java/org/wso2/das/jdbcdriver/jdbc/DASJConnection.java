@@ -17,11 +17,28 @@
  */
 package org.wso2.das.jdbcdriver.jdbc;
 
+import org.json.simple.JSONValue;
+import org.wso2.das.jdbcdriver.common.CacheStatistics;
+import org.wso2.das.jdbcdriver.common.LRUCache;
+import org.wso2.das.jdbcdriver.common.SQLParser;
+import org.wso2.das.jdbcdriver.common.StatementCache;
 import org.wso2.das.jdbcdriver.common.ServiceUtil;
 import org.wso2.das.jdbcdriver.dasInterface.DASServiceConnector;
+import org.wso2.das.jdbcdriver.dasInterface.DataReader;
+import org.wso2.das.jdbcdriver.dasInterface.RecordLayout;
+import org.wso2.das.jdbcdriver.dasInterface.ResultCache;
+import org.wso2.das.jdbcdriver.dasInterface.TableSnapshot;
 import org.wso2.das.jdbcdriver.common.JSONUtil;
 import org.wso2.das.jdbcdriver.common.ServiceConstants;
-
+import org.wso2.das.jdbcdriver.dasInterface.TableSchema;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.CallableStatement;
@@ -40,13 +57,21 @@ import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Struct;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -55,7 +80,7 @@ import java.util.logging.Logger;
  * This represents a connection (session) with a DAS Data Service.
  * SQL statements are executed and results are returned within the context of a connection.
  */
-public class DASJConnection implements Connection {
+public class DASJConnection implements Connection, DASJAsyncQueryExecutor {
 
     private String connURL;
 
@@ -69,8 +94,59 @@ public class DASJConnection implements Connection {
 
     private boolean autoCommit;
 
+    private int connectTimeout = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_CONNECT_TIMEOUT;
+
+    private int readTimeout = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_READ_TIMEOUT;
+
+    private int maxConnections = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_MAX_CONNECTIONS;
+
+    private int defaultFetchSize = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_FETCH_SIZE;
+
+    private int schemaCacheSize = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_SCHEMA_CACHE_SIZE;
+
+    private int schemaCacheTTL = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_SCHEMA_CACHE_TTL;
+
+    private LRUCache<String, TableSchema> schemaCache;
+
+    private int statementCacheSize = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_STATEMENT_CACHE_SIZE;
+
+    private StatementCache statementCache;
+
+    private int resultCacheMemory = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_RESULT_CACHE_MEMORY;
+
+    private int resultCacheTTL = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_RESULT_CACHE_TTL;
+
+    private boolean resultCacheRevalidate = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_RESULT_CACHE_REVALIDATE;
+
+    private ResultCache resultCache;
+
+    private Set<String> snapshotTables = Collections.emptySet();
+
+    private final Map<String, TableSnapshot> snapshots = new HashMap<String, TableSnapshot>();
+
+    private int aggregationMaxGroups = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_AGGREGATION_MAX_GROUPS;
+
+    private int sortMaxRows = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_SORT_MAX_ROWS;
+
+    private int scanParallelism = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_SCAN_PARALLELISM;
+
+    private boolean scanOrdered = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_SCAN_ORDERED;
+
+    private int prefetchMemory = ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_PREFETCH_MEMORY;
+
+    private DASServiceConnector serviceConnector;
+
+    private ExecutorService fetchExecutor;
+
+    private Executor asyncExecutor;
+
+    //Executor of the asynchronous queries which is created by the connection, and shut down when it is closed
+    private ExecutorService defaultAsyncExecutor;
+
     private Vector<Statement> dasStatements = new Vector<Statement>();
 
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024L;
+
     private static Logger logger = Logger.getLogger(DASJConnection.class.getName());
 
     /**
@@ -85,6 +161,17 @@ public class DASJConnection implements Connection {
         if (info != null) {
             setProperties(info);
         }
+        this.schemaCache = new LRUCache<String, TableSchema>(this.schemaCacheSize, this.schemaCacheTTL);
+        this.statementCache = new StatementCache(this.statementCacheSize);
+        if (this.resultCacheMemory > 0) {
+            this.resultCache = new ResultCache(this.resultCacheMemory * BYTES_PER_MEGABYTE, this.resultCacheTTL);
+        }
+        try {
+            this.serviceConnector = new DASServiceConnector(this.userName, this.userPassword, this.connectTimeout,
+                    this.readTimeout, this.maxConnections);
+        } catch (GeneralSecurityException e) {
+            throw new SQLException("Error in Creating the DAS Service Connector:", e);
+        }
     }
 
     /**
@@ -203,6 +290,23 @@ public class DASJConnection implements Connection {
     @Override
     public void close() throws SQLException {
         closeDASStatements();
+        synchronized (this) {
+            if (this.fetchExecutor != null) {
+                this.fetchExecutor.shutdownNow();
+                this.fetchExecutor = null;
+            }
+            if (this.defaultAsyncExecutor != null) {
+                this.defaultAsyncExecutor.shutdownNow();
+                this.defaultAsyncExecutor = null;
+            }
+            this.asyncExecutor = null;
+        }
+        this.schemaCache.clear();
+        this.statementCache.clear();
+        if (this.resultCache != null) {
+            this.resultCache.clear();
+        }
+        clearSnapshots();
         this.connectionClosed = true;
     }
 
@@ -435,12 +539,96 @@ public class DASJConnection implements Connection {
 
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        return null;
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("[Not a wrapper for]: " + iface.getName());
     }
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        return false;
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Execute a query with a new statement on the asynchronous query executor of the connection. The statement is
+     * closed when the result set is closed.
+     *
+     * @param sql SQL statement for execution
+     * @return Future of the result set of the query
+     */
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql) {
+        try {
+            return executeQueryAsync(sql, getAsyncExecutor());
+        } catch (SQLException e) {
+            CompletableFuture<ResultSet> future = new CompletableFuture<ResultSet>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * Execute a query with a new statement on the given executor. The statement is closed when the result set is
+     * closed.
+     *
+     * @param sql      SQL statement for execution
+     * @param executor Executor which runs the query
+     * @return Future of the result set of the query
+     */
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql, Executor executor) {
+        try {
+            DASJStatement statement = (DASJStatement) createStatement();
+            statement.closeOnCompletion();
+            return statement.executeQueryAsync(sql, executor);
+        } catch (SQLException e) {
+            CompletableFuture<ResultSet> future = new CompletableFuture<ResultSet>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * Set the executor which runs the asynchronous queries of the connection, instead of the default executor.
+     *
+     * @param executor Executor of the asynchronous queries, or null to use the default executor
+     */
+    public synchronized void setAsyncExecutor(Executor executor) throws SQLException {
+        checkStatus();
+        this.asyncExecutor = executor;
+    }
+
+    /**
+     * Executor which runs the asynchronous queries of the connection. By default each query runs on a virtual
+     * thread if the Java runtime has them, or else on a thread of the fetch executor.
+     */
+    public synchronized Executor getAsyncExecutor() throws SQLException {
+        checkStatus();
+        if (this.asyncExecutor != null) {
+            return this.asyncExecutor;
+        }
+        if (this.defaultAsyncExecutor == null) {
+            this.defaultAsyncExecutor = createVirtualThreadExecutor();
+            if (this.defaultAsyncExecutor == null) {
+                return getFetchExecutor();
+            }
+        }
+        return this.defaultAsyncExecutor;
+    }
+
+    /*
+     * Create an executor which runs each task on a new virtual thread, or return null if the Java runtime has no
+     * virtual threads. The executor is looked up by reflection, so that the driver still runs on older runtimes.
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.log(Level.FINE, "Virtual threads are not available, the fetch executor runs the queries");
+            return null;
+        }
     }
 
     public String getUserName() {
@@ -459,6 +647,69 @@ public class DASJConnection implements Connection {
         if (info.getProperty(ServiceConstants.DAS_DRIVER_SETTINGS.DAS_PASS) != null) {
             this.userPassword = info.getProperty(ServiceConstants.DAS_DRIVER_SETTINGS.DAS_PASS);
         }
+        this.connectTimeout = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.CONNECT_TIMEOUT,
+                this.connectTimeout, 0);
+        this.readTimeout = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.READ_TIMEOUT, this.readTimeout,
+                0);
+        this.maxConnections = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.MAX_CONNECTIONS,
+                this.maxConnections, 1);
+        this.defaultFetchSize = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.FETCH_SIZE,
+                this.defaultFetchSize, 0);
+        this.schemaCacheSize = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.SCHEMA_CACHE_SIZE,
+                this.schemaCacheSize, 0);
+        this.schemaCacheTTL = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.SCHEMA_CACHE_TTL,
+                this.schemaCacheTTL, 0);
+        this.statementCacheSize = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.STATEMENT_CACHE_SIZE,
+                this.statementCacheSize, 0);
+        this.resultCacheMemory = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.RESULT_CACHE_MEMORY,
+                this.resultCacheMemory, 0);
+        this.resultCacheTTL = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.RESULT_CACHE_TTL,
+                this.resultCacheTTL, 0);
+        String revalidate = info.getProperty(ServiceConstants.DAS_DRIVER_SETTINGS.RESULT_CACHE_REVALIDATE);
+        if (revalidate != null) {
+            this.resultCacheRevalidate = Boolean.parseBoolean(revalidate.trim());
+        }
+        String snapshotTableNames = info.getProperty(ServiceConstants.DAS_DRIVER_SETTINGS.SNAPSHOT_TABLES);
+        if (snapshotTableNames != null) {
+            this.snapshotTables = new HashSet<String>();
+            for (String tableName : snapshotTableNames.split(",")) {
+                if (tableName.trim().length() > 0) {
+                    this.snapshotTables.add(tableName.trim().toUpperCase());
+                }
+            }
+        }
+        this.aggregationMaxGroups = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.AGGREGATION_MAX_GROUPS,
+                this.aggregationMaxGroups, 1);
+        this.sortMaxRows = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.SORT_MAX_ROWS,
+                this.sortMaxRows, 1);
+        this.scanParallelism = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.SCAN_PARALLELISM,
+                this.scanParallelism, 1);
+        String ordered = info.getProperty(ServiceConstants.DAS_DRIVER_SETTINGS.SCAN_ORDERED);
+        if (ordered != null) {
+            this.scanOrdered = Boolean.parseBoolean(ordered.trim());
+        }
+        this.prefetchMemory = getIntProperty(info, ServiceConstants.DAS_DRIVER_SETTINGS.PREFETCH_MEMORY,
+                this.prefetchMemory, 0);
+    }
+
+    /*
+     * Read an integer connection property, falling back to the default value if the property is not set.
+     */
+    private static int getIntProperty(Properties info, String key, int defaultValue, int minValue)
+            throws SQLException {
+        String value = info.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int intValue = Integer.parseInt(value.trim());
+            if (intValue < minValue) {
+                throw new SQLException("[Invalid Property]: " + key + "=" + value);
+            }
+            return intValue;
+        } catch (NumberFormatException e) {
+            throw new SQLException("[Invalid Property]: " + key + "=" + value, e);
+        }
     }
 
     /**
@@ -470,7 +721,7 @@ public class DASJConnection implements Connection {
     public List<String> getTableNames() throws SQLException {
         List<String> tableNames = null;
         try {
-            String sResponse = DASServiceConnector.sendGet(this.connURLForDASTables, this.userName, this.userPassword);
+            String sResponse = this.serviceConnector.sendGet(this.connURLForDASTables);
             tableNames = JSONUtil.parseSimpleArray(sResponse);
         } catch (Exception e) {
             throw new SQLException("Error in Get Table Names:",e);
@@ -478,6 +729,273 @@ public class DASJConnection implements Connection {
         return tableNames;
     }
 
+    /**
+     * Get the schema of the given table. The schema is fetched from the DAS backend once and cached in the
+     * connection until it expires.
+     *
+     * @param tableName Table name in which the schema is requested
+     * @return Schema of the table
+     * @throws SQLException if the schema cannot be retrieved
+     */
+    public TableSchema getTableSchema(String tableName) throws SQLException {
+        tableName = ServiceUtil.extractTableName(tableName);
+        TableSchema schema = this.schemaCache.get(tableName);
+        if (schema == null) {
+            String sRequestURL = getConnURLForTableSchema(tableName);
+            try {
+                String sResponse = this.serviceConnector.sendGet(sRequestURL);
+                schema = JSONUtil.parseTableSchema(sResponse);
+            } catch (Exception e) {
+                throw new SQLException("Error in Get Table Schema:", e);
+            }
+            this.schemaCache.put(tableName, schema);
+        }
+        return schema;
+    }
+
+    /**
+     * Remove the cached schema of all the tables, so that it is fetched again on the next use.
+     */
+    public void clearSchemaCache() {
+        this.schemaCache.clear();
+    }
+
+    /**
+     * Get the usage counters of the table schema cache.
+     */
+    public CacheStatistics getSchemaCacheStatistics() {
+        return this.schemaCache.getStatistics();
+    }
+
+    /**
+     * Parse the given SQL query. Queries which differ only in the literals of the where clause share the statement
+     * parsed by the ZQL parser, which is cached in the connection.
+     *
+     * @param sql SQL of the query
+     * @return Parsed query
+     * @throws SQLException if the SQL cannot be parsed
+     */
+    public SQLParser parseQuery(String sql) throws SQLException {
+        return this.statementCache.getParser(sql);
+    }
+
+    /**
+     * Remove all the cached statements, so that the queries are parsed again on the next use.
+     */
+    public void clearStatementCache() {
+        this.statementCache.clear();
+    }
+
+    /**
+     * Get the usage counters of the parsed statement cache.
+     */
+    public CacheStatistics getStatementCacheStatistics() {
+        return this.statementCache.getStatistics();
+    }
+
+    /**
+     * Get the cached records of a query.
+     *
+     * @param key Key of the query, which identifies the records retrieved from the DAS backend
+     * @return Reader of the cached records, or null if the result cache is disabled or has no valid result of the
+     * query
+     */
+    public DataReader getCachedResult(String key) {
+        if (this.resultCache == null) {
+            return null;
+        }
+        ResultCache.Validator validator = null;
+        if (this.resultCacheRevalidate) {
+            validator = new ResultCache.Validator() {
+                @Override
+                public boolean isValid(String tableName, long newestTimestamp) throws SQLException {
+                    return !hasRecordsAfter(tableName, newestTimestamp);
+                }
+            };
+        }
+        return this.resultCache.get(key, validator);
+    }
+
+    /**
+     * Get the timestamp which validates the result of a query on the given table, when the result is cached later.
+     * Must be called before the records of the query are retrieved, so that the records added in the meantime make
+     * the cached result invalid.
+     *
+     * @param tableName Name of the table of the query
+     * @return Timestamp of the newest record of the table, Long.MIN_VALUE if it is not known, or Long.MAX_VALUE if the
+     * cached results are not revalidated
+     */
+    public long getResultValidationTimestamp(String tableName) {
+        if (this.resultCache == null || !this.resultCacheRevalidate) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return getNewestRecordTimestamp(tableName);
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Error in Get Newest Record of " + tableName, e);
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Cache the records of a query once they are read from the given reader.
+     *
+     * @param key                 Key of the query, which identifies the records retrieved from the DAS backend
+     * @param tableName           Name of the table of the query
+     * @param validationTimestamp Timestamp given by getResultValidationTimestamp before the records are retrieved
+     * @param reader              Reader of the records of the query
+     * @return Reader which caches the records, or the given reader if the result cache is disabled
+     */
+    public DataReader cacheResult(String key, String tableName, long validationTimestamp, DataReader reader) {
+        if (this.resultCache == null) {
+            return reader;
+        }
+        return this.resultCache.cacheResult(key, tableName, validationTimestamp, reader);
+    }
+
+    /**
+     * Remove all the cached query results.
+     */
+    public void clearResultCache() {
+        if (this.resultCache != null) {
+            this.resultCache.clear();
+        }
+    }
+
+    /**
+     * Get the usage counters of the query result cache, or null if the result cache is disabled.
+     */
+    public CacheStatistics getResultCacheStatistics() {
+        return this.resultCache != null ? this.resultCache.getStatistics() : null;
+    }
+
+    /**
+     * Check whether a local snapshot of the given table is kept, as configured by the snapshotTables property.
+     */
+    public boolean isSnapshotTable(String tableName) {
+        return this.snapshotTables.contains(ServiceConstants.DAS_DRIVER_SETTINGS.ALL_TABLES)
+                || this.snapshotTables.contains(ServiceUtil.extractTableName(tableName).toUpperCase());
+    }
+
+    /**
+     * Get a reader of all the records of the given table from its local snapshot. The records added to the table
+     * since the previous query are retrieved from the DAS backend and merged into the snapshot first.
+     *
+     * @param tableName       Name of the table
+     * @param columnDataTypes Data types of the each column
+     * @return Reader of the records of the snapshot
+     * @throws SQLException if the new records cannot be retrieved
+     */
+    public DataReader getSnapshotReader(String tableName, final Map<String, String> columnDataTypes)
+            throws SQLException {
+        final String name = ServiceUtil.extractTableName(tableName);
+        TableSnapshot snapshot;
+        synchronized (this.snapshots) {
+            snapshot = this.snapshots.get(name.toUpperCase());
+            if (snapshot == null) {
+                snapshot = new TableSnapshot(name);
+                this.snapshots.put(name.toUpperCase(), snapshot);
+            }
+        }
+        return snapshot.sync(new TableSnapshot.RecordSource() {
+            @Override
+            public DataReader fetchRecords(long timeFrom, final RecordLayout layout) throws SQLException {
+                return getTableData(name, timeFrom, ServiceConstants.DAS_SERVICE_QUERIES.TIME_TO_UNBOUNDED, 0,
+                        ServiceConstants.DAS_SERVICE_QUERIES.RECORD_COUNT_ALL, null,
+                        new DASServiceConnector.ResponseHandler<DataReader>() {
+                            @Override
+                            public DataReader handleResponse(Reader response) throws IOException {
+                                return JSONUtil.parseDataArray(response, columnDataTypes, layout, null);
+                            }
+                        });
+            }
+        });
+    }
+
+    /**
+     * Get the number of records in the local snapshot of the given table, or -1 if the table has no snapshot.
+     */
+    public int getSnapshotRecordCount(String tableName) {
+        synchronized (this.snapshots) {
+            TableSnapshot snapshot = this.snapshots.get(ServiceUtil.extractTableName(tableName).toUpperCase());
+            return snapshot != null ? snapshot.getRecordCount() : -1;
+        }
+    }
+
+    /**
+     * Remove the local snapshots of all the tables, so that the tables are retrieved again on the next query.
+     */
+    public void clearSnapshots() {
+        synchronized (this.snapshots) {
+            this.snapshots.clear();
+        }
+    }
+
+    /**
+     * Get the timestamp of the newest record of the given table, by searching all the records sorted by the
+     * timestamp.
+     *
+     * @param tableName Table name in which the newest record is requested
+     * @return Timestamp of the newest record, or Long.MIN_VALUE if the table has no records
+     * @throws SQLException if the request fails
+     */
+    public long getNewestRecordTimestamp(String tableName) throws SQLException {
+        Map<String, Object> sortBy = new HashMap<String, Object>();
+        sortBy.put(ServiceConstants.DAS_REQUEST_KEYS.SORT_FIELD, ServiceConstants.DAS_SERVICE_QUERIES.TIMESTAMP_FIELD);
+        sortBy.put(ServiceConstants.DAS_REQUEST_KEYS.SORT_TYPE, ServiceConstants.DAS_SERVICE_QUERIES.SORT_DESCENDING);
+        Map<String, Object> request = new HashMap<String, Object>();
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.TABLE_NAME, ServiceUtil.extractTableName(tableName));
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.QUERY, ServiceConstants.DAS_SERVICE_QUERIES.MATCH_ALL_QUERY);
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.START, 0);
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.COUNT, 1);
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.SORT_BY, Collections.singletonList(sortBy));
+        DataReader reader;
+        try {
+            reader = this.serviceConnector.sendPost(this.connURL
+                    + ServiceConstants.DAS_SERVICE_QUERIES.DAS_SEARCH_QUERY, JSONValue.toJSONString(request),
+                    createTimestampHandler());
+        } catch (IOException e) {
+            throw new SQLException("Error in Get Newest Record:", e);
+        }
+        return getFirstTimestamp(reader, Long.MIN_VALUE);
+    }
+
+    /**
+     * Check whether the given table has records newer than the given timestamp.
+     *
+     * @param tableName Table name in which the records are checked
+     * @param timestamp Timestamp of the newest known record
+     * @throws SQLException if the request fails
+     */
+    public boolean hasRecordsAfter(String tableName, long timestamp) throws SQLException {
+        if (timestamp == Long.MAX_VALUE) {
+            return false;
+        }
+        DataReader reader = getTableData(tableName, timestamp + 1,
+                ServiceConstants.DAS_SERVICE_QUERIES.TIME_TO_UNBOUNDED, 0, 1, null, createTimestampHandler());
+        return reader.getRowCount() > 0;
+    }
+
+    /*
+     * Create a handler which decodes only the timestamps of the records.
+     */
+    private DASServiceConnector.ResponseHandler<DataReader> createTimestampHandler() {
+        final Set<String> noColumns = Collections.emptySet();
+        return new DASServiceConnector.ResponseHandler<DataReader>() {
+            @Override
+            public DataReader handleResponse(Reader response) throws IOException {
+                return JSONUtil.parseDataArray(response, Collections.<String, String>emptyMap(), null, noColumns);
+            }
+        };
+    }
+
+    private static long getFirstTimestamp(DataReader reader, long defaultValue) throws SQLException {
+        if (!reader.next()) {
+            return defaultValue;
+        }
+        return (Long) reader.getRow()[reader.getRecordLayout().getTimestampIndex()];
+    }
+
     /**
      * Get Data types of the given table from the DAS backend.
      *
@@ -486,17 +1004,7 @@ public class DASJConnection implements Connection {
      * @throws SQLException
      */
     public HashMap<String, String> getColumnDataTypes(String tableName) throws SQLException {
-        HashMap<String, String> mapColumnDataTypes = null;
-        tableName = ServiceUtil.extractTableName(tableName);
-        String sRequestURL = getConnURLForTableSchema(tableName);
-        try {
-            String sResponse = DASServiceConnector.sendGet(sRequestURL, this.userName, this.userPassword);
-            mapColumnDataTypes = JSONUtil.parseSubArray(sResponse, ServiceConstants.DAS_RESPONSE_KEYS.COLUMNS,
-                    ServiceConstants.DAS_RESPONSE_KEYS.TYPE);
-        } catch (Exception e) {
-            throw new SQLException("Error in Get Column Data Types :",e);
-        }
-        return mapColumnDataTypes;
+        return new HashMap<String, String>(getTableSchema(tableName).getColumnDataTypes());
     }
 
     /**
@@ -506,11 +1014,8 @@ public class DASJConnection implements Connection {
      */
     public List<String> getPrimaryKeys(String tableName) {
         List<String> result = new LinkedList<String>();
-        tableName = ServiceUtil.extractTableName(tableName);
-        String sRequestURL = getConnURLForTableSchema(tableName);
         try {
-            String sResponse = DASServiceConnector.sendGet(sRequestURL, this.userName, this.userPassword);
-            result = JSONUtil.parseSubArray(sResponse, ServiceConstants.DAS_RESPONSE_KEYS.PRIMARYKEYS);
+            result.addAll(getTableSchema(tableName).getPrimaryKeys());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error in Get Primary Keys:", e);
         }
@@ -524,12 +1029,8 @@ public class DASJConnection implements Connection {
      */
     public List<String> getIndexes(String tableName) {
         List<String> result = new LinkedList<String>();
-        tableName = ServiceUtil.extractTableName(tableName);
-        String sRequestURL = getConnURLForTableSchema(tableName);
         try {
-            String sResponse = DASServiceConnector.sendGet(sRequestURL, this.userName, this.userPassword);
-            result = JSONUtil.parseSubArrayWithCheckValue(sResponse, ServiceConstants.DAS_RESPONSE_KEYS.COLUMNS,
-                    ServiceConstants.DAS_RESPONSE_KEYS.ISINDEX);
+            result.addAll(getTableSchema(tableName).getIndexes());
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error in Get Indexes:", e);
         }
@@ -547,13 +1048,241 @@ public class DASJConnection implements Connection {
         String sRequestURL = getConnURLForTable(tableName);
         String sResponse = null;
         try {
-            sResponse = DASServiceConnector.sendGet(sRequestURL, this.userName, this.userPassword);
+            sResponse = this.serviceConnector.sendGet(sRequestURL);
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error in Get Table Data:", e);
         }
         return sResponse;
     }
 
+    /**
+     * Get the data of the given table, decoded by the given handler while it is received.
+     *
+     * @param tableName Table name in which data is required.
+     * @param fields    Names of the record fields to return, or null for all the fields
+     * @param handler   Handler which decodes the JSON response from DAS backend
+     * @return Decoded table data
+     * @throws SQLException if the request fails
+     */
+    public <T> T getTableData(String tableName, List<String> fields, DASServiceConnector.ResponseHandler<T> handler)
+            throws SQLException {
+        tableName = ServiceUtil.extractTableName(tableName);
+        try {
+            return this.serviceConnector.sendGet(getConnURLForTable(tableName) + getColumnsParameter(fields),
+                    handler);
+        } catch (IOException e) {
+            throw new SQLException("Error in Get Table Data:", e);
+        }
+    }
+
+    /**
+     * Get a range of the records of the given table, decoded by the given handler while it is received.
+     *
+     * @param tableName Table name in which data is required.
+     * @param timeFrom  Start of the record timestamp range, inclusive
+     * @param timeTo    End of the record timestamp range, exclusive
+     * @param start     Index of the first record within the range
+     * @param count     Maximum number of records to return
+     * @param fields    Names of the record fields to return, or null for all the fields
+     * @param handler   Handler which decodes the JSON response from DAS backend
+     * @return Decoded table data
+     * @throws SQLException if the request fails
+     */
+    public <T> T getTableData(String tableName, long timeFrom, long timeTo, int start, int count,
+            List<String> fields, DASServiceConnector.ResponseHandler<T> handler) throws SQLException {
+        tableName = ServiceUtil.extractTableName(tableName);
+        String sRequestURL = getConnURLForTable(tableName) + ServiceConstants.DAS_SERVICE_QUERIES.URL_PATH_SEPERATOR
+                + timeFrom + ServiceConstants.DAS_SERVICE_QUERIES.URL_PATH_SEPERATOR + timeTo
+                + ServiceConstants.DAS_SERVICE_QUERIES.URL_PATH_SEPERATOR + start
+                + ServiceConstants.DAS_SERVICE_QUERIES.URL_PATH_SEPERATOR + count + getColumnsParameter(fields);
+        try {
+            return this.serviceConnector.sendGet(sRequestURL, handler);
+        } catch (IOException e) {
+            throw new SQLException("Error in Get Table Data:", e);
+        }
+    }
+
+    /**
+     * Search the records of the given table which match the given Lucene query, decoded by the given handler while
+     * they are received.
+     *
+     * @param tableName Table name in which data is required.
+     * @param query     Lucene query of the DAS search API
+     * @param start     Index of the first matching record
+     * @param count     Maximum number of records to return
+     * @param fields    Names of the record fields to return, or null for all the fields
+     * @param handler   Handler which decodes the JSON response from DAS backend
+     * @return Decoded table data
+     * @throws SQLException if the request fails
+     */
+    public <T> T searchTableData(String tableName, String query, int start, int count, List<String> fields,
+            DASServiceConnector.ResponseHandler<T> handler) throws SQLException {
+        Map<String, Object> request = new HashMap<String, Object>();
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.TABLE_NAME, ServiceUtil.extractTableName(tableName));
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.QUERY, query);
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.START, start);
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.COUNT, count);
+        if (fields != null) {
+            request.put(ServiceConstants.DAS_REQUEST_KEYS.COLUMNS, fields);
+        }
+        try {
+            return this.serviceConnector.sendPost(this.connURL + ServiceConstants.DAS_SERVICE_QUERIES.DAS_SEARCH_QUERY,
+                    JSONValue.toJSONString(request), handler);
+        } catch (IOException e) {
+            throw new SQLException("Error in Search Table Data:", e);
+        }
+    }
+
+    /**
+     * Get the number of records of the given table, counted by the DAS backend.
+     *
+     * @param tableName Table name in which the records are counted
+     * @return Number of records, or -1 if the record store of the table cannot count the records
+     * @throws SQLException if the request fails
+     */
+    public long getRecordCount(String tableName) throws SQLException {
+        tableName = ServiceUtil.extractTableName(tableName);
+        try {
+            return this.serviceConnector.sendGet(getConnURLForTable(tableName)
+                    + ServiceConstants.DAS_SERVICE_QUERIES.DAS_RECORD_COUNT_QUERY, createCountHandler());
+        } catch (IOException e) {
+            throw new SQLException("Error in Get Record Count:", e);
+        }
+    }
+
+    /**
+     * Get the number of records of the given table which match the given Lucene query, counted by the DAS backend.
+     *
+     * @param tableName Table name in which the records are counted
+     * @param query     Lucene query of the DAS search API
+     * @throws SQLException if the request fails
+     */
+    public long searchCount(String tableName, String query) throws SQLException {
+        Map<String, Object> request = new HashMap<String, Object>();
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.TABLE_NAME, ServiceUtil.extractTableName(tableName));
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.QUERY, query);
+        try {
+            return this.serviceConnector.sendPost(this.connURL
+                    + ServiceConstants.DAS_SERVICE_QUERIES.DAS_SEARCH_COUNT_QUERY, JSONValue.toJSONString(request),
+                    createCountHandler());
+        } catch (IOException e) {
+            throw new SQLException("Error in Search Count:", e);
+        }
+    }
+
+    /**
+     * Get the top level categories of a facet column, with the number of records of each category among the records
+     * which match the given Lucene query, counted by the DAS backend.
+     *
+     * @param tableName Table name in which the records are counted
+     * @param field     Name of the facet column
+     * @param query     Lucene query of the DAS search API
+     * @return Map of category value - record count
+     * @throws SQLException if the request fails
+     */
+    public Map<String, Long> getFacetCounts(String tableName, String field, String query) throws SQLException {
+        Map<String, Object> request = new HashMap<String, Object>();
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.TABLE_NAME, ServiceUtil.extractTableName(tableName));
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.FIELD_NAME, field);
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.CATEGORY_PATH, Collections.emptyList());
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.QUERY, query);
+        request.put(ServiceConstants.DAS_REQUEST_KEYS.SCORE_FUNCTION,
+                ServiceConstants.DAS_SERVICE_QUERIES.COUNT_SCORE_FUNCTION);
+        try {
+            return this.serviceConnector.sendPost(this.connURL + ServiceConstants.DAS_SERVICE_QUERIES.DAS_FACETS_QUERY,
+                    JSONValue.toJSONString(request), new DASServiceConnector.ResponseHandler<Map<String, Long>>() {
+                        @Override
+                        public Map<String, Long> handleResponse(Reader response) throws IOException {
+                            return JSONUtil.parseFacetCategories(response);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new SQLException("Error in Get Facet Counts:", e);
+        }
+    }
+
+    private static DASServiceConnector.ResponseHandler<Long> createCountHandler() {
+        return new DASServiceConnector.ResponseHandler<Long>() {
+            @Override
+            public Long handleResponse(Reader response) throws IOException {
+                return JSONUtil.parseCount(response);
+            }
+        };
+    }
+
+    /**
+     * Default fetch size of the statements created by this connection.
+     */
+    public int getDefaultFetchSize() {
+        return this.defaultFetchSize;
+    }
+
+    /**
+     * Maximum number of groups of an aggregate query kept in memory before they are spilled to disk.
+     */
+    public int getAggregationMaxGroups() {
+        return this.aggregationMaxGroups;
+    }
+
+    /**
+     * Maximum number of rows of an ORDER BY query sorted in memory before they are spilled to disk.
+     */
+    public int getSortMaxRows() {
+        return this.sortMaxRows;
+    }
+
+    /**
+     * Maximum number of pages of a table scan requested at the same time.
+     */
+    public int getScanParallelism() {
+        return this.scanParallelism;
+    }
+
+    /**
+     * Whether the records of a parallel table scan are read in the order of the table.
+     */
+    public boolean isScanOrdered() {
+        return this.scanOrdered;
+    }
+
+    /**
+     * Estimated memory in bytes of the pages of a table scan, which are requested ahead of the reader.
+     */
+    public int getPrefetchMemory() {
+        return this.prefetchMemory;
+    }
+
+    /**
+     * Executor which runs the background DAS requests of this connection, such as the requests for the next page
+     * of a table scan.
+     */
+    public synchronized ExecutorService getFetchExecutor() throws SQLException {
+        checkStatus();
+        if (this.fetchExecutor == null) {
+            this.fetchExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger threadCount = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "DASJ-Fetch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return this.fetchExecutor;
+    }
+
+    /**
+     * Abort the DAS request which the given thread is waiting on, such as the request for a page of a table scan
+     * which is closed.
+     *
+     * @param thread Thread which sends the request
+     */
+    public void abortRequest(Thread thread) {
+        this.serviceConnector.abortRequest(thread);
+    }
+
     /**
      * Returns the conneciton url for this Connection.
      */
@@ -574,6 +1303,28 @@ public class DASJConnection implements Connection {
         this.dasStatements.remove(statement);
     }
 
+    /*
+     * Create the query parameter which limits a records request to the given fields.
+     */
+    private static String getColumnsParameter(List<String> fields) throws SQLException {
+        if (fields == null) {
+            return "";
+        }
+        StringBuilder columns = new StringBuilder();
+        for (String field : fields) {
+            if (columns.length() > 0) {
+                columns.append(',');
+            }
+            columns.append(field);
+        }
+        try {
+            return "?" + ServiceConstants.DAS_REQUEST_KEYS.COLUMNS + "="
+                    + URLEncoder.encode(columns.toString(), StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new SQLException("Error in Encoding the Columns:", e);
+        }
+    }
+
     /*
      * Create the DAS Backend url for given table.
      */
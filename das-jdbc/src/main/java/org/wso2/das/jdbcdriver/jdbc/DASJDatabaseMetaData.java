@@ -18,19 +18,28 @@
 package org.wso2.das.jdbcdriver.jdbc;
 
 import org.wso2.das.jdbcdriver.dasInterface.DataReader;
+import org.wso2.das.jdbcdriver.dasInterface.RecordLayout;
+import org.wso2.das.jdbcdriver.dasInterface.TableSchema;
 import org.wso2.das.jdbcdriver.expressions.AsteriskExpression;
+import org.wso2.das.jdbcdriver.common.LikeMatcher;
 import org.wso2.das.jdbcdriver.common.ServiceConstants;
 import org.wso2.das.jdbcdriver.common.ServiceUtil;
+import org.wso2.das.jdbcdriver.sort.SortKey;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.RowIdLifetime;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * This class implements the java.sql.DatabaseMetaData interface for the DASJDriver driver.
@@ -109,10 +118,10 @@ public class DASJDatabaseMetaData implements DatabaseMetaData {
                 }
             }
         }
+        LikeMatcher tableNameMatcher = tableNamePattern == null ? null : LikeMatcher
+                .getMatcher(tableNamePattern, ServiceConstants.DAS_SERVICE_QUERIES.DEFAULT_ESCAPE_STRING);
         for(String tableName : listTables) {
-            if (bMatchType && (tableNamePattern == null || ServiceUtil
-                    .isPatternMatched(tableNamePattern, ServiceConstants.DAS_SERVICE_QUERIES.DEFAULT_ESCAPE_STRING,
-                            tableName))) {
+            if (bMatchType && (tableNameMatcher == null || tableNameMatcher.matches(tableName))) {
                 Object[] data = new Object[] { ServiceConstants.DAS_SERVICE_QUERIES.DAS_SCHEMA_NAME,
                         ServiceConstants.DAS_SERVICE_QUERIES.DAS_SCHEMA_NAME, tableName, "TABLE", "", null, null, null,
                         null, null };
@@ -130,11 +139,7 @@ public class DASJDatabaseMetaData implements DatabaseMetaData {
     public ResultSet getColumns(String catalog, String schemaPattern, String tableNamePattern, String columnNamePattern)
             throws SQLException {
         List<Object[]> columnValues = new ArrayList<Object[]>();
-        if (this.statement == null) {
-            this.statement = (DASJStatement) this.connection.createStatement();
-        }
         ResultSet resultSetTableList = getTables(catalog, schemaPattern, tableNamePattern, null);
-        ResultSet resultSetTableData;
         Integer columnSize = Integer.valueOf(Short.MAX_VALUE);
         Integer decimalDigits = Integer.valueOf(Short.MAX_VALUE);
         Integer radix = 10;
@@ -147,18 +152,30 @@ public class DASJDatabaseMetaData implements DatabaseMetaData {
         Integer sqlDateTimeSub = 0;
         String isNullable = "YES";
         String isAutoIncrement = "NO";
+        List<String> tableNames = new ArrayList<String>();
         while (resultSetTableList.next()) {
-            String tableName = resultSetTableList.getString(3);
-            resultSetTableData = this.statement.executeQuery("SELECT * FROM " + tableName + ";");
-            ResultSetMetaData metadata = resultSetTableData.getMetaData();
-            int columnCount = metadata.getColumnCount();
-            for (int i = 0; i < columnCount; i++) {
-                String columnName = metadata.getColumnName(i + 1);
-                if (columnNamePattern == null || ServiceUtil
-                        .isPatternMatched(columnNamePattern, ServiceConstants.DAS_SERVICE_QUERIES.DEFAULT_ESCAPE_STRING,
-                                columnName)) {
-                    int columnType = metadata.getColumnType(i + 1);
-                    String columnTypeName = metadata.getColumnTypeName(i + 1);
+            tableNames.add(resultSetTableList.getString(3));
+        }
+        List<TableSchema> tableSchemas = getTableSchemas(tableNames);
+        LikeMatcher columnNameMatcher = columnNamePattern == null ? null : LikeMatcher
+                .getMatcher(columnNamePattern, ServiceConstants.DAS_SERVICE_QUERIES.DEFAULT_ESCAPE_STRING);
+        for (int t = 0; t < tableNames.size(); t++) {
+            String tableName = tableNames.get(t);
+            Map<String, String> columnDataTypes = tableSchemas.get(t).getColumnDataTypes();
+            //The record timestamp is available as the last column of each table
+            List<String> columnNames = new ArrayList<String>(columnDataTypes.size() + 1);
+            List<String> dasTypes = new ArrayList<String>(columnDataTypes.size() + 1);
+            for (Map.Entry<String, String> entry : columnDataTypes.entrySet()) {
+                columnNames.add(RecordLayout.getColumnName(entry.getKey()));
+                dasTypes.add(entry.getValue());
+            }
+            columnNames.add(ServiceConstants.DAS_RESPONSE_DATA.ROW_TIMESTAMP.toUpperCase());
+            dasTypes.add(ServiceConstants.DATATYPES.DATATYPE_LONG);
+            for (int i = 0; i < columnNames.size(); i++) {
+                String columnName = columnNames.get(i);
+                if (columnNameMatcher == null || columnNameMatcher.matches(columnName)) {
+                    String columnTypeName = getColumnTypeName(dasTypes.get(i));
+                    int columnType = DASJResultSetMetaData.getTypeCode(columnTypeName);
                     Object data[] = { tableCat, ServiceConstants.DAS_SERVICE_QUERIES.DAS_SCHEMA_NAME, tableName,
                             columnName, columnType, columnTypeName, columnSize, buffLength,
                             decimalDigits, radix, nullable, remarks, columnDef, sqlDataType, sqlDateTimeSub, columnSize,
@@ -171,6 +188,61 @@ public class DASJDatabaseMetaData implements DatabaseMetaData {
                 ServiceConstants.DAS_METADATA_DEF_COLUMN_TYPES.COLUMNS, columnValues);
     }
 
+    /*
+     * Get the schemas of the given tables. Schemas which are not cached by the connection are fetched in parallel.
+     */
+    private List<TableSchema> getTableSchemas(List<String> tableNames) throws SQLException {
+        final DASJConnection dasConnection = (DASJConnection) this.connection;
+        List<TableSchema> tableSchemas = new ArrayList<TableSchema>(tableNames.size());
+        if (tableNames.size() <= 1) {
+            for (String tableName : tableNames) {
+                tableSchemas.add(dasConnection.getTableSchema(tableName));
+            }
+            return tableSchemas;
+        }
+        ExecutorService executor = dasConnection.getFetchExecutor();
+        List<Future<TableSchema>> pendingSchemas = new ArrayList<Future<TableSchema>>(tableNames.size());
+        try {
+            for (final String tableName : tableNames) {
+                pendingSchemas.add(executor.submit(new Callable<TableSchema>() {
+                    @Override
+                    public TableSchema call() throws Exception {
+                        return dasConnection.getTableSchema(tableName);
+                    }
+                }));
+            }
+            for (Future<TableSchema> pendingSchema : pendingSchemas) {
+                tableSchemas.add(pendingSchema.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while reading the table schemas", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Error in Get Table Schema:", cause);
+        } finally {
+            for (Future<TableSchema> pendingSchema : pendingSchemas) {
+                pendingSchema.cancel(true);
+            }
+        }
+        return tableSchemas;
+    }
+
+    /*
+     * Get the type name reported for a column of the given DAS data type, which is the same type name reported by
+     * the result set meta data. Data types without a JDBC mapping, such as FACET, are reported as strings.
+     */
+    private static String getColumnTypeName(String dasType) {
+        String typeName = null;
+        if (dasType != null) {
+            typeName = ServiceUtil.getSQLType(ServiceUtil.getLiteral(dasType));
+        }
+        return typeName != null ? typeName : ServiceConstants.DATATYPES.DATATYPE_STRING;
+    }
+
     /**
      *Retrieves a description of the given table's primary key columns.
      */
@@ -1112,7 +1184,8 @@ public class DASJDatabaseMetaData implements DatabaseMetaData {
             if (this.statement == null) {
                 this.statement = (DASJStatement) this.connection.createStatement();
             }
-            rs = new DASJResultSet(this.statement, reader, "", queryEnvironment, ResultSet.TYPE_FORWARD_ONLY, -1, null);
+            rs = new DASJResultSet(this.statement, reader, "", queryEnvironment, ResultSet.TYPE_FORWARD_ONLY, -1, null,
+                    Collections.<String>emptyList(), Collections.<SortKey>emptyList());
         } catch (ClassNotFoundException e) {
             throw new SQLException(e.getMessage());
         }
@@ -82,11 +82,67 @@ public class DASJDriver implements Driver {
                 info.getProperty(ServiceConstants.DAS_DRIVER_SETTINGS.DAS_PASS));
         passwordProp.required = true;
         passwordProp.description = ServiceConstants.PROPERTY_DESCRIPTIONS.PASSWORD;
-        DriverPropertyInfo[] propertyInfo = new DriverPropertyInfo[2];
-        propertyInfo[0] = userProp;
-        propertyInfo[1] = passwordProp;
-        return propertyInfo;
+        DriverPropertyInfo connectTimeoutProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.CONNECT_TIMEOUT,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.CONNECT_TIMEOUT);
+        DriverPropertyInfo readTimeoutProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.READ_TIMEOUT, ServiceConstants.PROPERTY_DESCRIPTIONS.READ_TIMEOUT);
+        DriverPropertyInfo maxConnectionsProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.MAX_CONNECTIONS,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.MAX_CONNECTIONS);
+        DriverPropertyInfo fetchSizeProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.FETCH_SIZE, ServiceConstants.PROPERTY_DESCRIPTIONS.FETCH_SIZE);
+        DriverPropertyInfo schemaCacheSizeProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.SCHEMA_CACHE_SIZE,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.SCHEMA_CACHE_SIZE);
+        DriverPropertyInfo schemaCacheTTLProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.SCHEMA_CACHE_TTL,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.SCHEMA_CACHE_TTL);
+        DriverPropertyInfo statementCacheSizeProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.STATEMENT_CACHE_SIZE,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.STATEMENT_CACHE_SIZE);
+        DriverPropertyInfo resultCacheMemoryProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.RESULT_CACHE_MEMORY,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.RESULT_CACHE_MEMORY);
+        DriverPropertyInfo resultCacheTTLProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.RESULT_CACHE_TTL,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.RESULT_CACHE_TTL);
+        DriverPropertyInfo resultCacheRevalidateProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.RESULT_CACHE_REVALIDATE,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.RESULT_CACHE_REVALIDATE);
+        resultCacheRevalidateProp.choices = new String[] { Boolean.TRUE.toString(), Boolean.FALSE.toString() };
+        DriverPropertyInfo snapshotTablesProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.SNAPSHOT_TABLES,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.SNAPSHOT_TABLES);
+        DriverPropertyInfo aggregationMaxGroupsProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.AGGREGATION_MAX_GROUPS,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.AGGREGATION_MAX_GROUPS);
+        DriverPropertyInfo sortMaxRowsProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.SORT_MAX_ROWS,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.SORT_MAX_ROWS);
+        DriverPropertyInfo scanParallelismProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.SCAN_PARALLELISM,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.SCAN_PARALLELISM);
+        DriverPropertyInfo scanOrderedProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.SCAN_ORDERED,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.SCAN_ORDERED);
+        DriverPropertyInfo prefetchMemoryProp = getOptionalPropertyInfo(info,
+                ServiceConstants.DAS_DRIVER_SETTINGS.PREFETCH_MEMORY,
+                ServiceConstants.PROPERTY_DESCRIPTIONS.PREFETCH_MEMORY);
+        scanOrderedProp.choices = new String[] { Boolean.TRUE.toString(), Boolean.FALSE.toString() };
+        return new DriverPropertyInfo[] { userProp, passwordProp, connectTimeoutProp, readTimeoutProp,
+                maxConnectionsProp, fetchSizeProp, schemaCacheSizeProp, schemaCacheTTLProp, statementCacheSizeProp,
+                resultCacheMemoryProp, resultCacheTTLProp, resultCacheRevalidateProp, snapshotTablesProp,
+                aggregationMaxGroupsProp, sortMaxRowsProp, scanParallelismProp, scanOrderedProp,
+                prefetchMemoryProp };
+
+    }
 
+    private DriverPropertyInfo getOptionalPropertyInfo(Properties info, String name, String description) {
+        DriverPropertyInfo propertyInfo = new DriverPropertyInfo(name, info.getProperty(name));
+        propertyInfo.required = false;
+        propertyInfo.description = description;
+        return propertyInfo;
     }
 
     @Override
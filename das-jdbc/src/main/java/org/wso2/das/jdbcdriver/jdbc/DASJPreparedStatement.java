@@ -18,6 +18,7 @@
 package org.wso2.das.jdbcdriver.jdbc;
 
 import org.wso2.das.jdbcdriver.common.SQLParser;
+import org.wso2.das.jdbcdriver.expressions.ParameterExpression;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -40,6 +41,7 @@ import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Calendar;
+import java.util.List;
 
 /**
  * The class that represents the Pre-compiled SQL statement.
@@ -47,37 +49,32 @@ import java.util.Calendar;
 public class DASJPreparedStatement extends DASJStatement implements PreparedStatement {
 
     private Object[] queryParameters;
-    private String sqlQuery;
+    private SQLParser sqlParser;
 
     public DASJPreparedStatement(DASJConnection connection, String sql, int resultSetType) throws SQLException {
         super(connection, resultSetType);
-        int iPlaceHolderCount = sql.length() - sql.replace("?", "").length();
-        this.queryParameters = new Object[iPlaceHolderCount + 1];
-        this.sqlQuery = sql;
+        //The query is parsed once. Each execution binds the parameter values to the parsed query.
+        try {
+            this.sqlParser = connection.parseQuery(sql);
+        } catch (Exception e) {
+            throw new SQLException("Syntax Error: " + e.getMessage());
+        }
+        this.queryParameters = new Object[this.sqlParser.getParameters().size() + 1];
     }
 
     @Override
     public ResultSet executeQuery() throws SQLException {
         checkStatus();
-        if (prevResultSet != null) {
-            prevResultSet.close();
-        }
-        prevResultSet = null;
-        for (int i = 1; i < this.queryParameters.length; i++) {
-            Object parameter = this.queryParameters[i];
-            if (parameter instanceof String) {
-                this.sqlQuery = this.sqlQuery.replaceFirst("\\?", "\'" + parameter + "\'");
-            } else {
-                this.sqlQuery = this.sqlQuery.replaceFirst("\\?", parameter.toString());
+        closePreviousResultSet();
+        List<ParameterExpression> parameters = this.sqlParser.getParameters();
+        for (ParameterExpression parameter : parameters) {
+            Object value = this.queryParameters[parameter.getParameterIndex()];
+            if (value == null) {
+                throw new SQLException("Parameter " + parameter.getParameterIndex() + " is not set");
             }
+            parameter.setValue(value);
         }
-        SQLParser parser = new SQLParser(this.sqlQuery);
-        try {
-            parser.parse();
-        } catch (Exception e) {
-            throw new SQLException("Syntax Error: " + e.getMessage());
-        }
-        ResultSet rs = executeDASQuery(parser);
+        ResultSet rs = executeDASQuery(this.sqlParser);
         prevResultSet = rs;
         return rs;
     }
@@ -398,7 +395,7 @@ public class DASJPreparedStatement extends DASJStatement implements PreparedStat
     }
 
     private void checkParameterIndex(int parameterIndex) throws SQLException {
-        if (parameterIndex < 1 || parameterIndex > this.queryParameters.length) {
+        if (parameterIndex < 1 || parameterIndex >= this.queryParameters.length) {
             throw new SQLException("Invalid ParameterIndex " + parameterIndex);
         }
     }
@@ -18,10 +18,17 @@
 package org.wso2.das.jdbcdriver.jdbc;
 
 import org.wso2.das.jdbcdriver.common.ServiceConstants;
+import org.wso2.das.jdbcdriver.dasInterface.AggregatedDataReader;
 import org.wso2.das.jdbcdriver.dasInterface.DataReader;
+import org.wso2.das.jdbcdriver.dasInterface.DataReaderSpliterator;
 import org.wso2.das.jdbcdriver.expressions.*;
+import org.wso2.das.jdbcdriver.aggregateFunctions.Accumulator;
 import org.wso2.das.jdbcdriver.aggregateFunctions.AggregateFunction;
+import org.wso2.das.jdbcdriver.aggregateFunctions.HashAggregator;
 import org.wso2.das.jdbcdriver.common.ServiceUtil;
+import org.wso2.das.jdbcdriver.sort.RowComparator;
+import org.wso2.das.jdbcdriver.sort.RowSorter;
+import org.wso2.das.jdbcdriver.sort.SortKey;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -31,6 +38,9 @@ import java.net.URL;
 import java.sql.*;
 import java.sql.Date;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class implements the java.sql.ResultSet JDBC interface for the DASJDriver driver.
@@ -47,7 +57,7 @@ public class DASJResultSet implements ResultSet {
 
     private List<Object[]> queryEnvironment;
 
-    private Map<String, Object> recordEnvironment;
+    private Object[] record;
 
     private ResultSetMetaData resultSetMetaData;
 
@@ -63,6 +73,10 @@ public class DASJResultSet implements ResultSet {
 
     private int lastIndexRead = -1;
 
+    private boolean lastValueNull;
+
+    private int[] columnSqlTypes;
+
     private boolean connectionClosed;
 
     private int fetchSize;
@@ -73,11 +87,10 @@ public class DASJResultSet implements ResultSet {
 
     private Expression whereClause;
 
-    private List<String> filterColumns;
-
     private List<AggregateFunction> aggregateFunctions;
 
-    private List<Map<String, Object>> bufferedRecordEnvironments = null;
+    //Rows of the result which are aggregated or sorted before they are read
+    private DataReader bufferedRows = null;
 
 
     /**
@@ -87,30 +100,28 @@ public class DASJResultSet implements ResultSet {
      * @param reader Helper class that performs the actual file reads
      * @param tableName Table referenced by the Statement
      * @param queryEnvironment each query expression in the Statement.
+     * @param groupByColumns Upper case names of the GROUP BY columns of the query
+     * @param sortKeys Keys of the ORDER BY clause of the query
      * @throws ClassNotFoundException in case the typed columns fail.
      * @throws SQLException if executing the SQL statement fails.
      */
     protected DASJResultSet(DASJStatement statement, DataReader reader, String tableName,
-            List<Object[]> queryEnvironment, int resultSetType, int sqlLimit, Expression whereClause)
-            throws ClassNotFoundException, SQLException {
+            List<Object[]> queryEnvironment, int resultSetType, int sqlLimit, Expression whereClause,
+            List<String> groupByColumns, List<SortKey> sortKeys) throws ClassNotFoundException, SQLException {
         this.statement = statement;
         this.reader = reader;
         this.tableName = tableName;
         this.queryEnvironment = new ArrayList<Object[]>(queryEnvironment);
         this.limit = sqlLimit;
         this.resultSetType = resultSetType;
-        this.whereClause = whereClause;
+        //The groups of an aggregated reader are already filtered by the DAS backend
+        this.whereClause = reader instanceof AggregatedDataReader ? null : whereClause;
         this.aggregateFunctions = new ArrayList<AggregateFunction>();
         this.maxRows = statement.getMaxRows();
         this.fetchSize = statement.getFetchSize();
         this.fetchDirection = statement.getFetchDirection();
         String[] columnNames = reader.getColumnNames();
         Set<String> allColumns = new HashSet<String>(Arrays.asList(columnNames));
-        if (this.whereClause != null) {
-            this.filterColumns = new LinkedList<String>(this.whereClause.getFilteredColumns(allColumns));
-        } else {
-            this.filterColumns = new LinkedList<String>();
-        }
         //Replace any "select *" with the list of column names in that table.
         for (int i = 0; i < this.queryEnvironment.size(); i++) {
             Object[] o = this.queryEnvironment.get(i);
@@ -132,30 +143,104 @@ public class DASJResultSet implements ResultSet {
                 }
             }
         }
-        //Validate query - Check whether there is column names with the aggregate functions
-        if (this.aggregateFunctions.size() > 0) {
+        //The positions of the ORDER BY keys refer to the items of the select part
+        Expression[] sortExpressions = new Expression[sortKeys.size()];
+        boolean[] sortDescending = new boolean[sortKeys.size()];
+        for (int i = 0; i < sortExpressions.length; i++) {
+            SortKey sortKey = sortKeys.get(i);
+            Expression expr = sortKey.getExpression();
+            if (expr == null) {
+                if (sortKey.getPosition() < 1 || sortKey.getPosition() > this.queryEnvironment.size()) {
+                    throw new SQLException("[Invalid ORDER BY position]: " + sortKey.getPosition());
+                }
+                expr = (Expression) this.queryEnvironment.get(sortKey.getPosition() - 1)[1];
+            }
+            sortExpressions[i] = expr;
+            sortDescending[i] = sortKey.isDescending();
+        }
+        //Validate query - Check whether the columns with the aggregate functions are grouped
+        if (this.aggregateFunctions.size() > 0 || groupByColumns.size() > 0) {
             List<String> allColumnnsinQuery = new LinkedList<String>();
             for(Object[] o : this.queryEnvironment) {
-                if (o[1] != null) {
+                if (o[1] != null && !(o[1] instanceof AggregateFunction)) {
                     allColumnnsinQuery.addAll(((Expression) o[1]).getFilteredColumns(allColumns));
                 }
             }
-            if (allColumnnsinQuery.size() > 0 && this.aggregateFunctions.size() > 0) {
+            for (Expression expr : sortExpressions) {
+                if (!(expr instanceof AggregateFunction)) {
+                    allColumnnsinQuery.addAll(expr.getFilteredColumns(allColumns));
+                }
+            }
+            if (groupByColumns.isEmpty() && allColumnnsinQuery.size() > 0) {
                 throw new SQLException("INVALID QUERY: Columns with Aggregate functions");
             }
+            for (String column : allColumnnsinQuery) {
+                if (!groupByColumns.contains(column.toUpperCase())) {
+                    throw new SQLException("INVALID QUERY: Column " + column + " is not in the GROUP BY clause");
+                }
+            }
+        }
+        //Resolve the columns of the expressions to their positions in the records of the reader
+        Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+        for (int i = 0; i < columnNames.length; i++) {
+            columnIndexes.put(columnNames[i].toUpperCase(), i);
+        }
+        int[] groupByIndexes = new int[groupByColumns.size()];
+        for (int i = 0; i < groupByIndexes.length; i++) {
+            Integer index = columnIndexes.get(groupByColumns.get(i));
+            if (index == null) {
+                throw new SQLException("[Invalid Column Name]: " + groupByColumns.get(i));
+            }
+            groupByIndexes[i] = index;
+        }
+        String[] columnTypes = reader.getColumnTypes();
+        for (Object[] o : this.queryEnvironment) {
+            ((Expression) o[1]).resolveColumns(columnIndexes, columnTypes);
         }
-        //Calculate the Aggregate functions on the data set
-        if (this.aggregateFunctions.size() > 0) {
-            this.bufferedRecordEnvironments = new ArrayList<Map<String, Object>>();
+        if (this.whereClause != null) {
+            this.whereClause.resolveColumns(columnIndexes, columnTypes);
+            //The records of a paged scan are filtered by the threads which fetch the pages
+            if (reader.setRowFilter(this.whereClause)) {
+                this.whereClause = null;
+            }
+        }
+        for (Expression expr : sortExpressions) {
+            if (expr instanceof ColumnName && !columnIndexes.containsKey(((ColumnName) expr).getColumnName())) {
+                throw new SQLException("[Invalid Column Name]: " + ((ColumnName) expr).getColumnName());
+            }
+            expr.resolveColumns(columnIndexes, columnTypes);
+        }
+        //Calculate the Aggregate functions on the data set, for each group of the GROUP BY columns
+        if (this.aggregateFunctions.size() > 0 || groupByIndexes.length > 0) {
+            HashAggregator aggregator = new HashAggregator(groupByIndexes, this.aggregateFunctions,
+                    columnNames.length, ((DASJConnection) statement.getConnection()).getAggregationMaxGroups());
+            //The row limit applies to the aggregated rows, so all the matching records are read
+            boolean aggregatedReader = reader instanceof AggregatedDataReader;
+            while (nextRecord()) {
+                if (aggregatedReader) {
+                    aggregator.addPartial(this.record);
+                } else {
+                    aggregator.add(this.record);
+                }
+            }
+            this.bufferedRows = aggregator.getResults();
             this.currentRow = 0;
-
-            while (next()) {
-                for (Object o : this.aggregateFunctions) {
-                    AggregateFunction func = (AggregateFunction) o;
-                    func.processRow(this.recordEnvironment);
+        }
+        //Sort the rows of the result. Only the rows within the row limit are kept, if the result is limited.
+        if (sortExpressions.length > 0) {
+            RowSorter sorter = new RowSorter(new RowComparator(sortExpressions, sortDescending), getRowLimit(),
+                    ((DASJConnection) statement.getConnection()).getSortMaxRows());
+            if (this.bufferedRows != null) {
+                while (this.bufferedRows.next()) {
+                    sorter.add(this.bufferedRows.getRow());
+                }
+                this.bufferedRows.close();
+            } else {
+                while (nextRecord()) {
+                    sorter.add(this.record);
                 }
             }
-            this.bufferedRecordEnvironments.add(new HashMap<String, Object>());
+            this.bufferedRows = sorter.getResults();
             this.currentRow = 0;
         }
     }
@@ -166,48 +251,26 @@ public class DASJResultSet implements ResultSet {
     @Override
     public boolean next() throws SQLException {
         boolean hasNext;
-        if (this.aggregateFunctions.size() > 0 && this.currentRow < this.bufferedRecordEnvironments.size()) {
-            this.currentRow++;
-            this.recordEnvironment = this.bufferedRecordEnvironments.get(this.currentRow - 1);
-            updateRecordEnvironment(true);
-            hasNext = true;
-        } else {
-            if (this.maxRows != 0 && this.currentRow >= this.maxRows) { //Reached the max row count
-                hasNext = false;
-            } else if (this.limit >= 0 && this.currentRow >= this.limit) { //Reached the row limit
-                hasNext = false;
-            } else if (this.hitTail) {
-                hasNext = false;
-            } else {
-                hasNext = this.reader.next();
-            }
-
+        if (isRowLimitReached()) {
+            this.record = null;
+            hasNext = false;
+        } else if (this.bufferedRows != null) {
+            hasNext = this.bufferedRows.next();
             if (hasNext) {
-                this.recordEnvironment = this.reader.getEnvironment();
+                this.currentRow++;
+                this.record = this.bufferedRows.getRow();
             } else {
-                this.recordEnvironment = null;
-            }
-            //Give priority to where clause if exists. ObjectEnvironment contains the values of the current record for
-            //the effective columns (Columns in the select part + where clause)
-            if (this.whereClause != null) {
-                Map<String, Object> objectEnvironment = updateRecordEnvironment(hasNext);
-                while (hasNext) {
-                    if (Boolean.TRUE.equals(this.whereClause.isTrue(objectEnvironment))) {
-                        break;
-                    }
-                    hasNext = this.reader.next();
-                    if (hasNext) {
-                        this.recordEnvironment = this.reader.getEnvironment();
-                    } else {
-                        this.recordEnvironment = null;
-                    }
-                    objectEnvironment = updateRecordEnvironment(hasNext);
-                }
+                this.record = null;
             }
+        } else {
+            hasNext = nextRecord();
             if (hasNext) {
                 this.currentRow++;
-            } else {
-                this.hitTail = true;
+                if (isRowLimitReached()) {
+                    //Cancel the pending requests of the reader, as no more records are needed
+                    this.hitTail = true;
+                    this.reader.close();
+                }
             }
         }
         this.nextResult = hasNext;
@@ -215,40 +278,61 @@ public class DASJResultSet implements ResultSet {
     }
 
     /*
-     * Construct a temporary record which contains data for the effective columns based on the data in current record.
+     * Moves to the next record of the reader which satisfies the where clause.
      */
-    private Map<String, Object> updateRecordEnvironment(boolean hasNext) throws SQLException {
-        Map<String, Object> objectEnvironment = new HashMap<String, Object>();
-        if (!hasNext) {
-            this.recordEnvironment = null;
-            return objectEnvironment;
+    private boolean nextRecord() throws SQLException {
+        boolean hasNext = !this.hitTail && this.reader.next();
+        if (this.whereClause != null) {
+            while (hasNext && !Boolean.TRUE.equals(this.whereClause.isTrue(this.reader.getRow()))) {
+                hasNext = this.reader.next();
+            }
         }
-        for(Object[] o : this.queryEnvironment) {
-            String key = (String) o[0];
-            Object value = ((Expression) o[1]).eval(this.recordEnvironment);
-            objectEnvironment.put(key.toUpperCase(), value);
+        if (hasNext) {
+            this.record = this.reader.getRow();
+        } else {
+            this.record = null;
+            this.hitTail = true;
         }
-        for(String key : this.filterColumns) {
-            key = key.toUpperCase();
-            if (this.recordEnvironment.containsKey(key)) {
-                objectEnvironment.put(key, this.recordEnvironment.get(key));
-            }
+        return hasNext;
+    }
+
+    /*
+     * Check whether the result set has reached the max row count of the statement or the limit of the query.
+     */
+    private boolean isRowLimitReached() {
+        return (this.maxRows != 0 && this.currentRow >= this.maxRows)
+                || (this.limit >= 0 && this.currentRow >= this.limit);
+    }
+
+    /*
+     * Get the maximum number of rows of the result set, by the max row count of the statement and the limit of the
+     * query, or -1 if the rows are not limited.
+     */
+    private int getRowLimit() {
+        if (this.maxRows > 0 && (this.limit < 0 || this.maxRows < this.limit)) {
+            return this.maxRows;
         }
-        return objectEnvironment;
+        return this.limit;
     }
 
     @Override
     public void close() throws SQLException {
+        boolean wasClosed = this.connectionClosed;
         this.reader.close();
+        if (this.bufferedRows != null) {
+            this.bufferedRows.close();
+        }
         this.connectionClosed = true;
-        this.recordEnvironment = null;
-        this.bufferedRecordEnvironments = null;
+        this.record = null;
+        if (!wasClosed && this.statement != null) {
+            this.statement.resultSetClosed(this);
+        }
     }
 
     @Override
     public boolean wasNull() throws SQLException {
         if (this.lastIndexRead >= 0) {
-            return getString(this.lastIndexRead) == null;
+            return this.lastValueNull;
         } else {
             throw new SQLException("[Execption in was null]");
         }
@@ -265,9 +349,15 @@ public class DASJResultSet implements ResultSet {
 
     @Override
     public boolean getBoolean(int columnIndex) throws SQLException {
-        String s = getString(columnIndex);
+        Object o = getObject(columnIndex);
+        if (o instanceof Boolean) {
+            return (Boolean) o;
+        } else if (o instanceof Number) {
+            return ((Number) o).longValue() == 1;
+        }
         boolean ret = false;
-        if (s != null) {
+        if (o != null) {
+            String s = o.toString();
             if (s.equals("1")) {
                 ret = true;
             } else if (s.equals("0")) {
@@ -281,80 +371,87 @@ public class DASJResultSet implements ResultSet {
 
     @Override
     public byte getByte(int columnIndex) throws SQLException {
-        String s = getString(columnIndex);
-        if (s != null && s.length() != 0) {
-            try {
-                return Byte.parseByte(s);
-            } catch (Exception e) {
-                return 0;
-            }
-        }
-        return 0;
+        Number n = getNumber(columnIndex);
+        return n != null ? n.byteValue() : 0;
     }
 
     @Override
     public short getShort(int columnIndex) throws SQLException {
-        String s = getString(columnIndex);
-        if (s != null && s.length() != 0) {
-            try {
-                return Short.parseShort(s);
-            } catch (Exception e) {
-                return 0;
-            }
-        }
-        return 0;
+        Number n = getNumber(columnIndex);
+        return n != null ? n.shortValue() : 0;
     }
 
     @Override
     public int getInt(int columnIndex) throws SQLException {
-        String s = getString(columnIndex);
-        if (s != null && s.length() != 0) {
-            try {
-                return Integer.parseInt(s);
-            } catch (Exception e) {
-                return 0;
-            }
-        }
-        return 0;
+        Number n = getNumber(columnIndex);
+        return n != null ? n.intValue() : 0;
     }
 
     @Override
     public long getLong(int columnIndex) throws SQLException {
-        String s = getString(columnIndex);
-        if (s != null && s.length() != 0) {
-            try {
-                return  Long.parseLong(s);
-            } catch (Exception e) {
-                return 0;
-            }
-        }
-        return 0;
+        Number n = getNumber(columnIndex);
+        return n != null ? n.longValue() : 0;
     }
 
     @Override
     public float getFloat(int columnIndex) throws SQLException {
-        String s = getString(columnIndex);
-        if (s != null && s.length() != 0) {
-            try {
-                return Float.parseFloat(s);
-            } catch (Exception e) {
-                return 0;
-            }
-        }
-        return 0;
+        Number n = getNumber(columnIndex);
+        return n != null ? n.floatValue() : 0;
     }
 
     @Override
     public double getDouble(int columnIndex) throws SQLException {
-        String s = getString(columnIndex);
-        if (s != null && s.length() != 0) {
-            try {
-                return Double.parseDouble(s);
-            } catch (Exception e) {
-                return 0;
+        Number n = getNumber(columnIndex);
+        return n != null ? n.doubleValue() : 0;
+    }
+
+    /*
+     * Get the value of the column as a number. Numbers decoded from the DAS response are returned as they are.
+     * Other values are parsed according to the SQL type of the column. Returns null if the value is null or is not
+     * a number.
+     */
+    private Number getNumber(int columnIndex) throws SQLException {
+        Object o = getObject(columnIndex);
+        if (o instanceof Number) {
+            return (Number) o;
+        } else if (o == null) {
+            return null;
+        }
+        String s = o.toString().trim();
+        if (s.length() == 0) {
+            return null;
+        }
+        try {
+            switch (getColumnSqlType(columnIndex)) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                    return Long.parseLong(s);
+                case Types.FLOAT:
+                case Types.DOUBLE:
+                    return Double.parseDouble(s);
+                default:
+                    return new BigDecimal(s);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Get the java.sql.Types code of the column, from the result set meta data.
+     */
+    private int getColumnSqlType(int columnIndex) throws SQLException {
+        if (this.columnSqlTypes == null) {
+            ResultSetMetaData metaData = getMetaData();
+            int[] sqlTypes = new int[metaData.getColumnCount()];
+            for (int i = 0; i < sqlTypes.length; i++) {
+                sqlTypes[i] = metaData.getColumnType(i + 1);
             }
+            this.columnSqlTypes = sqlTypes;
         }
-        return 0;
+        return this.columnSqlTypes[columnIndex - 1];
     }
 
     @Override
@@ -508,21 +605,25 @@ public class DASJResultSet implements ResultSet {
              * Create a record containing dummy values.
 			 */
             Set<String> allReaderColumns = new HashSet<String>();
-            Map<String, Object> env = new HashMap<String, Object>();
+            Object[] dummyRecord = new Object[readerTypeNames.length + this.aggregateFunctions.size()];
             for (int i = 0; i < readerTypeNames.length; i++) {
-                Object literal = ServiceUtil.getLiteral(readerTypeNames[i]);
+                dummyRecord[i] = ServiceUtil.getLiteral(readerTypeNames[i]);
                 String columnName = readerColumnNames[i].toUpperCase();
-                env.put(columnName, literal);
                 allReaderColumns.add(columnName);
                 if (this.tableName != null) {
-                    env.put(this.tableName.toUpperCase() + "." + columnName, literal);
                     allReaderColumns.add(this.tableName.toUpperCase() + "." + columnName);
                 }
                 if (tableAlias != null) {
-                    env.put(tableAlias + "." + columnName, literal);
                     allReaderColumns.add(tableAlias + "." + columnName);
                 }
             }
+            //Aggregate the dummy values, to get the values of the aggregate functions in an aggregated row
+            for (int i = 0; i < this.aggregateFunctions.size(); i++) {
+                Accumulator accumulator = this.aggregateFunctions.get(i).createAccumulator();
+                accumulator.ensureCapacity(1);
+                accumulator.accumulate(0, dummyRecord);
+                dummyRecord[readerTypeNames.length + i] = accumulator.getResult(0);
+            }
             for (int i = 0; i < columnCount; i++) {
                 Object[] o = this.queryEnvironment.get(i);
                 columnNames[i] = (String) o[0];
@@ -545,7 +646,7 @@ public class DASJResultSet implements ResultSet {
                         }
                     }
                     columnSizes[i] = columnSize;
-                    result = expr.eval(env);
+                    result = expr.eval(dummyRecord);
                 } catch (NullPointerException e) {
                     throw new SQLException("Error in Get Meta Data:",e);
                 } catch (Exception e) {
@@ -588,10 +689,12 @@ public class DASJResultSet implements ResultSet {
         }
 
         Object[] o = this.queryEnvironment.get(columnIndex - 1);
-        if (this.recordEnvironment != null) {
-            return ((Expression) o[1]).eval(this.recordEnvironment);
+        Object value = null;
+        if (this.record != null) {
+            value = ((Expression) o[1]).eval(this.record);
         }
-        return null;
+        this.lastValueNull = value == null;
+        return value;
     }
 
     @Override
@@ -634,8 +737,14 @@ public class DASJResultSet implements ResultSet {
 
     @Override
     public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        Object o = getObject(columnIndex);
+        if (o instanceof BigDecimal) {
+            return (BigDecimal) o;
+        } else if (o instanceof Long || o instanceof Integer || o instanceof Short || o instanceof Byte) {
+            return BigDecimal.valueOf(((Number) o).longValue());
+        }
         BigDecimal val = null;
-        String str = getString(columnIndex);
+        String str = o != null ? o.toString() : null;
         if (str != null) {
             try {
                 val = new BigDecimal(str);
@@ -664,11 +773,7 @@ public class DASJResultSet implements ResultSet {
     @Override
     public boolean isAfterLast() throws SQLException {
         checkStatus();
-        if (isScrollable()) {
-            return this.currentRow == this.bufferedRecordEnvironments.size() + 1;
-        } else {
-            return (!this.nextResult && this.currentRow > 0);
-        }
+        return (!this.nextResult && this.currentRow > 0);
     }
 
     @Override
@@ -1296,22 +1401,102 @@ public class DASJResultSet implements ResultSet {
 
     @Override
     public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
-        return null;
+        Object value;
+        if (type == Integer.class) {
+            value = getInt(columnIndex);
+        } else if (type == Long.class) {
+            value = getLong(columnIndex);
+        } else if (type == Double.class) {
+            value = getDouble(columnIndex);
+        } else if (type == Float.class) {
+            value = getFloat(columnIndex);
+        } else if (type == Short.class) {
+            value = getShort(columnIndex);
+        } else if (type == Byte.class) {
+            value = getByte(columnIndex);
+        } else if (type == Boolean.class) {
+            value = getBoolean(columnIndex);
+        } else if (type == BigDecimal.class) {
+            value = getBigDecimal(columnIndex);
+        } else if (type == String.class) {
+            value = getString(columnIndex);
+        } else {
+            value = getObject(columnIndex);
+        }
+        if (this.lastValueNull) {
+            return null;
+        }
+        try {
+            return type.cast(value);
+        } catch (ClassCastException e) {
+            throw new SQLException("[TypeConversionError]: Column " + columnIndex + " to " + type.getName(), e);
+        }
     }
 
     @Override
     public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
-        return null;
+        return getObject(findColumn(columnLabel), type);
     }
 
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        return null;
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("[Not a wrapper for]: " + iface.getName());
     }
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        return false;
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Get a stream of the remaining rows of the result set, each with the values of the columns of the result set.
+     * The rows are read from DAS only as the stream consumes them, which moves the cursor of the result set.
+     * A parallel stream evaluates the values of the columns on its own threads, while the rows are read one by one.
+     * Closing the stream closes the result set. The errors of the result set are thrown as IllegalStateException,
+     * with the SQLException as the cause.
+     *
+     * @return Stream of the rows
+     * @throws SQLException if the result set is closed
+     */
+    public Stream<Object[]> stream() throws SQLException {
+        checkStatus();
+        final Expression[] columns = new Expression[this.queryEnvironment.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = (Expression) this.queryEnvironment.get(i)[1];
+        }
+        DataReader records = new DataReader() {
+            @Override
+            public boolean next() throws SQLException {
+                return DASJResultSet.this.next();
+            }
+
+            @Override
+            public Object[] getRow() throws SQLException {
+                return record;
+            }
+        };
+        return StreamSupport.stream(new DataReaderSpliterator(records), false).map(new Function<Object[], Object[]>() {
+            @Override
+            public Object[] apply(Object[] record) {
+                Object[] row = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    row[i] = columns[i].eval(record);
+                }
+                return row;
+            }
+        }).onClose(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    close();
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Error in closing the result set: " + e.getMessage(), e);
+                }
+            }
+        });
     }
 
     protected void checkStatus() throws SQLException
@@ -144,7 +144,14 @@ public class DASJResultSetMetaData implements ResultSetMetaData {
     @Override
     public int getColumnType(int column) throws SQLException {
         String sColTypeName = getColumnTypeName(column);
-        return typeNameCodes.get(sColTypeName);
+        return getTypeCode(sColTypeName);
+    }
+
+    /**
+     * Get the java.sql.Types code of the given type name.
+     */
+    static int getTypeCode(String typeName) {
+        return typeNameCodes.get(typeName);
     }
 
     @Override
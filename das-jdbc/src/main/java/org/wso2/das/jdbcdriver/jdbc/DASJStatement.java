@@ -17,15 +17,35 @@
  */
 package org.wso2.das.jdbcdriver.jdbc;
 
+import org.wso2.das.jdbcdriver.aggregateFunctions.AggregateFunction;
+import org.wso2.das.jdbcdriver.common.QueryPlan;
+import org.wso2.das.jdbcdriver.common.QueryPlanner;
+import org.wso2.das.jdbcdriver.common.ServiceConstants;
+import org.wso2.das.jdbcdriver.dasInterface.AggregatedDataReader;
+import org.wso2.das.jdbcdriver.dasInterface.DASServiceConnector;
 import org.wso2.das.jdbcdriver.dasInterface.DataReader;
 import org.wso2.das.jdbcdriver.common.JSONUtil;
+import org.wso2.das.jdbcdriver.dasInterface.PagedDataReader;
+import org.wso2.das.jdbcdriver.dasInterface.RecordLayout;
+import org.wso2.das.jdbcdriver.dasInterface.TableSchema;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.wso2.das.jdbcdriver.common.SQLParser;
 
@@ -33,7 +53,9 @@ import org.wso2.das.jdbcdriver.common.SQLParser;
  * This class implements the java.sql.Statement JDBC interface for the DASJDriver driver.
  * This is used for executing a SQL statement and returning the results it produces.
  */
-public class DASJStatement implements Statement {
+public class DASJStatement implements Statement, DASJAsyncQueryExecutor {
+
+    private static Logger logger = Logger.getLogger(DASJStatement.class.getName());
 
     private DASJConnection connection;
     protected int resultSetType = ResultSet.TYPE_SCROLL_INSENSITIVE;
@@ -41,12 +63,16 @@ public class DASJStatement implements Statement {
     private boolean connectionClosed;
     private int queryTimeout = Integer.MAX_VALUE;
     protected ResultSet prevResultSet = null;
-    private int fetchSize = 1;
+    private int fetchSize;
     private int fetchDirection = ResultSet.FETCH_FORWARD;
+    private boolean closeOnCompletion;
+    //Completed when the last asynchronous query of the statement has finished, so that the next one starts after it
+    private CompletableFuture<Void> lastAsyncQuery = CompletableFuture.completedFuture(null);
 
     protected DASJStatement(DASJConnection connection, int resultSetType) {
         this.connection = connection;
         this.resultSetType = resultSetType;
+        this.fetchSize = connection.getDefaultFetchSize();
     }
 
     protected void checkStatus() throws SQLException {
@@ -65,14 +91,11 @@ public class DASJStatement implements Statement {
     @Override
     public ResultSet executeQuery(String sql) throws SQLException {
         checkStatus();
-        if (this.prevResultSet != null) {
-            this.prevResultSet.close();
-        }
-        this.prevResultSet = null;
+        closePreviousResultSet();
         //Parse the SQL
-        SQLParser sqlParser = new SQLParser(sql);
+        SQLParser sqlParser;
         try {
-            sqlParser.parse();
+            sqlParser = this.connection.parseQuery(sql);
         } catch (Exception e) {
             throw new SQLException("SyntaxError:executeQuery" + sql + "|" + e.getMessage());
         }
@@ -83,10 +106,7 @@ public class DASJStatement implements Statement {
 
     @Override
     public void close() throws SQLException {
-        if (this.prevResultSet != null) {
-            this.prevResultSet.close();
-        }
-        this.prevResultSet = null;
+        closePreviousResultSet();
         this.connectionClosed = true;
         this.connection.removeStatement(this);
     }
@@ -152,6 +172,9 @@ public class DASJStatement implements Statement {
     @Override
     public void setFetchSize(int rows) throws SQLException {
         checkStatus();
+        if (rows < 0) {
+            throw new SQLException("Statement-setFetchSize:invalidFetchSize:" + rows);
+        }
         this.fetchSize = rows;
     }
 
@@ -202,16 +225,12 @@ public class DASJStatement implements Statement {
     @Override
     public boolean execute(String sql) throws SQLException {
         checkStatus();
-        if (this.prevResultSet != null) {
-            this.prevResultSet.close();
-        }
-        this.prevResultSet = null;
+        closePreviousResultSet();
 
         //Parse the SQL
         ResultSet rs;
-        SQLParser sqlParser = new SQLParser(sql);
         try {
-            sqlParser.parse();
+            SQLParser sqlParser = this.connection.parseQuery(sql);
             rs = executeDASQuery(sqlParser);
             this.prevResultSet = rs;
         } catch (Exception e) {
@@ -320,33 +339,339 @@ public class DASJStatement implements Statement {
 
     @Override
     public void closeOnCompletion() throws SQLException {
+        checkStatus();
+        this.closeOnCompletion = true;
     }
 
     @Override
     public boolean isCloseOnCompletion() throws SQLException {
-        return false;
+        checkStatus();
+        return this.closeOnCompletion;
     }
 
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        return null;
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("[Not a wrapper for]: " + iface.getName());
     }
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        return false;
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql) {
+        try {
+            checkStatus();
+            return executeQueryAsync(sql, this.connection.getAsyncExecutor());
+        } catch (SQLException e) {
+            CompletableFuture<ResultSet> future = new CompletableFuture<ResultSet>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(final String sql, final Executor executor) {
+        final CompletableFuture<ResultSet> future = new CompletableFuture<ResultSet>();
+        try {
+            checkStatus();
+        } catch (SQLException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        final CompletableFuture<Void> queryDone = new CompletableFuture<Void>();
+        final Runnable query = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    runAsyncQuery(sql, future);
+                } finally {
+                    queryDone.complete(null);
+                }
+            }
+        };
+        CompletableFuture<Void> previousQuery;
+        synchronized (this) {
+            previousQuery = this.lastAsyncQuery;
+            this.lastAsyncQuery = queryDone;
+        }
+        //The queries of a statement run one at a time, in the order they are submitted
+        previousQuery.thenRun(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    executor.execute(query);
+                } catch (RejectedExecutionException e) {
+                    future.completeExceptionally(e);
+                    closeIfCompleted();
+                    queryDone.complete(null);
+                }
+            }
+        });
+        return future;
+    }
+
+    /*
+     * Execute an asynchronous query and complete its future. The result set is closed if the future is cancelled
+     * while the query runs.
+     */
+    private void runAsyncQuery(String sql, CompletableFuture<ResultSet> future) {
+        if (future.isDone()) {
+            //Cancelled before the query started
+            closeIfCompleted();
+            return;
+        }
+        try {
+            ResultSet rs = executeQuery(sql);
+            if (!future.complete(rs)) {
+                rs.close();
+            }
+        } catch (SQLException | RuntimeException e) {
+            future.completeExceptionally(e);
+            closeIfCompleted();
+        }
+    }
+
+    /*
+     * Close the statement if it is closed on completion and the query produced no result set to wait for.
+     */
+    private void closeIfCompleted() {
+        if (this.closeOnCompletion && !this.connectionClosed) {
+            try {
+                close();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Error in closing the statement", e);
+            }
+        }
+    }
+
+    /**
+     * Close the result set of the previous query of the statement.
+     */
+    protected void closePreviousResultSet() throws SQLException {
+        ResultSet resultSet = this.prevResultSet;
+        this.prevResultSet = null;
+        if (resultSet != null) {
+            resultSet.close();
+        }
+    }
+
+    /**
+     * Called by a result set of the statement when it is closed, to close the statement if it is closed on
+     * completion.
+     */
+    void resultSetClosed(ResultSet resultSet) throws SQLException {
+        if (this.closeOnCompletion && resultSet == this.prevResultSet && !this.connectionClosed) {
+            this.prevResultSet = null;
+            close();
+        }
     }
 
     /**
      * Send the query to the DAS Backend and generate the result set.
      */
     protected ResultSet executeDASQuery(SQLParser sqlParser) throws SQLException {
-        HashMap<String, String> mapColumnDataTypes = this.connection.getColumnDataTypes(sqlParser.getTableName());
-        String sDataResponse = this.connection.getTableData(sqlParser.getTableName());
-        DataReader dataReader = JSONUtil.parseDataArray(sDataResponse, mapColumnDataTypes);
+        TableSchema schema = this.connection.getTableSchema(sqlParser.getTableName());
+        Map<String, String> mapColumnDataTypes = schema.getColumnDataTypes();
+        QueryPlan plan = QueryPlanner.createPlan(sqlParser, schema);
+        int rowLimit = getRowLimit(sqlParser);
+        //Without a where clause every record is a row of the result, so only the rows within the limit are fetched.
+        //At least one record is fetched, so that the columns are known for a query with LIMIT 0.
+        int maxRecords = -1;
+        if (rowLimit >= 0 && sqlParser.getWhereExpression() == null) {
+            maxRecords = Math.max(rowLimit, 1);
+        }
+        //The where clause is evaluated on all the records of the snapshot, which is a superset of the plan
+        if (this.connection.isSnapshotTable(plan.getTableName())) {
+            return createResultSet(this.connection.getSnapshotReader(plan.getTableName(), mapColumnDataTypes),
+                    sqlParser);
+        }
+        //The records of a query which only counts them are counted by the DAS backend, if the backend supports it
+        if (plan.isCountPushdown()) {
+            DataReader countReader = createCountReader(plan, sqlParser, mapColumnDataTypes);
+            if (countReader != null) {
+                return createResultSet(countReader, sqlParser);
+            }
+        }
+        //The records retrieved by the same plan are shared by the queries through the result cache. A limited query
+        //stops reading before the end of its records, so its result is never cached and the cache is bypassed.
+        boolean cacheable = rowLimit < 0;
+        String resultKey = plan.toString();
+        DataReader dataReader;
+        long validationTimestamp = Long.MAX_VALUE;
+        if (cacheable) {
+            dataReader = this.connection.getCachedResult(resultKey);
+            if (dataReader != null) {
+                return createResultSet(dataReader, sqlParser);
+            }
+            validationTimestamp = this.connection.getResultValidationTimestamp(plan.getTableName());
+        }
+        if (plan.getSearchQuery() != null) {
+            dataReader = createSearchReader(plan, mapColumnDataTypes, getPageSize(rowLimit), maxRecords);
+        } else if (this.fetchSize > 0 || rowLimit >= 0 || this.connection.getScanParallelism() > 1
+                || this.connection.getPrefetchMemory() > 0) {
+            dataReader = createPagedReader(plan, mapColumnDataTypes, getPageSize(rowLimit), maxRecords);
+        } else if (plan.hasTimeRange()) {
+            dataReader = this.connection.getTableData(plan.getTableName(), plan.getTimeFrom(), plan.getTimeTo(), 0,
+                    ServiceConstants.DAS_SERVICE_QUERIES.RECORD_COUNT_ALL, plan.getFields(),
+                    createDataArrayHandler(mapColumnDataTypes, null, plan.getColumns()));
+        } else {
+            dataReader = this.connection.getTableData(plan.getTableName(), plan.getFields(),
+                    createDataArrayHandler(mapColumnDataTypes, null, plan.getColumns()));
+        }
+        if (cacheable) {
+            dataReader = this.connection.cacheResult(resultKey, plan.getTableName(), validationTimestamp, dataReader);
+        }
         return createResultSet(dataReader, sqlParser);
     }
 
+    /*
+     * Count the records of a query of which the only aggregates are COUNT(*) by the DAS backend, grouped by the
+     * categories of the facet column of the plan. Returns null if the backend cannot count the records, so that the
+     * records are retrieved and aggregated locally.
+     */
+    private DataReader createCountReader(QueryPlan plan, SQLParser sqlParser, Map<String, String> columnDataTypes) {
+        int functionCount = 0;
+        for (Object[] o : sqlParser.getQueryEnvironment()) {
+            if (o[1] instanceof AggregateFunction) {
+                functionCount++;
+            }
+        }
+        List<Object[]> rows = new ArrayList<Object[]>();
+        try {
+            String facetField = plan.getFacetField();
+            if (facetField == null) {
+                long count = -1;
+                if (ServiceConstants.DAS_SERVICE_QUERIES.MATCH_ALL_QUERY.equals(plan.getCountQuery())) {
+                    count = this.connection.getRecordCount(plan.getTableName());
+                }
+                if (count < 0) {
+                    count = this.connection.searchCount(plan.getTableName(), plan.getCountQuery());
+                }
+                rows.add(createCountRow(new Object[0], count, functionCount));
+                return new AggregatedDataReader(new String[0], new String[0], rows);
+            }
+            //The total is counted by the index of the facets, so that it is consistent with the categories
+            long uncategorizedCount = this.connection.searchCount(plan.getTableName(), plan.getCountQuery());
+            Map<String, Long> categories = this.connection.getFacetCounts(plan.getTableName(), facetField,
+                    plan.getCountQuery());
+            for (Map.Entry<String, Long> category : categories.entrySet()) {
+                rows.add(createCountRow(new Object[] { category.getKey() }, category.getValue(), functionCount));
+                uncategorizedCount -= category.getValue();
+            }
+            //The records without a value of the facet column are not in any category
+            if (uncategorizedCount > 0) {
+                rows.add(createCountRow(new Object[] { null }, uncategorizedCount, functionCount));
+            }
+            return new AggregatedDataReader(new String[] { RecordLayout.getColumnName(facetField) },
+                    new String[] { columnDataTypes.get(facetField) }, rows);
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Records of " + plan.getTableName() + " are counted locally", e);
+            return null;
+        }
+    }
+
+    private static Object[] createCountRow(Object[] keyValues, long count, int functionCount) {
+        Object[] row = Arrays.copyOf(keyValues, keyValues.length + functionCount);
+        Arrays.fill(row, keyValues.length, row.length, count);
+        return row;
+    }
+
+    /*
+     * Get the maximum number of rows of the result set, by the LIMIT clause and the max rows of the statement. The
+     * limit does not apply to the records of an aggregate query or of a sorted query, so -1 is returned for such
+     * queries.
+     */
+    private int getRowLimit(SQLParser sqlParser) {
+        if (sqlParser.isAggregateQuery() || !sqlParser.getSortKeys().isEmpty()) {
+            return -1;
+        }
+        int rowLimit = sqlParser.getLimit();
+        if (this.maxRows > 0 && (rowLimit < 0 || this.maxRows < rowLimit)) {
+            rowLimit = this.maxRows;
+        }
+        return rowLimit;
+    }
+
+    /*
+     * Get the number of records requested in each page. Without a fetch size, the pages of a limited query are
+     * sized to the limit.
+     */
+    private int getPageSize(int rowLimit) {
+        if (this.fetchSize > 0) {
+            return this.fetchSize;
+        } else if (rowLimit >= 0) {
+            return Math.min(Math.max(rowLimit, ServiceConstants.DAS_DRIVER_SETTINGS.MIN_LIMIT_PAGE_SIZE),
+                    ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_SEARCH_PAGE_SIZE);
+        }
+        return ServiceConstants.DAS_DRIVER_SETTINGS.DEFAULT_SEARCH_PAGE_SIZE;
+    }
+
+    /*
+     * Create a reader which scans the table page by page, with up to the scan parallelism of the connection pages
+     * requested at the same time.
+     */
+    private DataReader createPagedReader(final QueryPlan plan, final Map<String, String> mapColumnDataTypes,
+            int pageSize, int maxRecords) throws SQLException {
+        PagedDataReader.PageSource pageSource = new PagedDataReader.PageSource() {
+            @Override
+            public DataReader fetchPage(int start, int count, RecordLayout layout) throws SQLException {
+                return connection.getTableData(plan.getTableName(), plan.getTimeFrom(), plan.getTimeTo(), start,
+                        count, plan.getFields(),
+                        createDataArrayHandler(mapColumnDataTypes, layout, plan.getColumns()));
+            }
+
+            @Override
+            public void abortFetch(Thread thread) {
+                connection.abortRequest(thread);
+            }
+        };
+        return new PagedDataReader(pageSource, pageSize, maxRecords, this.connection.getFetchExecutor(),
+                this.connection.getScanParallelism(), this.connection.isScanOrdered(),
+                this.connection.getPrefetchMemory());
+    }
+
+    /*
+     * Create a reader which retrieves the records matching the search query through the DAS search API. The search
+     * results are always paged.
+     */
+    private DataReader createSearchReader(final QueryPlan plan, final Map<String, String> mapColumnDataTypes,
+            int pageSize, int maxRecords) throws SQLException {
+        PagedDataReader.PageSource pageSource = new PagedDataReader.PageSource() {
+            @Override
+            public DataReader fetchPage(int start, int count, RecordLayout layout) throws SQLException {
+                return connection.searchTableData(plan.getTableName(), plan.getSearchQuery(), start, count,
+                        plan.getFields(), createDataArrayHandler(mapColumnDataTypes, layout, plan.getColumns()));
+            }
+
+            @Override
+            public void abortFetch(Thread thread) {
+                connection.abortRequest(thread);
+            }
+        };
+        return new PagedDataReader(pageSource, pageSize, maxRecords, this.connection.getFetchExecutor(),
+                this.connection.getScanParallelism(), this.connection.isScanOrdered(),
+                this.connection.getPrefetchMemory());
+    }
+
+    /*
+     * Create a handler which decodes the records of a DAS response while they are received. Only the columns used
+     * by the query are decoded.
+     */
+    private static DASServiceConnector.ResponseHandler<DataReader> createDataArrayHandler(
+            final Map<String, String> mapColumnDataTypes, final RecordLayout layout, final Set<String> columns) {
+        return new DASServiceConnector.ResponseHandler<DataReader>() {
+            @Override
+            public DataReader handleResponse(Reader response) throws IOException {
+                return JSONUtil.parseDataArray(response, mapColumnDataTypes, layout, columns);
+            }
+        };
+    }
+
     /**
      * Create the result set by using the retrieved data from the DAS backend.
      */
@@ -354,7 +679,8 @@ public class DASJStatement implements Statement {
         ResultSet rs;
         try {
             rs = new DASJResultSet(this, reader,sqlParser.getTableName(), sqlParser.getQueryEnvironment(), ResultSet.TYPE_FORWARD_ONLY,
-                    -1, sqlParser.getWhereExpression());
+                    sqlParser.getLimit(), sqlParser.getWhereExpression(), sqlParser.getGroupByColumns(),
+                    sqlParser.getSortKeys());
         } catch (ClassNotFoundException e) {
             throw new SQLException(e.getMessage());
         }
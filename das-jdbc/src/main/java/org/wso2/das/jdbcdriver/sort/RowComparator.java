@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.sort;
+
+import org.wso2.das.jdbcdriver.expressions.Expression;
+
+import java.util.Comparator;
+
+/**
+ * Comparator of the rows of a query by the values of the ORDER BY expressions. Null values sort after all the other
+ * values in ascending order, and before them in descending order.
+ */
+public class RowComparator implements Comparator<Object[]> {
+
+    private final Expression[] expressions;
+    private final boolean[] descending;
+
+    /**
+     * @param expressions Resolved expressions of the keys, in the order of the ORDER BY clause
+     * @param descending  Whether each key is sorted in descending order
+     */
+    public RowComparator(Expression[] expressions, boolean[] descending) {
+        this.expressions = expressions;
+        this.descending = descending;
+    }
+
+    @Override
+    public int compare(Object[] row1, Object[] row2) {
+        for (int i = 0; i < this.expressions.length; i++) {
+            int comparison = compareValues(this.expressions[i].eval(row1), this.expressions[i].eval(row2));
+            if (comparison != 0) {
+                return this.descending[i] ? -comparison : comparison;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object value1, Object value2) {
+        if (value1 == value2) {
+            return 0;
+        } else if (value1 == null) {
+            return 1;
+        } else if (value2 == null) {
+            return -1;
+        } else if (value1 instanceof Number && value2 instanceof Number && value1.getClass() != value2.getClass()) {
+            //The values of an aggregate function may be of different numeric classes in different groups
+            return Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+        }
+        return ((Comparable) value1).compareTo(value2);
+    }
+}
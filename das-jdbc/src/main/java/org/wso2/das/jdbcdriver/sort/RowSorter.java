@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.sort;
+
+import org.wso2.das.jdbcdriver.dasInterface.DataReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sorter of the rows of a query by the ORDER BY clause.
+ * When the number of rows of the result is limited to at most the number of rows kept in memory, only the rows
+ * within the limit are kept, in a bounded heap which drops the row that sorts last when it is full. Rows which are
+ * equal in the order are ranked by the order in which they are added, so that the sort is stable. Otherwise the
+ * rows are sorted by an external merge sort: when the rows in memory reach the maximum, they are sorted and spilled
+ * to a temporary file as a sorted run, and the runs are merged when the sorted rows are read.
+ */
+public class RowSorter {
+
+    //Maximum number of runs merged at a time, so that the number of open files is bounded
+    private static final int MAX_MERGED_RUNS = 64;
+    //Number of rows written to a run between resets of the object stream, which releases the written rows
+    private static final int RESET_INTERVAL = 1024;
+
+    private static Logger logger = Logger.getLogger(RowSorter.class.getName());
+
+    private final Comparator<Object[]> comparator;
+    private final int limit;
+    private final int maxRows;
+    private PriorityQueue<RankedRow> topRows;
+    private long addedRows;
+    private List<Object[]> rows;
+    private List<File> runFiles = new ArrayList<File>();
+
+    /**
+     * Creates the sorter.
+     *
+     * @param comparator Order of the rows
+     * @param limit      Maximum number of rows read from the sorted rows, or -1 if all the rows are read
+     * @param maxRows    Maximum number of rows kept in memory before they are spilled
+     */
+    public RowSorter(Comparator<Object[]> comparator, int limit, int maxRows) {
+        this.comparator = comparator;
+        this.limit = limit;
+        this.maxRows = Math.max(maxRows, 1);
+        if (limit >= 0 && limit <= this.maxRows) {
+            //The head of the heap is the row which sorts last, which is dropped first
+            this.topRows = new PriorityQueue<RankedRow>(Math.max(limit, 1), new Comparator<RankedRow>() {
+                @Override
+                public int compare(RankedRow row1, RankedRow row2) {
+                    int comparison = RowSorter.this.comparator.compare(row2.row, row1.row);
+                    return comparison != 0 ? comparison : Long.compare(row2.sequence, row1.sequence);
+                }
+            });
+        } else {
+            this.rows = new ArrayList<Object[]>();
+        }
+    }
+
+    /**
+     * Add a row to the rows which are sorted.
+     *
+     * @param row Row which contains the data
+     * @throws SQLException if the rows cannot be spilled
+     */
+    public void add(Object[] row) throws SQLException {
+        long sequence = this.addedRows++;
+        if (this.topRows != null) {
+            //A row equal to the last of the top rows is added after it, so it is not one of the top rows
+            if (this.topRows.size() < this.limit) {
+                this.topRows.add(new RankedRow(row, sequence));
+            } else if (this.limit > 0 && this.comparator.compare(row, this.topRows.peek().row) < 0) {
+                this.topRows.poll();
+                this.topRows.add(new RankedRow(row, sequence));
+            }
+        } else {
+            this.rows.add(row);
+            if (this.rows.size() >= this.maxRows) {
+                Collections.sort(this.rows, this.comparator);
+                this.runFiles.add(writeRun(new DataReader(null, null, this.rows)));
+                this.rows = new ArrayList<Object[]>();
+            }
+        }
+    }
+
+    /**
+     * Get a reader of the sorted rows, after all the rows are added. The reader has to be closed to remove the
+     * spilled runs.
+     */
+    public DataReader getResults() throws SQLException {
+        if (this.topRows != null) {
+            //The heap yields the rows from the last to the first
+            Object[][] sortedRows = new Object[this.topRows.size()][];
+            for (int i = sortedRows.length - 1; i >= 0; i--) {
+                sortedRows[i] = this.topRows.poll().row;
+            }
+            this.rows = new ArrayList<Object[]>(Arrays.asList(sortedRows));
+            this.topRows = null;
+        } else {
+            Collections.sort(this.rows, this.comparator);
+        }
+        //Merge the earliest runs into a single run, until the runs can be merged at once
+        while (this.runFiles.size() > MAX_MERGED_RUNS) {
+            List<File> mergedFiles = this.runFiles.subList(0, MAX_MERGED_RUNS);
+            MergeReader mergedRuns = new MergeReader(new ArrayList<File>(mergedFiles), null);
+            File runFile;
+            try {
+                runFile = writeRun(mergedRuns);
+            } finally {
+                mergedRuns.close();
+            }
+            mergedFiles.clear();
+            this.runFiles.add(0, runFile);
+        }
+        return new MergeReader(this.runFiles, this.rows);
+    }
+
+    /*
+     * Write sorted rows to a new run file.
+     */
+    private File writeRun(DataReader sortedRows) throws SQLException {
+        File runFile = null;
+        try {
+            runFile = File.createTempFile("dasjdbc-sort", ".tmp");
+            runFile.deleteOnExit();
+            try (ObjectOutputStream output = new ObjectOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(runFile)))) {
+                int count = 0;
+                while (sortedRows.next()) {
+                    output.writeObject(sortedRows.getRow());
+                    if (++count % RESET_INTERVAL == 0) {
+                        output.reset();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            deleteFile(runFile);
+            for (File file : this.runFiles) {
+                deleteFile(file);
+            }
+            throw new SQLException("Error in spilling the sorted rows to disk:", e);
+        }
+        return runFile;
+    }
+
+    private static void deleteFile(File file) {
+        if (file != null && file.exists() && !file.delete()) {
+            logger.log(Level.FINE, "Spill file not deleted: " + file);
+        }
+    }
+
+    /*
+     * Row of the bounded heap, with the sequence in which it was added.
+     */
+    private static class RankedRow {
+        private final Object[] row;
+        private final long sequence;
+
+        private RankedRow(Object[] row, long sequence) {
+            this.row = row;
+            this.sequence = sequence;
+        }
+    }
+
+    /*
+     * Sorted rows of a run, read one row ahead so that the runs are ordered by their next rows.
+     */
+    private static class Run {
+        private final int order;
+        private final Iterator<Object[]> memoryRows;
+        private final File file;
+        private ObjectInputStream input;
+        private Object[] head;
+
+        private Run(int order, Iterator<Object[]> memoryRows, File file) {
+            this.order = order;
+            this.memoryRows = memoryRows;
+            this.file = file;
+        }
+
+        private boolean advance() throws SQLException {
+            if (this.memoryRows != null) {
+                this.head = this.memoryRows.hasNext() ? this.memoryRows.next() : null;
+                return this.head != null;
+            }
+            try {
+                if (this.input == null) {
+                    this.input = new ObjectInputStream(new BufferedInputStream(new FileInputStream(this.file)));
+                }
+                this.head = (Object[]) this.input.readObject();
+                return true;
+            } catch (EOFException e) {
+                this.head = null;
+                return false;
+            } catch (IOException | ClassNotFoundException e) {
+                throw new SQLException("Error in reading the sorted rows:", e);
+            }
+        }
+
+        private void close() {
+            if (this.input != null) {
+                try {
+                    this.input.close();
+                } catch (IOException e) {
+                    logger.log(Level.FINE, "Error in closing a spill file", e);
+                }
+                this.input = null;
+            }
+            deleteFile(this.file);
+        }
+    }
+
+    /*
+     * Reader which merges the runs in the sorted order. Rows which are equal in the order are read in the order of
+     * their runs, so the sort is stable.
+     */
+    private class MergeReader extends DataReader {
+        private final List<Run> runs = new ArrayList<Run>();
+        private final PriorityQueue<Run> queue;
+        private Run current;
+        private boolean started;
+
+        private MergeReader(List<File> files, List<Object[]> memoryRows) {
+            this.queue = new PriorityQueue<Run>(files.size() + 1, new Comparator<Run>() {
+                @Override
+                public int compare(Run run1, Run run2) {
+                    int comparison = comparator.compare(run1.head, run2.head);
+                    return comparison != 0 ? comparison : Integer.compare(run1.order, run2.order);
+                }
+            });
+            for (File file : files) {
+                this.runs.add(new Run(this.runs.size(), null, file));
+            }
+            if (memoryRows != null) {
+                this.runs.add(new Run(this.runs.size(), memoryRows.iterator(), null));
+            }
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            if (!this.started) {
+                this.started = true;
+                for (Run run : this.runs) {
+                    if (run.advance()) {
+                        this.queue.add(run);
+                    }
+                }
+            } else if (this.current != null && this.current.advance()) {
+                this.queue.add(this.current);
+            }
+            this.current = this.queue.poll();
+            return this.current != null;
+        }
+
+        @Override
+        public Object[] getRow() throws SQLException {
+            return this.current.head;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (Run run : this.runs) {
+                run.close();
+            }
+            this.queue.clear();
+            this.current = null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.sort;
+
+import org.wso2.das.jdbcdriver.expressions.Expression;
+
+/**
+ * Key of the ORDER BY clause of a query. The key is an expression, which is a column or an aggregate function of the
+ * select part, or the position of an item of the select part.
+ */
+public class SortKey {
+
+    private Expression expression;
+    private int position;
+    private boolean descending;
+
+    /**
+     * Create a key which sorts by the value of an expression.
+     *
+     * @param expression Expression evaluated on the rows
+     * @param descending Whether the rows are sorted in descending order
+     */
+    public SortKey(Expression expression, boolean descending) {
+        this.expression = expression;
+        this.descending = descending;
+    }
+
+    /**
+     * Create a key which sorts by an item of the select part.
+     *
+     * @param position   Position of the item in the select part, starting from 1
+     * @param descending Whether the rows are sorted in descending order
+     */
+    public SortKey(int position, boolean descending) {
+        this.position = position;
+        this.descending = descending;
+    }
+
+    /**
+     * Get the expression of the key, or null if the key is the position of a select item.
+     */
+    public Expression getExpression() {
+        return this.expression;
+    }
+
+    public int getPosition() {
+        return this.position;
+    }
+
+    public boolean isDescending() {
+        return this.descending;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.aggregateFunctions;
+
+import org.junit.Test;
+import org.wso2.das.jdbcdriver.expressions.ColumnName;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class AggregateFunctionTest {
+
+    private static final double DELTA = 1e-9;
+    private static final double[] VALUES = { 2, 4, 4, 4, 5, 5, 7, 9 };
+    //Sample variance of the values, which have the mean 5 and the sum of squared deviations 32
+    private static final double VARIANCE = 32.0 / 7;
+
+    @Test
+    public void testLongSum() {
+        Accumulator accumulator = createAccumulator(new SumAggrFunction(new ColumnName("V")), "LONG");
+        accumulate(accumulator, 0, 1L, 2L, 3L);
+        assertEquals(6L, accumulator.getResult(0));
+    }
+
+    @Test
+    public void testLongSumCrossingMaxValue() {
+        Accumulator accumulator = createAccumulator(new SumAggrFunction(new ColumnName("V")), "LONG");
+        accumulate(accumulator, 0, Long.MAX_VALUE - 5, 10L, 7L);
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.valueOf(12));
+        assertEquals(expected, accumulator.getPartial(0));
+        assertEquals(expected.doubleValue(), (Double) accumulator.getResult(0), 0);
+    }
+
+    @Test
+    public void testLongSumCrossingMinValue() {
+        Accumulator accumulator = createAccumulator(new SumAggrFunction(new ColumnName("V")), "LONG");
+        accumulate(accumulator, 0, Long.MIN_VALUE, -1L);
+        assertEquals(BigDecimal.valueOf(Long.MIN_VALUE).subtract(BigDecimal.ONE), accumulator.getPartial(0));
+    }
+
+    @Test
+    public void testLongSumOverflowKeepsOtherGroups() {
+        Accumulator accumulator = createAccumulator(new SumAggrFunction(new ColumnName("V")), "LONG");
+        accumulator.ensureCapacity(2);
+        accumulate(accumulator, 0, Long.MAX_VALUE, 1L);
+        accumulate(accumulator, 1, 5L, 6L);
+        assertEquals(11L, accumulator.getResult(1));
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.ONE), accumulator.getPartial(0));
+    }
+
+    @Test
+    public void testMergeLongSumPartials() {
+        SumAggrFunction function = new SumAggrFunction(new ColumnName("V"));
+        Accumulator first = createAccumulator(function, "LONG");
+        Accumulator second = createAccumulator(function, "LONG");
+        Accumulator third = createAccumulator(function, "LONG");
+        accumulate(first, 0, Long.MAX_VALUE);
+        accumulate(second, 0, 100L);
+        accumulate(third, 0, Long.MAX_VALUE, 1L);
+        Accumulator merged = createAccumulator(function, "LONG");
+        merged.ensureCapacity(1);
+        merged.mergePartial(0, first.getPartial(0));
+        merged.mergePartial(0, null);
+        assertEquals(Long.MAX_VALUE, merged.getResult(0));
+        //The long partial overflows the merged sum, and a BigDecimal partial is added to it
+        merged.mergePartial(0, second.getPartial(0));
+        merged.mergePartial(0, third.getPartial(0));
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE).multiply(BigDecimal.valueOf(2))
+                .add(BigDecimal.valueOf(101));
+        assertEquals(expected, merged.getPartial(0));
+    }
+
+    @Test
+    public void testSumWithoutValues() {
+        Accumulator accumulator = createAccumulator(new SumAggrFunction(new ColumnName("V")), "LONG");
+        accumulate(accumulator, 0, (Object) null);
+        assertNull(accumulator.getPartial(0));
+        assertNull(accumulator.getResult(0));
+    }
+
+    @Test
+    public void testVariance() {
+        Accumulator accumulator = createAccumulator(new VarianceAggrFunction(new ColumnName("V")), "DOUBLE");
+        accumulate(accumulator, 0, toObjects(VALUES, 0, VALUES.length));
+        assertEquals(VARIANCE, (Double) accumulator.getResult(0), DELTA);
+    }
+
+    @Test
+    public void testStddev() {
+        Accumulator accumulator = createAccumulator(new StddevAggrFunction(new ColumnName("V")), "DOUBLE");
+        accumulate(accumulator, 0, toObjects(VALUES, 0, VALUES.length));
+        assertEquals(Math.sqrt(VARIANCE), (Double) accumulator.getResult(0), DELTA);
+    }
+
+    @Test
+    public void testVarianceOfIntegerColumn() {
+        Accumulator accumulator = createAccumulator(new VarianceAggrFunction(new ColumnName("V")), "INTEGER");
+        accumulate(accumulator, 0, 1, 2, 3, 4);
+        assertEquals(5.0 / 3, (Double) accumulator.getResult(0), DELTA);
+    }
+
+    @Test
+    public void testVarianceOfLessThanTwoValues() {
+        Accumulator accumulator = createAccumulator(new VarianceAggrFunction(new ColumnName("V")), "DOUBLE");
+        accumulator.ensureCapacity(1);
+        assertNull(accumulator.getPartial(0));
+        assertNull(accumulator.getResult(0));
+        accumulate(accumulator, 0, 3.0);
+        assertNull(accumulator.getResult(0));
+    }
+
+    @Test
+    public void testMergeVariancePartials() {
+        VarianceAggrFunction function = new StddevAggrFunction(new ColumnName("V"));
+        //Split the values at each position, including the empty partitions
+        for (int split = 0; split <= VALUES.length; split++) {
+            Accumulator first = createAccumulator(function, "DOUBLE");
+            Accumulator second = createAccumulator(function, "DOUBLE");
+            first.ensureCapacity(1);
+            second.ensureCapacity(1);
+            accumulate(first, 0, toObjects(VALUES, 0, split));
+            accumulate(second, 0, toObjects(VALUES, split, VALUES.length));
+            Accumulator merged = createAccumulator(function, "DOUBLE");
+            merged.ensureCapacity(1);
+            merged.mergePartial(0, first.getPartial(0));
+            merged.mergePartial(0, second.getPartial(0));
+            assertEquals("Split at " + split, Math.sqrt(VARIANCE), (Double) merged.getResult(0), DELTA);
+        }
+    }
+
+    @Test
+    public void testMergeVarianceOfDistantValues() {
+        VarianceAggrFunction function = new VarianceAggrFunction(new ColumnName("V"));
+        Accumulator first = createAccumulator(function, "DOUBLE");
+        Accumulator second = createAccumulator(function, "DOUBLE");
+        accumulate(first, 0, 1e9 + 4, 1e9 + 7);
+        accumulate(second, 0, 1e9 + 13, 1e9 + 16);
+        Accumulator merged = createAccumulator(function, "DOUBLE");
+        merged.ensureCapacity(1);
+        merged.mergePartial(0, first.getPartial(0));
+        merged.mergePartial(0, second.getPartial(0));
+        assertEquals(30.0, (Double) merged.getResult(0), 1e-6);
+    }
+
+    @Test
+    public void testAverage() {
+        AvgAggrFunction function = new AvgAggrFunction(new ColumnName("V"));
+        Accumulator first = createAccumulator(function, "LONG");
+        Accumulator second = createAccumulator(function, "LONG");
+        accumulate(first, 0, 1L, 2L);
+        accumulate(second, 0, 6L);
+        Accumulator merged = createAccumulator(function, "LONG");
+        merged.ensureCapacity(1);
+        merged.mergePartial(0, first.getPartial(0));
+        merged.mergePartial(0, second.getPartial(0));
+        assertEquals(3.0, ((Number) merged.getResult(0)).doubleValue(), DELTA);
+    }
+
+    /*
+     * Create the accumulator of a function of the column V of the given type.
+     */
+    private static Accumulator createAccumulator(AggregateFunction function, String type) {
+        Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+        columnIndexes.put("V", 0);
+        function.resolveColumns(columnIndexes, new String[] { type });
+        return function.createAccumulator();
+    }
+
+    private static void accumulate(Accumulator accumulator, int group, Object... values) {
+        accumulator.ensureCapacity(group + 1);
+        for (Object value : values) {
+            accumulator.accumulate(group, new Object[] { value });
+        }
+    }
+
+    private static Object[] toObjects(double[] values, int from, int to) {
+        Object[] objects = new Object[to - from];
+        for (int i = from; i < to; i++) {
+            objects[i - from] = values[i];
+        }
+        return objects;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.aggregateFunctions;
+
+import org.junit.Test;
+import org.wso2.das.jdbcdriver.dasInterface.DataReader;
+import org.wso2.das.jdbcdriver.expressions.AsteriskExpression;
+import org.wso2.das.jdbcdriver.expressions.ColumnName;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HashAggregatorTest {
+
+    private static final String[] COLUMNS = { "K1", "K2", "V" };
+    private static final String[] TYPES = { "INTEGER", "STRING", "LONG" };
+    private static final int ROW_COUNT = 500;
+
+    @Test
+    public void testSpilledGroupsMatchInMemoryGroups() throws SQLException {
+        Map<List<Object>, List<Long>> spilled = aggregate(new int[] { 0 }, 1);
+        assertEquals(expected(new int[] { 0 }), spilled);
+        assertEquals(aggregate(new int[] { 0 }, Integer.MAX_VALUE), spilled);
+    }
+
+    @Test
+    public void testSpilledGroupsOfManyColumns() throws SQLException {
+        int[] keyIndexes = { 0, 1 };
+        assertEquals(expected(keyIndexes), aggregate(keyIndexes, 1));
+        assertEquals(expected(keyIndexes), aggregate(keyIndexes, 3));
+    }
+
+    @Test
+    public void testAggregateWithoutGroupByHasOneRow() throws SQLException {
+        HashAggregator aggregator = new HashAggregator(new int[0], createFunctions(), COLUMNS.length, 1);
+        DataReader results = aggregator.getResults();
+        assertTrue(results.next());
+        Object[] row = results.getRow();
+        assertEquals(null, row[COLUMNS.length]);
+        assertEquals(0L, row[COLUMNS.length + 1]);
+        assertFalse(results.next());
+        results.close();
+    }
+
+    @Test
+    public void testSpillFilesDeletedOnClose() throws SQLException {
+        int filesBefore = countSpillFiles();
+        HashAggregator aggregator = new HashAggregator(new int[] { 0 }, createFunctions(), COLUMNS.length, 1);
+        DataReader records = createRecords();
+        while (records.next()) {
+            aggregator.add(records.getRow());
+        }
+        DataReader results = aggregator.getResults();
+        assertTrue(results.next());
+        assertTrue(countSpillFiles() > filesBefore);
+        results.close();
+        assertEquals(filesBefore, countSpillFiles());
+    }
+
+    @Test
+    public void testSpillFilesDeletedAfterReading() throws SQLException {
+        int filesBefore = countSpillFiles();
+        aggregate(new int[] { 0 }, 1);
+        assertEquals(filesBefore, countSpillFiles());
+    }
+
+    /*
+     * Aggregate the records by the key columns, and get the SUM, COUNT(*), MIN and MAX of each group by its key.
+     */
+    private static Map<List<Object>, List<Long>> aggregate(int[] keyIndexes, int maxGroups) throws SQLException {
+        HashAggregator aggregator = new HashAggregator(keyIndexes, createFunctions(), COLUMNS.length, maxGroups);
+        DataReader records = createRecords();
+        while (records.next()) {
+            aggregator.add(records.getRow());
+        }
+        Map<List<Object>, List<Long>> groups = new HashMap<List<Object>, List<Long>>();
+        DataReader results = aggregator.getResults();
+        while (results.next()) {
+            Object[] row = results.getRow();
+            List<Object> key = new ArrayList<Object>();
+            for (int keyIndex : keyIndexes) {
+                key.add(row[keyIndex]);
+            }
+            List<Long> values = new ArrayList<Long>();
+            for (int i = 0; i < 4; i++) {
+                values.add(((Number) row[COLUMNS.length + i]).longValue());
+            }
+            assertFalse("Duplicate group " + key, groups.containsKey(key));
+            groups.put(key, values);
+        }
+        results.close();
+        return groups;
+    }
+
+    private static Map<List<Object>, List<Long>> expected(int[] keyIndexes) throws SQLException {
+        Map<List<Object>, long[]> groups = new HashMap<List<Object>, long[]>();
+        DataReader records = createRecords();
+        while (records.next()) {
+            Object[] record = records.getRow();
+            List<Object> key = new ArrayList<Object>();
+            for (int keyIndex : keyIndexes) {
+                key.add(record[keyIndex]);
+            }
+            long value = (Long) record[2];
+            long[] values = groups.get(key);
+            if (values == null) {
+                groups.put(key, new long[] { value, 1, value, value });
+            } else {
+                values[0] += value;
+                values[1]++;
+                values[2] = Math.min(values[2], value);
+                values[3] = Math.max(values[3], value);
+            }
+        }
+        Map<List<Object>, List<Long>> expected = new HashMap<List<Object>, List<Long>>();
+        for (Map.Entry<List<Object>, long[]> entry : groups.entrySet()) {
+            long[] values = entry.getValue();
+            expected.put(entry.getKey(), Arrays.asList(values[0], values[1], values[2], values[3]));
+        }
+        return expected;
+    }
+
+    private static List<AggregateFunction> createFunctions() {
+        List<AggregateFunction> functions = new ArrayList<AggregateFunction>();
+        functions.add(new SumAggrFunction(new ColumnName("V")));
+        functions.add(new CountAggrFunction(new AsteriskExpression("*")));
+        functions.add(new MinAggrFunciton(new ColumnName("V")));
+        functions.add(new MaxAggrFunction(new ColumnName("V")));
+        Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columnIndexes.put(COLUMNS[i], i);
+        }
+        for (AggregateFunction function : functions) {
+            function.resolveColumns(columnIndexes, TYPES);
+        }
+        return functions;
+    }
+
+    private static DataReader createRecords() {
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            //Some of the keys are null
+            Object k2 = i % 11 == 0 ? null : "S" + (i % 5);
+            rows.add(new Object[] { i % 37, k2, (long) (i * 3 - 700) });
+        }
+        return new DataReader(COLUMNS, TYPES, rows);
+    }
+
+    private static int countSpillFiles() {
+        String[] files = new File(System.getProperty("java.io.tmpdir")).list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith("dasjdbc-groups");
+            }
+        });
+        return files != null ? files.length : 0;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.Test;
+import org.wso2.das.jdbcdriver.dasInterface.DataReader;
+import org.wso2.das.jdbcdriver.dasInterface.RecordLayout;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JSONStreamReaderTest {
+
+    private static final String RECORDS = "["
+            + "{\"id\":\"r1\",\"tableName\":\"T\",\"timestamp\":1000,\"values\":{\"name\":\"a\\\"b\",\"age\":7,"
+            + "\"score\":2.5E1,\"tags\":[1,{\"x\":\"}]\"}],\"peak\":true,\"note\":null}},"
+            //Keys in another order, a missing key and a key which is not in the layout
+            + "{\"values\":{\"age\":-3,\"extra\":{\"y\":[[]]},\"name\":\"\\u00e9\",\"peak\":false,\"score\":0.5,"
+            + "\"tags\":[]},\"timestamp\":9223372036854775807,\"id\":\"r2\"}]";
+
+    @Test
+    public void testStringEscapes() throws Exception {
+        assertSameAsJsonSimple("\"quote \\\" backslash \\\\ slash \\/ \\b\\f\\n\\r\\t\"");
+        assertSameAsJsonSimple("\"\\u00e9\\u20AC\\uD83D\\uDE00 \\u0041\"");
+        assertSameAsJsonSimple("[\"\", \"plain\", \"\\u0000\"]");
+    }
+
+    @Test
+    public void testNumbers() throws Exception {
+        assertSameAsJsonSimple("[0, -0, 7, -42, 9223372036854775807, -9223372036854775808]");
+        assertSameAsJsonSimple("[1.5, -0.25, 1e3, 1E+2, -2.5E-2, 0.0]");
+        //json-simple fails on integers which overflow a long, they are read as doubles
+        assertEquals(1.2345678901234568E20, read("123456789012345678901"));
+        assertEquals(Double.class, read("-99999999999999999999").getClass());
+    }
+
+    @Test
+    public void testNextLong() throws IOException {
+        assertEquals(Long.MAX_VALUE, new JSONStreamReader(new StringReader("9223372036854775807")).nextLong());
+        assertEquals(Long.MIN_VALUE, new JSONStreamReader(new StringReader("-9223372036854775808")).nextLong());
+        assertEquals(-15, new JSONStreamReader(new StringReader("-15,")).nextLong());
+        for (String invalid : new String[] { "9223372036854775808", "-9223372036854775809", "2.5", "1e3", "-" }) {
+            try {
+                new JSONStreamReader(new StringReader(invalid)).nextLong();
+                fail(invalid);
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid JSON"));
+            }
+        }
+    }
+
+    @Test
+    public void testLiteralsAndNesting() throws Exception {
+        assertSameAsJsonSimple("{\"a\":null,\"b\":[null,true,false],\"c\":{}}");
+        assertSameAsJsonSimple(" [ { \"a\" : [ 1 , { \"b\" : [ ] } ] } , \"x\" ] ");
+        assertSameAsJsonSimple("{\"nested\":{\"deeper\":{\"deepest\":[[[\"v\"]]]}},\"k\":\"}\"}");
+    }
+
+    @Test
+    public void testSkipValue() throws IOException {
+        JSONStreamReader reader = new JSONStreamReader(new StringReader(
+                "[{\"a\":[1,{\"b\":\"x]}\\\"\"}],\"c\":null}, [[], {}], \"s\\\\\", -1.5e2, true, null, 3]"));
+        reader.beginArray();
+        for (int i = 0; i < 6; i++) {
+            assertTrue(reader.hasNext());
+            reader.skipValue();
+        }
+        assertTrue(reader.hasNext());
+        assertEquals(3L, reader.readValue());
+        assertFalse(reader.hasNext());
+        reader.endArray();
+    }
+
+    @Test
+    public void testParseDataArrayDecodesAllColumns() throws Exception {
+        DataReader reader = JSONUtil.parseDataArray(new StringReader(RECORDS), new HashMap<String, String>(), null,
+                null);
+        assertRecords(reader, reader.getRecordLayout(), null);
+    }
+
+    @Test
+    public void testParseDataArraySkipsProjectedColumns() throws Exception {
+        Set<String> columns = new HashSet<String>(Arrays.asList("NAME", "PEAK"));
+        DataReader reader = JSONUtil.parseDataArray(new StringReader(RECORDS), new HashMap<String, String>(), null,
+                columns);
+        RecordLayout layout = reader.getRecordLayout();
+        assertRecords(reader, layout, columns);
+        //The following pages are decoded with the layout of the first page
+        reader = JSONUtil.parseDataArray(new StringReader(RECORDS), new HashMap<String, String>(), layout, columns);
+        assertRecords(reader, layout, columns);
+    }
+
+    /*
+     * Check the rows decoded from the records against the values parsed by json-simple. The values of the columns
+     * which are not decoded are null.
+     */
+    private static void assertRecords(DataReader reader, RecordLayout layout, Set<String> columns)
+            throws SQLException, ParseException {
+        JSONArray records = (JSONArray) new JSONParser().parse(RECORDS);
+        String[] recordKeys = layout.getRecordKeys();
+        for (Object record : records) {
+            assertTrue(reader.next());
+            Object[] row = reader.getRow();
+            JSONObject values = (JSONObject) ((JSONObject) record).get("values");
+            Object[] expected = new Object[layout.getColumnCount()];
+            for (int i = 0; i < recordKeys.length; i++) {
+                if (columns == null || columns.contains(RecordLayout.getColumnName(recordKeys[i]))) {
+                    expected[i] = values.get(recordKeys[i]);
+                }
+            }
+            expected[layout.getTimestampIndex()] = ((JSONObject) record).get("timestamp");
+            assertArrayEquals(expected, row);
+        }
+        assertFalse(reader.next());
+    }
+
+    private static void assertSameAsJsonSimple(String json) throws Exception {
+        Object expected = new JSONParser().parse(json);
+        Object value = read(json);
+        assertEquals(json, expected, value);
+        assertEquals(json, expected.getClass(), value.getClass());
+    }
+
+    private static Object read(String json) throws IOException {
+        JSONStreamReader reader = new JSONStreamReader(new StringReader(json));
+        return reader.readValue();
+    }
+}
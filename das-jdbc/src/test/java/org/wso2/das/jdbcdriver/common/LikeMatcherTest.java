@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LikeMatcherTest {
+
+    private static final String ESCAPE = "\\";
+
+    private static final String[] PATTERNS = {
+            "abc", "abc%", "%abc", "%abc%", "a_c", "a%c", "_", "%", "%%", "%%abc%%", "a%%c", "ab%c%d", "_bc%",
+            "%b_", "a\\%", "a\\%%", "%\\%", "\\_bc", "a\\\\c", "a\\\\%", "100\\%", "a.c", "a*c%", "(a)%", "" };
+
+    private static final String[] INPUTS = {
+            "", "a", "abc", "abcd", "xabc", "xabcx", "ac", "abbc", "aXc", "a%", "a%c", "a%bc", "_bc", "xbc", "abcbd",
+            "abxcyd", "a\\c", "a\\cd", "100%", "1000", "a.c", "a*cz", "(a)b", "ABC", "%", "%abc%" };
+
+    @Test
+    public void testMatchesLikeRegexMatching() {
+        for (String pattern : PATTERNS) {
+            LikeMatcher matcher = LikeMatcher.compile(pattern, ESCAPE);
+            for (String input : INPUTS) {
+                assertEquals("'" + input + "' LIKE '" + pattern + "'",
+                        ServiceUtil.isPatternMatched(pattern, ESCAPE, input), matcher.matches(input));
+            }
+        }
+    }
+
+    @Test
+    public void testSimplePatterns() {
+        Object[][] cases = {
+                { "abc%", "abcdef", true }, { "abc%", "xabc", false },
+                { "%abc", "xxabc", true }, { "%abc", "abcx", false },
+                { "%abc%", "xabcx", true }, { "%abc%", "abx", false },
+                { "a_c", "abc", true }, { "a_c", "abbc", false },
+                { "a\\%", "a%", true }, { "a\\%", "ab", false },
+                { "%%", "", true }, { "%%", "anything", true } };
+        for (Object[] testCase : cases) {
+            String pattern = (String) testCase[0];
+            String input = (String) testCase[1];
+            assertEquals("'" + input + "' LIKE '" + pattern + "'", testCase[2],
+                    LikeMatcher.compile(pattern, ESCAPE).matches(input));
+        }
+    }
+
+    @Test
+    public void testWildcardsMatchLineBreaks() {
+        assertTrue(LikeMatcher.compile("a%b", ESCAPE).matches("a\nb"));
+        assertTrue(LikeMatcher.compile("a_b", ESCAPE).matches("a\nb"));
+    }
+
+    @Test
+    public void testMatchersAreCached() {
+        assertSame(LikeMatcher.getMatcher("x%y_", ESCAPE), LikeMatcher.getMatcher("x%y_", ESCAPE));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import org.junit.Test;
+import org.wso2.das.jdbcdriver.dasInterface.TableSchema;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class QueryPlannerTest {
+
+    private static final long UNBOUNDED_FROM = ServiceConstants.DAS_SERVICE_QUERIES.TIME_FROM_UNBOUNDED;
+    private static final long UNBOUNDED_TO = ServiceConstants.DAS_SERVICE_QUERIES.TIME_TO_UNBOUNDED;
+
+    private static final TableSchema SCHEMA = createSchema();
+
+    @Test
+    public void testRangeQueryOfEachOperator() throws SQLException {
+        assertEquals("age:[3 TO 3]", plan("age = 3").getSearchQuery());
+        assertEquals("age:{3 TO *]", plan("age > 3").getSearchQuery());
+        assertEquals("age:[3 TO *]", plan("age >= 3").getSearchQuery());
+        assertEquals("age:[* TO 3}", plan("age < 3").getSearchQuery());
+        assertEquals("age:[* TO 3]", plan("age <= 3").getSearchQuery());
+        assertNull(plan("age <> 3").getSearchQuery());
+        //A constant compared with a column is reversed
+        assertEquals("age:[* TO 3}", plan("3 > age").getSearchQuery());
+    }
+
+    @Test
+    public void testRangeQueryOfEachNumericType() throws SQLException {
+        assertEquals("age:{-5 TO *]", plan("age > -5").getSearchQuery());
+        assertEquals("total:[* TO 9000000000]", plan("total <= 9000000000").getSearchQuery());
+        assertEquals("score:[2.5 TO *]", plan("score >= 2.5").getSearchQuery());
+        assertEquals("score:[* TO -0.25}", plan("score < -0.25").getSearchQuery());
+        assertEquals("ratio:[7 TO 7]", plan("ratio = 7").getSearchQuery());
+        //A decimal cannot be compared with an integer column in the index
+        assertNull(plan("age > 2.5").getSearchQuery());
+    }
+
+    @Test
+    public void testUntranslatedPredicates() throws SQLException {
+        //Strings are never pushed down, as the analyzer may remove whole values
+        assertNull(plan("name = 'the'").getSearchQuery());
+        assertNull(plan("name LIKE 'a%'").getSearchQuery());
+        //A column which is not indexed is not in the search index
+        assertNull(plan("note = 1").getSearchQuery());
+    }
+
+    @Test
+    public void testAndKeepsTranslatedConjuncts() throws SQLException {
+        assertEquals("age:{3 TO *]", plan("age > 3 AND name = 'x' AND note = 1").getSearchQuery());
+        assertEquals("(age:{3 TO *]) AND (score:[* TO 2.5})",
+                plan("age > 3 AND name = 'x' AND score < 2.5").getSearchQuery());
+        assertEquals("age:{3 TO *]", plan("age > 3 AND (score < 1 OR name = 'x')").getSearchQuery());
+    }
+
+    @Test
+    public void testOrIsDroppedUnlessAllBranchesAreTranslated() throws SQLException {
+        assertEquals("(age:{3 TO *]) OR (score:[* TO 1})", plan("age > 3 OR score < 1").getSearchQuery());
+        assertNull(plan("age > 3 OR name = 'x'").getSearchQuery());
+        assertNull(plan("age > 3 OR note = 1").getSearchQuery());
+        assertEquals("(age:[1 TO 1]) OR ((score:{2 TO *]) AND (age:[* TO 0}))",
+                plan("age = 1 OR (score > 2 AND age < 0)").getSearchQuery());
+    }
+
+    @Test
+    public void testTimestampRange() throws SQLException {
+        assertTimeRange("timestamp >= 100 AND timestamp < 200", 100, 200);
+        assertTimeRange("timestamp = 150", 150, 151);
+        assertTimeRange("timestamp <= 150", UNBOUNDED_FROM, 151);
+        assertTimeRange("timestamp > 100", 101, UNBOUNDED_TO);
+        assertTimeRange("timestamp > -5", -4, UNBOUNDED_TO);
+        //The narrowest bounds are kept
+        assertTimeRange("timestamp > 100 AND timestamp >= 50 AND timestamp <= 300 AND timestamp < 250", 101, 250);
+        assertTimeRange("100 <= timestamp", 100, UNBOUNDED_TO);
+        //A bound inside a disjunction does not narrow the range
+        assertTimeRange("timestamp >= 100 OR age = 1", UNBOUNDED_FROM, UNBOUNDED_TO);
+        assertTimeRange("timestamp <> 100", UNBOUNDED_FROM, UNBOUNDED_TO);
+    }
+
+    @Test
+    public void testTimestampRangeIsAddedToSearchQuery() throws SQLException {
+        QueryPlan plan = plan("age > 3 AND timestamp >= 100 AND timestamp <= 200");
+        assertEquals("(age:{3 TO *]) AND (_timestamp:[100 TO 201})", plan.getSearchQuery());
+        assertEquals(100, plan.getTimeFrom());
+        assertEquals(201, plan.getTimeTo());
+        //Without a search query the range is scanned by the time range API
+        assertNull(plan("timestamp >= 100").getSearchQuery());
+    }
+
+    @Test
+    public void testPlanWithoutWhereClause() throws SQLException {
+        QueryPlan plan = plan(null);
+        assertNull(plan.getSearchQuery());
+        assertFalse(plan.hasTimeRange());
+        assertEquals(Arrays.asList("name"), plan.getFields());
+    }
+
+    @Test
+    public void testExactlyTranslatedCountIsPushedDown() throws SQLException {
+        assertCountQuery(null, ServiceConstants.DAS_SERVICE_QUERIES.MATCH_ALL_QUERY);
+        assertCountQuery("age > 3", "age:{3 TO *]");
+        assertCountQuery("age > 3 OR score <= 1", "(age:{3 TO *]) OR (score:[* TO 1])");
+        assertCountQuery("timestamp >= 100", "_timestamp:[100 TO *}");
+        assertCountQuery("age > 3 AND timestamp < 200", "(age:{3 TO *]) AND (_timestamp:[* TO 200})");
+    }
+
+    @Test
+    public void testCountIsCountedLocallyUnlessExactlyTranslated() throws SQLException {
+        String[] wheres = {
+                "name = 'x'",
+                "name LIKE 'a%'",
+                "timestamp >= 100 OR age = 1",
+                "age > 2.5",
+                "note = 1",
+                "age <> 3",
+                //The conjunct on the indexed column is only a superset of the matching records
+                "age > 3 AND name = 'x'" };
+        for (String where : wheres) {
+            QueryPlan plan = plan("SELECT COUNT(*) FROM T", where);
+            assertNull(where, plan.getCountQuery());
+            assertFalse(where, plan.isCountPushdown());
+        }
+    }
+
+    @Test
+    public void testCountPushdownOfSelectItems() throws SQLException {
+        assertFalse(plan("SELECT name FROM T", "age > 3").isCountPushdown());
+        assertFalse(plan("SELECT COUNT(age) FROM T", "age > 3").isCountPushdown());
+        assertFalse(plan("SELECT COUNT(*), MAX(age) FROM T", "age > 3").isCountPushdown());
+        QueryPlan plan = plan("SELECT city, COUNT(*) FROM T WHERE age > 3 GROUP BY city", null);
+        assertTrue(plan.isCountPushdown());
+        assertEquals("city", plan.getFacetField());
+        //Only the records of a facet column are counted by category
+        assertFalse(plan("SELECT age, COUNT(*) FROM T WHERE age > 3 GROUP BY age", null).isCountPushdown());
+        assertFalse(plan("SELECT city, age, COUNT(*) FROM T GROUP BY city, age", null).isCountPushdown());
+    }
+
+    private static void assertCountQuery(String where, String countQuery) throws SQLException {
+        QueryPlan plan = plan("SELECT COUNT(*) FROM T", where);
+        assertEquals(where, countQuery, plan.getCountQuery());
+        assertTrue(where, plan.isCountPushdown());
+    }
+
+    private static void assertTimeRange(String where, long from, long to) throws SQLException {
+        QueryPlan plan = plan(where);
+        assertEquals(where, from, plan.getTimeFrom());
+        assertEquals(where, to, plan.getTimeTo());
+    }
+
+    private static QueryPlan plan(String where) throws SQLException {
+        return plan("SELECT name FROM T", where);
+    }
+
+    private static QueryPlan plan(String select, String where) throws SQLException {
+        SQLParser parser = new SQLParser(where == null ? select : select + " WHERE " + where);
+        parser.parse();
+        return QueryPlanner.createPlan(parser, SCHEMA);
+    }
+
+    private static TableSchema createSchema() {
+        Map<String, String> columnDataTypes = new LinkedHashMap<String, String>();
+        columnDataTypes.put("name", "STRING");
+        columnDataTypes.put("age", "INTEGER");
+        columnDataTypes.put("total", "LONG");
+        columnDataTypes.put("score", "DOUBLE");
+        columnDataTypes.put("ratio", "FLOAT");
+        columnDataTypes.put("note", "INTEGER");
+        columnDataTypes.put("city", "FACET");
+        return new TableSchema(columnDataTypes, Collections.<String>emptyList(),
+                Arrays.asList("name", "age", "total", "score", "ratio", "city"), Arrays.asList("city"));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import org.junit.Test;
+import org.wso2.das.jdbcdriver.expressions.Expression;
+import org.wso2.das.jdbcdriver.expressions.RelationOpExpression;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SQLParserTest {
+
+    private static final String[] COLUMNS = { "NAME", "AGE", "SCORE" };
+    private static final String[] TYPES = { "STRING", "INTEGER", "DOUBLE" };
+
+    @Test
+    public void testNegativeLiteralIsFoldedIntoNumber() throws SQLException {
+        assertEquals("-5", getLiteral("SELECT name FROM T WHERE age > -5"));
+        assertEquals("-2.5", getLiteral("SELECT name FROM T WHERE score <= -2.5"));
+        assertEquals("5", getLiteral("SELECT name FROM T WHERE age = -(-5)"));
+    }
+
+    @Test
+    public void testNegativeLiteralOnIntegerColumn() throws SQLException {
+        String[] queries = {
+                "SELECT name FROM T WHERE age > -5",
+                "SELECT name FROM T WHERE age = -5",
+                "SELECT name FROM T WHERE age < -5",
+                "SELECT name FROM T WHERE -5 < age",
+                "SELECT name FROM T WHERE age <> -5" };
+        boolean[][] expected = {
+                { true, false, false, true },
+                { false, true, false, false },
+                { false, false, true, false },
+                { true, false, false, true },
+                { true, false, true, true } };
+        int[] ages = { 3, -5, -6, 0 };
+        for (int q = 0; q < queries.length; q++) {
+            Expression where = parseWhere(queries[q]);
+            for (int i = 0; i < ages.length; i++) {
+                assertEquals(queries[q] + " age=" + ages[i], expected[q][i],
+                        Boolean.TRUE.equals(where.isTrue(new Object[] { "a", ages[i], 0.0 })));
+            }
+        }
+    }
+
+    @Test
+    public void testNegativeLiteralOnDoubleColumn() throws SQLException {
+        Expression where = parseWhere("SELECT name FROM T WHERE score >= -2.5");
+        assertTrue(where.isTrue(new Object[] { "a", 1, -2.5 }));
+        assertTrue(where.isTrue(new Object[] { "a", 1, 0.0 }));
+        assertFalse(where.isTrue(new Object[] { "a", 1, -2.6 }));
+    }
+
+    @Test
+    public void testSubtractionIsNotFolded() throws SQLException {
+        //Only a unary minus over a number is a literal
+        Expression where = parseWhere("SELECT name FROM T WHERE age > 1 - 5");
+        assertFalse(Boolean.TRUE.equals(where.isTrue(new Object[] { "a", 3, 0.0 })));
+    }
+
+    private static String getLiteral(String query) throws SQLException {
+        SQLParser parser = new SQLParser(query);
+        parser.parse();
+        return ((RelationOpExpression) parser.getWhereExpression()).getRight().toString();
+    }
+
+    private static Expression parseWhere(String query) throws SQLException {
+        SQLParser parser = new SQLParser(query);
+        parser.parse();
+        Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columnIndexes.put(COLUMNS[i], i);
+        }
+        Expression where = parser.getWhereExpression();
+        where.resolveColumns(columnIndexes, TYPES);
+        return where;
+    }
+}
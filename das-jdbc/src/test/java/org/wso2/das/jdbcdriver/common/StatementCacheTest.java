@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.common;
+
+import org.junit.Test;
+import org.wso2.das.jdbcdriver.expressions.Expression;
+import org.wso2.das.jdbcdriver.expressions.RelationOpExpression;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StatementCacheTest {
+
+    private static final String[] COLUMNS = { "name", "age", "score" };
+    private static final String[] TYPES = { "STRING", "INTEGER", "DOUBLE" };
+
+    @Test
+    public void testNormalizeReplacesLiteralsOfWhereClause() {
+        List<String> literals = new ArrayList<String>();
+        String sql = StatementCache.normalize("SELECT  name FROM T\n WHERE name = 'Bob' AND age > 30 ;", literals);
+        assertEquals("SELECT name FROM T WHERE name = ? AND age > ?", sql);
+        assertEquals(Arrays.asList("Bob", "30"), literals);
+    }
+
+    @Test
+    public void testNormalizeKeepsLiteralsOutsideWhereClause() {
+        List<String> literals = new ArrayList<String>();
+        String sql = StatementCache.normalize("SELECT name, 'x' FROM T WHERE age = 1 ORDER BY 1 LIMIT 10", literals);
+        assertEquals("SELECT name, 'x' FROM T WHERE age = ? ORDER BY 1 LIMIT 10", sql);
+        assertEquals(Arrays.asList("1"), literals);
+    }
+
+    @Test
+    public void testNormalizeQuotes() {
+        List<String> literals = new ArrayList<String>();
+        String sql = StatementCache.normalize("SELECT \"my col\" FROM T WHERE name = 'O''Brien  x' AND a = \"b c\"",
+                literals);
+        assertEquals("SELECT \"my col\" FROM T WHERE name = ? AND a = \"b c\"", sql);
+        assertEquals(Arrays.asList("O''Brien  x"), literals);
+    }
+
+    @Test
+    public void testNormalizeKeepsSignedNumbers() {
+        List<String> literals = new ArrayList<String>();
+        String sql = StatementCache.normalize("SELECT name FROM T WHERE age > -5 AND score < 2.5", literals);
+        assertEquals("SELECT name FROM T WHERE age > -5 AND score < ?", sql);
+        assertEquals(Arrays.asList("2.5"), literals);
+    }
+
+    @Test
+    public void testNormalizeKeepsParameterSlots() {
+        List<String> literals = new ArrayList<String>();
+        String sql = StatementCache.normalize("SELECT name FROM T WHERE age = ? AND name = 'a' AND col1 = 2", literals);
+        assertEquals("SELECT name FROM T WHERE age = ? AND name = ? AND col1 = ?", sql);
+        assertEquals(Arrays.asList(null, "a", "2"), literals);
+    }
+
+    @Test
+    public void testNormalizeUnclosedQuote() {
+        List<String> literals = new ArrayList<String>();
+        String sql = StatementCache.normalize("SELECT name FROM T WHERE name = 'abc", literals);
+        assertEquals("SELECT name FROM T WHERE name = 'abc", sql);
+        assertTrue(literals.isEmpty());
+    }
+
+    @Test
+    public void testQueriesDifferingInLiteralsShareCacheEntry() throws SQLException {
+        StatementCache cache = new StatementCache(10);
+        SQLParser first = cache.getParser("SELECT name FROM T WHERE age > 30 AND name = 'Bob'");
+        SQLParser second = cache.getParser("SELECT name FROM T WHERE age > 40 AND name = 'Ann'");
+        assertEquals(1, cache.getStatistics().getSize());
+        assertEquals(1, cache.getStatistics().getHitCount());
+        assertTrue(matches(first, "Bob", 35, 0.0));
+        assertFalse(matches(first, "Ann", 45, 0.0));
+        assertTrue(matches(second, "Ann", 45, 0.0));
+        assertFalse(matches(second, "Ann", 35, 0.0));
+        assertFalse(matches(second, "Bob", 45, 0.0));
+    }
+
+    @Test
+    public void testCachedParserMatchesUncachedParser() throws SQLException {
+        String[] queries = {
+                "SELECT name FROM T WHERE name = 'O''Brien'",
+                "SELECT name FROM T WHERE score >= 2.5 OR age < 3",
+                "SELECT name FROM T WHERE age > -5",
+                "SELECT name FROM T WHERE name LIKE 'B%' AND age <> 4",
+                "SELECT name FROM T WHERE age = 7 LIMIT 3" };
+        Object[][] rows = { { "O'Brien", 1, 1.0 }, { "Bob", 7, 2.5 }, { "Ann", 4, 0.5 }, { "Bea", -6, 3.0 } };
+        //Expected result of each query on each row
+        boolean[][] expected = {
+                { true, false, false, false },
+                { true, true, false, true },
+                { true, true, true, false },
+                { false, true, false, true },
+                { false, true, false, false } };
+        StatementCache cache = new StatementCache(10);
+        for (int q = 0; q < queries.length; q++) {
+            String query = queries[q];
+            //The second parser of the query is built from the cached statement
+            cache.getParser(query);
+            SQLParser cached = cache.getParser(query);
+            SQLParser parsed = new SQLParser(query);
+            parsed.parse();
+            assertEquals(query, parsed.getLimit(), cached.getLimit());
+            for (int i = 0; i < rows.length; i++) {
+                String message = query + " " + Arrays.toString(rows[i]);
+                assertEquals(message, expected[q][i], matches(parsed, rows[i]));
+                assertEquals(message, expected[q][i], matches(cached, rows[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testNotNormalizedQueryIsParsedEachTime() throws SQLException {
+        StatementCache cache = new StatementCache(10);
+        //The literal of the arithmetic expression is not a value slot, so it cannot be a parameter
+        String query = "SELECT name FROM T WHERE age + 1 > 3";
+        SQLParser first = cache.getParser(query);
+        SQLParser second = cache.getParser(query);
+        assertEquals(1, cache.getStatistics().getSize());
+        assertTrue(first != second);
+        assertEquals("3", ((RelationOpExpression) second.getWhereExpression()).getRight().toString());
+    }
+
+    @Test
+    public void testDisabledCache() throws SQLException {
+        StatementCache cache = new StatementCache(0);
+        SQLParser parser = cache.getParser("SELECT name FROM T WHERE age = 3");
+        assertEquals(0, cache.getStatistics().getSize());
+        assertTrue(matches(parser, "a", 3, 0.0));
+    }
+
+    private static boolean matches(SQLParser parser, Object... row) {
+        Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columnIndexes.put(COLUMNS[i], i);
+            columnIndexes.put(COLUMNS[i].toUpperCase(), i);
+        }
+        Expression where = parser.getWhereExpression();
+        where.resolveColumns(columnIndexes, TYPES);
+        return Boolean.TRUE.equals(where.isTrue(row));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.dasInterface;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PagedDataReaderTest {
+
+    private static final String[] COLUMNS = { "ID" };
+    private static final String[] TYPES = { "INTEGER" };
+    private static final int PAGE_SIZE = 10;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdownExecutor() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testCloseAbortsThePagesBeingFetched() throws Exception {
+        BlockingPageSource pageSource = new BlockingPageSource(3);
+        DataReader reader = new PagedDataReader(pageSource, PAGE_SIZE, -1, this.executor, 3, true, 0);
+        assertTrue(reader.next());
+        //The pages after the first page are blocked on the network
+        assertTrue(pageSource.fetching.await(10, TimeUnit.SECONDS));
+        reader.close();
+        assertTrue(pageSource.aborted.await(10, TimeUnit.SECONDS));
+        assertEquals(pageSource.blockedThreads, pageSource.abortedThreads);
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testPagesAreReadInOrder() throws SQLException {
+        BlockingPageSource pageSource = new BlockingPageSource(0);
+        DataReader reader = new PagedDataReader(pageSource, PAGE_SIZE, 95, this.executor, 3, true, 0);
+        int expected = 0;
+        while (reader.next()) {
+            assertEquals(expected++, reader.getRow()[0]);
+        }
+        assertEquals(95, expected);
+        assertTrue(pageSource.abortedThreads.isEmpty());
+    }
+
+    /*
+     * Source of which the pages after the first page block until they are aborted, if the given number of pages
+     * are expected to block.
+     */
+    private static class BlockingPageSource implements PagedDataReader.PageSource {
+        private final CountDownLatch fetching;
+        private final CountDownLatch aborted;
+        private final Set<Thread> blockedThreads = ConcurrentHashMap.newKeySet();
+        private final Set<Thread> abortedThreads = ConcurrentHashMap.newKeySet();
+
+        private BlockingPageSource(int blockedPages) {
+            this.fetching = new CountDownLatch(blockedPages);
+            this.aborted = new CountDownLatch(blockedPages);
+        }
+
+        @Override
+        public DataReader fetchPage(int start, int count, RecordLayout layout) throws SQLException {
+            if (start > 0 && this.fetching.getCount() > 0) {
+                this.blockedThreads.add(Thread.currentThread());
+                this.fetching.countDown();
+                //A network read, which is not interrupted when the request is cancelled
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (!this.abortedThreads.contains(Thread.currentThread()) && System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+                throw new SQLException("Connection closed");
+            }
+            List<Object[]> records = new ArrayList<Object[]>();
+            for (int i = start; i < start + count; i++) {
+                records.add(new Object[] { i });
+            }
+            return new DataReader(COLUMNS, TYPES, records);
+        }
+
+        @Override
+        public void abortFetch(Thread thread) {
+            if (this.abortedThreads.add(thread)) {
+                this.aborted.countDown();
+            }
+        }
+    }
+}
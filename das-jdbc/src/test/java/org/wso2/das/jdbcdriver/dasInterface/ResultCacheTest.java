@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.dasInterface;
+
+import org.junit.After;
+import org.junit.Test;
+import org.wso2.das.jdbcdriver.expressions.Expression;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResultCacheTest {
+
+    private static final String[] COLUMNS = { "ID" };
+    private static final String[] TYPES = { "INTEGER" };
+    private static final int RECORD_COUNT = 95;
+
+    //Records with an even id
+    private static final Expression EVEN_FILTER = new Expression() {
+        @Override
+        public Boolean isTrue(Object[] row) {
+            return (Integer) row[0] % 2 == 0;
+        }
+    };
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutdownExecutor() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testFilteredPagedScanCachesAllRecords() throws SQLException {
+        ResultCache cache = new ResultCache(1L << 30, 60000);
+        DataReader reader = cache.cacheResult("plan", "T", Long.MAX_VALUE, createPagedReader());
+        assertTrue(reader.setRowFilter(EVEN_FILTER));
+        List<Integer> ids = readIds(reader);
+        assertEquals((RECORD_COUNT + 1) / 2, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(Integer.valueOf(i * 2), ids.get(i));
+        }
+        //The cached result is not filtered, so that it is shared by the queries of the plan
+        DataReader cached = cache.get("plan", null);
+        assertNotNull(cached);
+        List<Integer> cachedIds = readIds(cached);
+        assertEquals(RECORD_COUNT, cachedIds.size());
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            assertEquals(Integer.valueOf(i), cachedIds.get(i));
+        }
+    }
+
+    @Test
+    public void testUnfilteredPagedScanIsCached() throws SQLException {
+        ResultCache cache = new ResultCache(1L << 30, 60000);
+        assertEquals(RECORD_COUNT, readIds(cache.cacheResult("plan", "T", Long.MAX_VALUE, createPagedReader()))
+                .size());
+        assertEquals(RECORD_COUNT, readIds(cache.get("plan", null)).size());
+    }
+
+    @Test
+    public void testFilterIsNotPassedToOtherReaders() throws SQLException {
+        ResultCache cache = new ResultCache(1L << 30, 60000);
+        DataReader reader = cache.cacheResult("plan", "T", Long.MAX_VALUE,
+                new DataReader(COLUMNS, TYPES, createRecords(0, RECORD_COUNT)));
+        assertFalse(reader.setRowFilter(EVEN_FILTER));
+        assertEquals(RECORD_COUNT, readIds(reader).size());
+        assertEquals(RECORD_COUNT, readIds(cache.get("plan", null)).size());
+    }
+
+    @Test
+    public void testScanClosedBeforeTheEndIsNotCached() throws SQLException {
+        ResultCache cache = new ResultCache(1L << 30, 60000);
+        DataReader reader = cache.cacheResult("plan", "T", Long.MAX_VALUE, createPagedReader());
+        reader.setRowFilter(EVEN_FILTER);
+        assertTrue(reader.next());
+        reader.close();
+        assertNull(cache.get("plan", null));
+    }
+
+    @Test
+    public void testResultLargerThanTheCacheIsNotCached() throws SQLException {
+        ResultCache cache = new ResultCache(1024, 60000);
+        DataReader reader = cache.cacheResult("plan", "T", Long.MAX_VALUE, createPagedReader());
+        reader.setRowFilter(EVEN_FILTER);
+        assertEquals((RECORD_COUNT + 1) / 2, readIds(reader).size());
+        assertNull(cache.get("plan", null));
+    }
+
+    private DataReader createPagedReader() throws SQLException {
+        PagedDataReader.PageSource pageSource = new PagedDataReader.PageSource() {
+            @Override
+            public DataReader fetchPage(int start, int count, RecordLayout layout) {
+                return new DataReader(COLUMNS, TYPES, createRecords(start, Math.min(start + count, RECORD_COUNT)));
+            }
+
+            @Override
+            public void abortFetch(Thread thread) {
+            }
+        };
+        return new PagedDataReader(pageSource, 10, -1, this.executor, 4, true, 0);
+    }
+
+    private static List<Object[]> createRecords(int from, int to) {
+        List<Object[]> records = new ArrayList<Object[]>();
+        for (int i = from; i < to; i++) {
+            records.add(new Object[] { i });
+        }
+        return records;
+    }
+
+    private static List<Integer> readIds(DataReader reader) throws SQLException {
+        List<Integer> ids = new ArrayList<Integer>();
+        while (reader.next()) {
+            ids.add((Integer) reader.getRow()[0]);
+        }
+        return ids;
+    }
+}
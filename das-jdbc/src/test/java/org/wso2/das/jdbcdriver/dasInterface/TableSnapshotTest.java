@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.dasInterface;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TableSnapshotTest {
+
+    @Test
+    public void testRecordsSharingTimestampAcrossSyncs() throws SQLException {
+        StubSource source = new StubSource();
+        TableSnapshot snapshot = new TableSnapshot("T");
+        source.add(1, "a").add(2, "b").add(2, "c");
+        assertEquals(Arrays.asList("a", "b", "c"), readIds(snapshot.sync(source)));
+        assertEquals(2, snapshot.getLastTimestamp());
+        //More records at the newest timestamp of the previous sync are found, and the tail is not duplicated
+        source.add(2, "d").add(3, "e");
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e"), readIds(snapshot.sync(source)));
+        source.add(3, "f");
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f"), readIds(snapshot.sync(source)));
+        assertEquals(6, snapshot.getRecordCount());
+        assertEquals(Arrays.asList(Long.MIN_VALUE, 2L, 3L), source.requests);
+    }
+
+    @Test
+    public void testSyncWithoutNewRecords() throws SQLException {
+        StubSource source = new StubSource();
+        TableSnapshot snapshot = new TableSnapshot("T");
+        assertEquals(Collections.emptyList(), readIds(snapshot.sync(source)));
+        source.add(5, "a").add(5, "b");
+        assertEquals(Arrays.asList("a", "b"), readIds(snapshot.sync(source)));
+        DataReader reader = snapshot.sync(source);
+        assertEquals(2, reader.getRowCount());
+        assertEquals(Arrays.asList("a", "b"), readIds(reader));
+        assertEquals(2, snapshot.getRecordCount());
+        assertEquals(5, snapshot.getLastTimestamp());
+    }
+
+    @Test
+    public void testReaderKeepsRecordsOfItsSync() throws SQLException {
+        StubSource source = new StubSource();
+        TableSnapshot snapshot = new TableSnapshot("T");
+        source.add(1, "a").add(1, "b");
+        DataReader first = snapshot.sync(source);
+        List<DataReader> readers = new ArrayList<DataReader>();
+        List<List<String>> expected = new ArrayList<List<String>>();
+        List<String> ids = new ArrayList<String>(Arrays.asList("a", "b"));
+        //Enough syncs for the chunks to be merged several times, each adding records at two timestamps
+        for (int i = 0; i < 200; i++) {
+            source.add(2 * i + 1, "x" + i).add(2 * i + 2, "y" + i);
+            ids.add("x" + i);
+            ids.add("y" + i);
+            readers.add(snapshot.sync(source));
+            expected.add(new ArrayList<String>(ids));
+        }
+        assertEquals(Arrays.asList("a", "b"), readIds(first));
+        for (int i = 0; i < readers.size(); i++) {
+            assertEquals(expected.get(i).size(), readers.get(i).getRowCount());
+            assertEquals(expected.get(i), readIds(readers.get(i)));
+        }
+        assertEquals(ids.size(), snapshot.getRecordCount());
+    }
+
+    @Test
+    public void testReaderStartedBeforeLaterSync() throws SQLException {
+        StubSource source = new StubSource();
+        TableSnapshot snapshot = new TableSnapshot("T");
+        source.add(1, "a").add(2, "b");
+        DataReader reader = snapshot.sync(source);
+        reader.next();
+        assertEquals("a", getId(reader));
+        source.add(2, "c").add(3, "d");
+        snapshot.sync(source);
+        //The reader still reads the tail of its own sync
+        reader.next();
+        assertEquals("b", getId(reader));
+        assertFalse(reader.next());
+    }
+
+    private static List<String> readIds(DataReader reader) throws SQLException {
+        List<String> ids = new ArrayList<String>();
+        while (reader.next()) {
+            ids.add(getId(reader));
+        }
+        return ids;
+    }
+
+    private static String getId(DataReader reader) throws SQLException {
+        return (String) reader.getRow()[reader.getRecordLayout().indexOf("id")];
+    }
+
+    /*
+     * Append-only table of records with an id, in the order of their timestamps.
+     */
+    private static class StubSource implements TableSnapshot.RecordSource {
+        private final List<Long> timestamps = new ArrayList<Long>();
+        private final List<String> ids = new ArrayList<String>();
+        private final List<Long> requests = new ArrayList<Long>();
+
+        private StubSource add(long timestamp, String id) {
+            this.timestamps.add(timestamp);
+            this.ids.add(id);
+            return this;
+        }
+
+        @Override
+        public DataReader fetchRecords(long timeFrom, RecordLayout layout) {
+            this.requests.add(timeFrom);
+            if (layout == null && !this.ids.isEmpty()) {
+                layout = RecordLayout.fromRecordKeys(Collections.singletonList("id"),
+                        Collections.singletonMap("id", "STRING"));
+            }
+            List<Object[]> rows = new ArrayList<Object[]>();
+            for (int i = 0; i < this.ids.size(); i++) {
+                if (this.timestamps.get(i) >= timeFrom) {
+                    Object[] row = new Object[layout.getColumnCount()];
+                    row[layout.indexOf("id")] = this.ids.get(i);
+                    row[layout.getTimestampIndex()] = this.timestamps.get(i);
+                    rows.add(row);
+                }
+            }
+            DataReader reader = new DataReader(new String[0], new String[0], rows);
+            if (layout != null) {
+                reader.setRecordLayout(layout);
+            }
+            return reader;
+        }
+    }
+}
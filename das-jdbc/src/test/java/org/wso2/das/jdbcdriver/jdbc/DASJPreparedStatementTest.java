@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.jdbc;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.das.jdbcdriver.dasInterface.DASServiceConnector;
+import org.wso2.das.jdbcdriver.dasInterface.TableSchema;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DASJPreparedStatementTest {
+
+    private static final String RECORDS = "["
+            + record(100, "a", 1, "9007199254740992", "0.1", true) + ","
+            + record(101, "b", 3, "9007199254740993", "0.2", false) + ","
+            + record(102, "ab", 5, "10", "0.30000000000000004", true) + ","
+            + record(103, "c", 7, "20", "0.3", false) + "]";
+
+    private DASJConnection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        this.connection = new RecordsConnection();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        this.connection.close();
+    }
+
+    @Test
+    public void testReexecutionUsesTheNewValues() throws SQLException {
+        PreparedStatement statement = this.connection.prepareStatement("SELECT name FROM T WHERE age > ?");
+        statement.setInt(1, 2);
+        assertEquals(Arrays.asList("b", "ab", "c"), names(statement.executeQuery()));
+        statement.setInt(1, 4);
+        assertEquals(Arrays.asList("ab", "c"), names(statement.executeQuery()));
+        statement.setInt(1, 0);
+        assertEquals(Arrays.asList("a", "b", "ab", "c"), names(statement.executeQuery()));
+    }
+
+    @Test
+    public void testReexecutionDoesNotKeepTheAggregateState() throws SQLException {
+        PreparedStatement statement = this.connection.prepareStatement(
+                "SELECT COUNT(*), SUM(age) FROM T WHERE age > ?");
+        statement.setInt(1, 2);
+        assertAggregates(statement.executeQuery(), 3, 15);
+        statement.setInt(1, 4);
+        assertAggregates(statement.executeQuery(), 2, 12);
+        statement.setInt(1, 2);
+        assertAggregates(statement.executeQuery(), 3, 15);
+    }
+
+    @Test
+    public void testLongParameterIsComparedAsLong() throws SQLException {
+        //Both values are the same double, so only a comparison of longs tells them apart
+        PreparedStatement statement = this.connection.prepareStatement("SELECT name FROM T WHERE total = ?");
+        statement.setLong(1, 9007199254740993L);
+        assertEquals(Collections.singletonList("b"), names(statement.executeQuery()));
+        statement.setLong(1, 9007199254740992L);
+        assertEquals(Collections.singletonList("a"), names(statement.executeQuery()));
+        statement.setObject(1, 20L);
+        assertEquals(Collections.singletonList("c"), names(statement.executeQuery()));
+    }
+
+    @Test
+    public void testDoubleParameterIsComparedAsDouble() throws SQLException {
+        PreparedStatement statement = this.connection.prepareStatement("SELECT name FROM T WHERE score = ?");
+        statement.setDouble(1, 0.1 + 0.2);
+        assertEquals(Collections.singletonList("ab"), names(statement.executeQuery()));
+        statement.setDouble(1, 0.3);
+        assertEquals(Collections.singletonList("c"), names(statement.executeQuery()));
+
+        statement = this.connection.prepareStatement("SELECT name FROM T WHERE age = ?");
+        statement.setDouble(1, 3.0);
+        assertEquals(Collections.singletonList("b"), names(statement.executeQuery()));
+        statement.setDouble(1, 3.5);
+        assertEquals(Collections.<String>emptyList(), names(statement.executeQuery()));
+    }
+
+    @Test
+    public void testBooleanParameter() throws SQLException {
+        PreparedStatement statement = this.connection.prepareStatement("SELECT name FROM T WHERE active = ?");
+        statement.setBoolean(1, true);
+        assertEquals(Arrays.asList("a", "ab"), names(statement.executeQuery()));
+        statement.setBoolean(1, false);
+        assertEquals(Arrays.asList("b", "c"), names(statement.executeQuery()));
+    }
+
+    @Test
+    public void testLikePatternParameter() throws SQLException {
+        PreparedStatement statement = this.connection.prepareStatement("SELECT name FROM T WHERE name LIKE ?");
+        statement.setString(1, "a%");
+        assertEquals(Arrays.asList("a", "ab"), names(statement.executeQuery()));
+        statement.setString(1, "%b");
+        assertEquals(Arrays.asList("b", "ab"), names(statement.executeQuery()));
+        statement.setString(1, "_");
+        assertEquals(Arrays.asList("a", "b", "c"), names(statement.executeQuery()));
+    }
+
+    @Test
+    public void testUnsetParameter() throws SQLException {
+        PreparedStatement statement = this.connection.prepareStatement(
+                "SELECT name FROM T WHERE age > ? AND name = ?");
+        statement.setInt(1, 2);
+        assertNotSet(statement, 2);
+        statement.setString(2, "c");
+        assertEquals(Collections.singletonList("c"), names(statement.executeQuery()));
+        statement.clearParameters();
+        assertNotSet(statement, 1);
+    }
+
+    @Test
+    public void testInvalidParameterIndex() throws SQLException {
+        PreparedStatement statement = this.connection.prepareStatement("SELECT name FROM T WHERE age > ?");
+        try {
+            statement.setInt(2, 1);
+            fail("The statement has a single parameter");
+        } catch (SQLException e) {
+            assertEquals("Invalid ParameterIndex 2", e.getMessage());
+        }
+    }
+
+    private static void assertNotSet(PreparedStatement statement, int parameterIndex) {
+        try {
+            statement.executeQuery();
+            fail("Parameter " + parameterIndex + " is unset");
+        } catch (SQLException e) {
+            assertEquals("Parameter " + parameterIndex + " is not set", e.getMessage());
+        }
+    }
+
+    private static void assertAggregates(ResultSet resultSet, long count, long sum) throws SQLException {
+        assertTrue(resultSet.next());
+        assertEquals(count, resultSet.getLong(1));
+        assertEquals(sum, resultSet.getLong(2));
+        assertFalse(resultSet.next());
+        resultSet.close();
+    }
+
+    private static List<String> names(ResultSet resultSet) throws SQLException {
+        List<String> names = new ArrayList<String>();
+        while (resultSet.next()) {
+            names.add(resultSet.getString(1));
+        }
+        resultSet.close();
+        return names;
+    }
+
+    private static String record(long timestamp, String name, int age, String total, String score, boolean active) {
+        return "{\"id\":\"r" + timestamp + "\",\"tableName\":\"T\",\"timestamp\":" + timestamp
+                + ",\"values\":{\"name\":\"" + name + "\",\"age\":" + age + ",\"total\":" + total
+                + ",\"score\":" + score + ",\"active\":" + active + "}}";
+    }
+
+    /*
+     * Connection which reads the records of the table T from a string instead of DAS.
+     */
+    private static class RecordsConnection extends DASJConnection {
+
+        private RecordsConnection() throws SQLException {
+            super("http://localhost:9763/analytics", new Properties());
+        }
+
+        @Override
+        public TableSchema getTableSchema(String tableName) {
+            Map<String, String> columnDataTypes = new LinkedHashMap<String, String>();
+            columnDataTypes.put("name", "STRING");
+            columnDataTypes.put("age", "INTEGER");
+            columnDataTypes.put("total", "LONG");
+            columnDataTypes.put("score", "DOUBLE");
+            columnDataTypes.put("active", "BOOLEAN");
+            return new TableSchema(columnDataTypes, Collections.<String>emptyList(),
+                    Collections.<String>emptyList(), Collections.<String>emptyList());
+        }
+
+        @Override
+        public <T> T getTableData(String tableName, List<String> fields,
+                DASServiceConnector.ResponseHandler<T> handler) throws SQLException {
+            try {
+                return handler.handleResponse(new StringReader(RECORDS));
+            } catch (IOException e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.jdbc;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.das.jdbcdriver.dasInterface.DASServiceConnector;
+import org.wso2.das.jdbcdriver.dasInterface.TableSchema;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DASJStatementTest {
+
+    private DASJConnection connection;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws SQLException {
+        this.connection = new DASJConnection("http://localhost:9763/analytics", new Properties());
+        this.executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        this.executor.shutdownNow();
+        this.connection.close();
+    }
+
+    @Test
+    public void testAsyncQueriesOfStatementRunOneAtATime() throws Exception {
+        RecordingStatement statement = new RecordingStatement(this.connection);
+        List<CompletableFuture<ResultSet>> futures = new ArrayList<CompletableFuture<ResultSet>>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(statement.executeQueryAsync("SELECT " + i, this.executor));
+        }
+        List<ResultSet> resultSets = new ArrayList<ResultSet>();
+        for (CompletableFuture<ResultSet> future : futures) {
+            resultSets.add(future.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, statement.maxRunning.get());
+        assertEquals(Arrays.asList("SELECT 0", "SELECT 1", "SELECT 2", "SELECT 3", "SELECT 4"), statement.queries);
+        //Each query closes the result set of the previous query, and only the last one stays open
+        for (int i = 0; i < resultSets.size() - 1; i++) {
+            assertTrue(resultSets.get(i).isClosed());
+        }
+        assertFalse(resultSets.get(resultSets.size() - 1).isClosed());
+    }
+
+    @Test
+    public void testFailedAsyncQueryDoesNotStopNextQuery() throws Exception {
+        RecordingStatement statement = new RecordingStatement(this.connection);
+        CompletableFuture<ResultSet> failed = statement.executeQueryAsync("FAIL", this.executor);
+        CompletableFuture<ResultSet> next = statement.executeQueryAsync("SELECT 1", this.executor);
+        assertFalse(next.get(10, TimeUnit.SECONDS).isClosed());
+        assertTrue(failed.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testUnwrap() throws SQLException {
+        DASJStatement statement = (DASJStatement) this.connection.createStatement();
+        assertTrue(statement.isWrapperFor(DASJAsyncQueryExecutor.class));
+        assertEquals(statement, statement.unwrap(DASJAsyncQueryExecutor.class));
+        assertFalse(statement.isWrapperFor(String.class));
+    }
+
+    @Test
+    public void testCountFallsBackToClientUnlessExactlyTranslated() throws SQLException {
+        CountingConnection countingConnection = new CountingConnection();
+        try {
+            //The DAS backend counts the records of which the predicates are exactly translated
+            assertEquals(999, countRows(countingConnection, "age > 3"));
+            assertEquals(1, countingConnection.searchCounts);
+            assertEquals(0, countingConnection.scans);
+            String[] wheres = { "name = 'b'", "name LIKE 'a%'", "timestamp >= 103 OR age = 1", "age > 2.5" };
+            long[] counts = { 2, 2, 3, 3 };
+            for (int i = 0; i < wheres.length; i++) {
+                countingConnection.searchCounts = 0;
+                assertEquals(wheres[i], counts[i], countRows(countingConnection, wheres[i]));
+                assertEquals(wheres[i], 0, countingConnection.searchCounts);
+            }
+            assertEquals(wheres.length, countingConnection.scans);
+        } finally {
+            countingConnection.close();
+        }
+    }
+
+    @Test
+    public void testFacetCountsHaveGroupOfUncategorizedRecords() throws SQLException {
+        CountingConnection countingConnection = new CountingConnection();
+        try {
+            ResultSet rs = countingConnection.createStatement()
+                    .executeQuery("SELECT city, COUNT(*) FROM T WHERE age > 0 GROUP BY city");
+            Map<String, Long> counts = new HashMap<String, Long>();
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getLong(2));
+            }
+            Map<String, Long> expected = new HashMap<String, Long>();
+            expected.put("A", 400L);
+            expected.put("B", 300L);
+            //The search count of 999 records less the categorized records
+            expected.put(null, 299L);
+            assertEquals(expected, counts);
+            assertEquals(0, countingConnection.scans);
+        } finally {
+            countingConnection.close();
+        }
+    }
+
+    private static long countRows(DASJConnection connection, String where) throws SQLException {
+        ResultSet rs = connection.createStatement().executeQuery("SELECT COUNT(*) FROM T WHERE " + where);
+        assertTrue(rs.next());
+        long count = rs.getLong(1);
+        assertFalse(rs.next());
+        return count;
+    }
+
+    /*
+     * Connection of which the DAS backend has a table of five records. The counts of the backend are stubs, so
+     * that a count of the backend can be told apart from a count of the records.
+     */
+    private static class CountingConnection extends DASJConnection {
+        private static final String RECORDS = "["
+                + record(100, "a", 1, "\"A\"") + ","
+                + record(101, "b", 3, "\"A\"") + ","
+                + record(102, "b", 5, "\"B\"") + ","
+                + record(103, "c", 7, "null") + ","
+                + record(104, "ab", 2, "\"B\"") + "]";
+
+        private int searchCounts;
+        private int scans;
+
+        private CountingConnection() throws SQLException {
+            super("http://localhost:9763/analytics", new Properties());
+        }
+
+        private static String record(long timestamp, String name, int age, String city) {
+            return "{\"id\":\"r" + timestamp + "\",\"tableName\":\"T\",\"timestamp\":" + timestamp
+                    + ",\"values\":{\"name\":\"" + name + "\",\"age\":" + age + ",\"city\":" + city + "}}";
+        }
+
+        @Override
+        public TableSchema getTableSchema(String tableName) {
+            Map<String, String> columnDataTypes = new LinkedHashMap<String, String>();
+            columnDataTypes.put("name", "STRING");
+            columnDataTypes.put("age", "INTEGER");
+            columnDataTypes.put("city", "FACET");
+            return new TableSchema(columnDataTypes, Collections.<String>emptyList(),
+                    Arrays.asList("name", "age", "city"), Arrays.asList("city"));
+        }
+
+        @Override
+        public long searchCount(String tableName, String query) {
+            this.searchCounts++;
+            return 999;
+        }
+
+        @Override
+        public Map<String, Long> getFacetCounts(String tableName, String field, String query) {
+            Map<String, Long> categories = new HashMap<String, Long>();
+            categories.put("A", 400L);
+            categories.put("B", 300L);
+            return categories;
+        }
+
+        @Override
+        public <T> T getTableData(String tableName, List<String> fields,
+                DASServiceConnector.ResponseHandler<T> handler) throws SQLException {
+            this.scans++;
+            try {
+                return handler.handleResponse(new StringReader(RECORDS));
+            } catch (IOException e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+
+    /*
+     * Statement which records the queries it executes instead of sending them to DAS.
+     */
+    private static class RecordingStatement extends DASJStatement {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final List<String> queries = Collections.synchronizedList(new ArrayList<String>());
+
+        private RecordingStatement(DASJConnection connection) {
+            super(connection, ResultSet.TYPE_FORWARD_ONLY);
+        }
+
+        @Override
+        public ResultSet executeQuery(String sql) throws SQLException {
+            int count = this.running.incrementAndGet();
+            try {
+                this.maxRunning.set(Math.max(this.maxRunning.get(), count));
+                this.queries.add(sql);
+                closePreviousResultSet();
+                Thread.sleep(20);
+                if (sql.equals("FAIL")) {
+                    throw new SQLException("Query failed");
+                }
+                this.prevResultSet = createResultSet();
+                return this.prevResultSet;
+            } catch (InterruptedException e) {
+                throw new SQLException(e);
+            } finally {
+                this.running.decrementAndGet();
+            }
+        }
+
+        private static ResultSet createResultSet() {
+            final boolean[] closed = new boolean[1];
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            if (method.getName().equals("close")) {
+                                closed[0] = true;
+                            } else if (method.getName().equals("isClosed")) {
+                                return closed[0];
+                            }
+                            return null;
+                        }
+                    });
+        }
+    }
+}
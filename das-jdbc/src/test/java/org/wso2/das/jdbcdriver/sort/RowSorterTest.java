@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.das.jdbcdriver.sort;
+
+import org.junit.Test;
+import org.wso2.das.jdbcdriver.dasInterface.DataReader;
+import org.wso2.das.jdbcdriver.expressions.ColumnName;
+import org.wso2.das.jdbcdriver.expressions.Expression;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class RowSorterTest {
+
+    private static final String[] COLUMNS = { "K", "SEQ" };
+    private static final String[] TYPES = { "INTEGER", "INTEGER" };
+
+    @Test
+    public void testSortInMemory() throws SQLException {
+        assertSorted(createRows(500), false, -1, 1000);
+    }
+
+    @Test
+    public void testSortSpilledRuns() throws SQLException {
+        assertSorted(createRows(500), false, -1, 50);
+        assertSorted(createRows(500), true, -1, 50);
+    }
+
+    @Test
+    public void testSortMergesRunsInManyPasses() throws SQLException {
+        //Far more runs than can be merged at once
+        assertSorted(createRows(2000), false, -1, 7);
+        assertSorted(createRows(2000), true, -1, 3);
+    }
+
+    @Test
+    public void testTopRows() throws SQLException {
+        assertSorted(createRows(500), false, 10, 100);
+        assertSorted(createRows(500), true, 10, 10);
+        assertSorted(createRows(500), false, 1, 100);
+        assertSorted(createRows(500), false, 0, 100);
+        assertSorted(createRows(5), false, 10, 100);
+    }
+
+    @Test
+    public void testLimitAboveMaxRowsSpills() throws SQLException {
+        assertSorted(createRows(500), false, 40, 7);
+    }
+
+    @Test
+    public void testSpillFilesDeletedOnClose() throws SQLException {
+        int filesBefore = countSpillFiles();
+        RowSorter sorter = new RowSorter(createComparator(false), -1, 5);
+        for (Object[] row : createRows(300)) {
+            sorter.add(row);
+        }
+        DataReader results = sorter.getResults();
+        results.next();
+        results.close();
+        assertEquals(filesBefore, countSpillFiles());
+    }
+
+    /*
+     * Sort the rows and compare the result with a stable sort of the rows, of which the nulls are last in ascending
+     * order and first in descending order.
+     */
+    private static void assertSorted(List<Object[]> rows, boolean descending, int limit, int maxRows)
+            throws SQLException {
+        RowSorter sorter = new RowSorter(createComparator(descending), limit, maxRows);
+        for (Object[] row : rows) {
+            sorter.add(row);
+        }
+        List<String> sorted = new ArrayList<String>();
+        DataReader results = sorter.getResults();
+        while (results.next() && (limit < 0 || sorted.size() < limit)) {
+            Object[] row = results.getRow();
+            sorted.add(row[0] + ":" + row[1]);
+        }
+        results.close();
+
+        List<Object[]> expectedRows = new ArrayList<Object[]>(rows);
+        final int direction = descending ? -1 : 1;
+        Collections.sort(expectedRows, new Comparator<Object[]>() {
+            @Override
+            public int compare(Object[] row1, Object[] row2) {
+                Integer key1 = (Integer) row1[0];
+                Integer key2 = (Integer) row2[0];
+                if (key1 == null || key2 == null) {
+                    return direction * ((key1 == null ? 1 : 0) - (key2 == null ? 1 : 0));
+                }
+                return direction * key1.compareTo(key2);
+            }
+        });
+        List<String> expected = new ArrayList<String>();
+        for (Object[] row : expectedRows) {
+            if (limit >= 0 && expected.size() >= limit) {
+                break;
+            }
+            expected.add(row[0] + ":" + row[1]);
+        }
+        assertEquals(expected, sorted);
+    }
+
+    /*
+     * Rows with few distinct keys, so that many rows are equal in the order, and some null keys. The second column
+     * is the position of the row, which shows whether the sort is stable.
+     */
+    private static List<Object[]> createRows(int count) {
+        Random random = new Random(count);
+        List<Object[]> rows = new ArrayList<Object[]>();
+        for (int i = 0; i < count; i++) {
+            Integer key = random.nextInt(10) == 0 ? null : random.nextInt(20);
+            rows.add(new Object[] { key, i });
+        }
+        return rows;
+    }
+
+    private static RowComparator createComparator(boolean descending) {
+        Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            columnIndexes.put(COLUMNS[i], i);
+        }
+        Expression key = new ColumnName("K");
+        key.resolveColumns(columnIndexes, TYPES);
+        return new RowComparator(new Expression[] { key }, new boolean[] { descending });
+    }
+
+    private static int countSpillFiles() {
+        String[] files = new File(System.getProperty("java.io.tmpdir")).list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith("dasjdbc-sort");
+            }
+        });
+        return files != null ? files.length : 0;
+    }
+}